@@ -0,0 +1,135 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+import com.vozsocial.domain.enums.TipoFiltroVoz;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o filtro robótico em uma única thread. Cada operação processa exatamente um segundo
+ * de áudio, de modo que as operações por segundo informadas pelo JMH são o fator de tempo real
+ * por núcleo: {@code cadeia} mede só a cadeia de efeitos sobre blocos float[] reaproveitados,
+ * e {@code renderizar} inclui a decodificação do WAV e a gravação do resultado em PCM de 16 bits
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MotorEfeitosVozBenchmark {
+
+    private static final int TAMANHO_BLOCO = 1024;
+
+    @Param({"16000", "44100", "48000"})
+    private int taxaAmostragem;
+
+    @Param({"1", "2"})
+    private int canais;
+
+    private MotorEfeitosVoz motor;
+    private byte[] wav;
+    private EfeitoVoz[] cadeias;
+    private float[][] sinal;
+    private float[] bloco;
+
+    @Setup
+    public void preparar() {
+        motor = new MotorEfeitosVoz(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(motor, "frequenciaTomHz", 110f);
+        ReflectionTestUtils.setField(motor, "frequenciaModulacaoHz", 50f);
+        ReflectionTestUtils.setField(motor, "profundidadeModulacao", 0.5f);
+        ReflectionTestUtils.setField(motor, "bits", 8);
+        ReflectionTestUtils.setField(motor, "taxaReduzidaHz", 11025);
+        motor.registrarFiltros();
+
+        sinal = new float[canais][taxaAmostragem];
+        Random aleatorio = new Random(42);
+        for (int canal = 0; canal < canais; canal++) {
+            for (int i = 0; i < taxaAmostragem; i++) {
+                sinal[canal][i] = vozSintetica(i, aleatorio);
+            }
+        }
+        wav = paraWav(sinal);
+
+        cadeias = new EfeitoVoz[canais];
+        for (int canal = 0; canal < canais; canal++) {
+            cadeias[canal] = new CadeiaEfeitos(
+                    new QuantizacaoTom(taxaAmostragem, 110f),
+                    new ModulacaoAnel(taxaAmostragem, 50f, 0.5f),
+                    new Bitcrush(taxaAmostragem, 8, 11025));
+        }
+        bloco = new float[TAMANHO_BLOCO];
+    }
+
+    /**
+     * Um segundo de áudio pela cadeia de efeitos, em blocos, sem alocação
+     */
+    @Benchmark
+    public void cadeia(Blackhole blackhole) {
+        for (int canal = 0; canal < canais; canal++) {
+            float[] amostras = sinal[canal];
+            for (int inicio = 0; inicio < amostras.length; inicio += TAMANHO_BLOCO) {
+                int quantidade = Math.min(TAMANHO_BLOCO, amostras.length - inicio);
+                System.arraycopy(amostras, inicio, bloco, 0, quantidade);
+                cadeias[canal].processar(bloco, quantidade);
+                blackhole.consume(bloco);
+            }
+        }
+    }
+
+    /**
+     * Um segundo de WAV do início ao fim: decodificação, cadeia por canal e gravação
+     */
+    @Benchmark
+    public byte[] renderizar() {
+        return motor.renderizar(TipoFiltroVoz.ROBOTICO, wav).orElseThrow();
+    }
+
+    /**
+     * Fundamental de ~140 Hz com harmônicos, vibrato leve e ruído, próximo de uma voz falada
+     */
+    private float vozSintetica(int indice, Random aleatorio) {
+        double tempo = (double) indice / taxaAmostragem;
+        double fase = 2 * Math.PI * (140 * tempo + 0.8 * Math.sin(2 * Math.PI * 5 * tempo));
+        double amostra = 0;
+        for (int harmonico = 1; harmonico <= 8; harmonico++) {
+            amostra += Math.sin(harmonico * fase) / harmonico;
+        }
+        return (float) (0.3 * amostra + 0.02 * aleatorio.nextGaussian());
+    }
+
+    private byte[] paraWav(float[][] amostras) {
+        int quadros = amostras[0].length;
+        int tamanhoDados = quadros * canais * 2;
+        ByteBuffer saida = ByteBuffer.allocate(44 + tamanhoDados).order(ByteOrder.LITTLE_ENDIAN);
+        saida.put("RIFF".getBytes()).putInt(36 + tamanhoDados).put("WAVE".getBytes())
+                .put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) canais)
+                .putInt(taxaAmostragem).putInt(taxaAmostragem * canais * 2)
+                .putShort((short) (canais * 2)).putShort((short) 16)
+                .put("data".getBytes()).putInt(tamanhoDados);
+        for (int i = 0; i < quadros; i++) {
+            for (int canal = 0; canal < canais; canal++) {
+                float amostra = Math.max(-1f, Math.min(1f, amostras[canal][i]));
+                saida.putShort((short) Math.round(amostra * Short.MAX_VALUE));
+            }
+        }
+        return saida.array();
+    }
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO para transferência de dados de arquivo de áudio
@@ -22,10 +23,12 @@ public class ArquivoAudioDto {
     private Long usuarioId;
     private String nomeArquivoOriginal;
     private String caminhoArquivo;
+    private String hashConteudo;
     private Long tamanhoArquivo;
     private BigDecimal duracaoSegundos;
     private String tipoMime;
     private String transcricao;
+    private List<RegiaoFalaDto> regioesFala;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime criadoEm;
@@ -1,6 +1,7 @@
 package com.vozsocial.application.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.vozsocial.domain.enums.TipoFiltroVoz;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,6 +29,9 @@ public class PostAudioDto {
     private Boolean processado;
     private TipoFiltroVoz tipoFiltroVoz;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private WaveformDto waveform;
+
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime criadoEm;
 
@@ -0,0 +1,48 @@
+package com.vozsocial.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.vozsocial.domain.enums.ModoRetranscricao;
+import com.vozsocial.domain.enums.StatusExecucaoRetranscricao;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para transferência do progresso de uma execução de retranscrição; vazão e
+ * previsão só são conhecidas na instância que está processando a execução
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressoRetranscricaoDto {
+
+    private Long id;
+    private ModoRetranscricao modo;
+    private StatusExecucaoRetranscricao status;
+    private String versao;
+    private Long ultimoId;
+    private Long idFinal;
+    private Long totalEstimado;
+    private Long processados;
+    private Long falhas;
+    private Double percentual;
+    private Double itensPorSegundo;
+    private Long segundosRestantes;
+    private String ultimoErro;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime previsaoConclusao;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime criadoEm;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime atualizadoEm;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime concluidoEm;
+}
@@ -0,0 +1,21 @@
+package com.vozsocial.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para transferência de um trecho com fala detectado no áudio
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegiaoFalaDto {
+
+    private BigDecimal inicioSegundos;
+    private BigDecimal fimSegundos;
+}
@@ -0,0 +1,28 @@
+package com.vozsocial.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para transferência de dados de sessão de upload retomável
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessaoUploadDto {
+
+    private String id;
+    private Long usuarioId;
+    private String nomeArquivo;
+    private Long tamanhoTotal;
+    private Long deslocamento;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,29 @@
+package com.vozsocial.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.vozsocial.domain.enums.StatusVarianteAudio;
+import com.vozsocial.domain.enums.TipoFiltroVoz;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para transferência de dados de variante de áudio com filtro de voz
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VarianteAudioDto {
+
+    private TipoFiltroVoz tipoFiltroVoz;
+    private StatusVarianteAudio status;
+    private Long tamanhoArquivo;
+    private String tipoMime;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime atualizadoEm;
+}
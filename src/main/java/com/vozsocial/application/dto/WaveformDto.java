@@ -0,0 +1,21 @@
+package com.vozsocial.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para transferência da forma de onda de um áudio (picos em base64, 8 bits com sinal)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaveformDto {
+
+    private Integer quantidadePicos;
+    private Double segundosPorPico;
+    private byte[] minimos;
+    private byte[] maximos;
+}
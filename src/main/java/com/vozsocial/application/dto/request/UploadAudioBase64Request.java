@@ -0,0 +1,22 @@
+package com.vozsocial.application.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para requisição de upload de áudio base64 em JSON
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadAudioBase64Request {
+
+    private Long usuarioId;
+
+    private String nomeArquivo;
+
+    private String audioDataUri;
+}
@@ -0,0 +1,23 @@
+package com.vozsocial.application.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para resposta de página navegada por cursor; o próximo cursor é opaco e
+ * vem nulo na última página
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorResponse<T> {
+
+    private List<T> itens;
+    private String proximoCursor;
+    private Boolean temMais;
+}
@@ -0,0 +1,18 @@
+package com.vozsocial.application.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para um trecho de transcrição enviado em stream, na ordem em que o modelo o gerou
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrechoTranscricaoResponse {
+
+    private String texto;
+}
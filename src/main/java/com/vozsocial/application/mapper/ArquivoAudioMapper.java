@@ -1,9 +1,19 @@
 package com.vozsocial.application.mapper;
 
 import com.vozsocial.application.dto.ArquivoAudioDto;
+import com.vozsocial.application.dto.RegiaoFalaDto;
+import com.vozsocial.application.dto.VarianteAudioDto;
+import com.vozsocial.application.dto.WaveformDto;
 import com.vozsocial.domain.entity.ArquivoAudio;
+import com.vozsocial.domain.entity.VarianteAudio;
+import com.vozsocial.infrastructure.audio.RegiaoFala;
+import com.vozsocial.infrastructure.audio.Waveform;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Mapper para conversão entre ArquivoAudio e ArquivoAudioDto
  */
@@ -23,14 +33,66 @@ public class ArquivoAudioMapper {
                 .usuarioId(arquivoAudio.getUsuario() != null ? arquivoAudio.getUsuario().getId() : null)
                 .nomeArquivoOriginal(arquivoAudio.getNomeArquivoOriginal())
                 .caminhoArquivo(arquivoAudio.getCaminhoArquivo())
+                .hashConteudo(arquivoAudio.getHashConteudo())
                 .tamanhoArquivo(arquivoAudio.getTamanhoArquivo())
                 .duracaoSegundos(arquivoAudio.getDuracaoSegundos())
                 .tipoMime(arquivoAudio.getTipoMime())
                 .transcricao(arquivoAudio.getTranscricao())
+                .regioesFala(paraRegioesFalaDto(arquivoAudio.getRegioesFala()))
                 .criadoEm(arquivoAudio.getCriadoEm())
                 .build();
     }
 
+    /**
+     * Converte a variante com filtro de voz para VarianteAudioDto
+     */
+    public VarianteAudioDto paraVarianteDto(VarianteAudio varianteAudio) {
+        if (varianteAudio == null) {
+            return null;
+        }
+
+        return VarianteAudioDto.builder()
+                .tipoFiltroVoz(varianteAudio.getTipoFiltroVoz())
+                .status(varianteAudio.getStatus())
+                .tamanhoArquivo(varianteAudio.getTamanhoArquivo())
+                .tipoMime(varianteAudio.getTipoMime())
+                .atualizadoEm(varianteAudio.getAtualizadoEm())
+                .build();
+    }
+
+    /**
+     * Converte a forma de onda para WaveformDto
+     */
+    public WaveformDto paraWaveformDto(Waveform waveform) {
+        if (waveform == null) {
+            return null;
+        }
+
+        return WaveformDto.builder()
+                .quantidadePicos(waveform.quantidadePicos())
+                .segundosPorPico(waveform.getTaxaAmostragem() > 0
+                        ? (double) waveform.getAmostrasPorPico() / waveform.getTaxaAmostragem() : null)
+                .minimos(waveform.getMinimos())
+                .maximos(waveform.getMaximos())
+                .build();
+    }
+
+    /**
+     * Converte as regiões com fala gravadas em milissegundos para RegiaoFalaDto em segundos
+     */
+    public List<RegiaoFalaDto> paraRegioesFalaDto(String regioesFala) {
+        if (regioesFala == null) {
+            return null;
+        }
+
+        return RegiaoFala.ler(regioesFala).stream()
+                .map(regiao -> RegiaoFalaDto.builder()
+                        .inicioSegundos(BigDecimal.valueOf(regiao.getInicioMs(), 3))
+                        .fimSegundos(BigDecimal.valueOf(regiao.getFimMs(), 3))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Converte ArquivoAudioDto para entidade ArquivoAudio (sem relacionamentos)
      */
@@ -43,6 +105,7 @@ public class ArquivoAudioMapper {
                 .id(arquivoAudioDto.getId())
                 .nomeArquivoOriginal(arquivoAudioDto.getNomeArquivoOriginal())
                 .caminhoArquivo(arquivoAudioDto.getCaminhoArquivo())
+                .hashConteudo(arquivoAudioDto.getHashConteudo())
                 .tamanhoArquivo(arquivoAudioDto.getTamanhoArquivo())
                 .duracaoSegundos(arquivoAudioDto.getDuracaoSegundos())
                 .tipoMime(arquivoAudioDto.getTipoMime())
@@ -0,0 +1,30 @@
+package com.vozsocial.application.mapper;
+
+import com.vozsocial.application.dto.SessaoUploadDto;
+import com.vozsocial.domain.entity.SessaoUpload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper para conversão entre SessaoUpload e SessaoUploadDto
+ */
+@Component
+public class SessaoUploadMapper {
+
+    /**
+     * Converte entidade SessaoUpload para SessaoUploadDto
+     */
+    public SessaoUploadDto paraDto(SessaoUpload sessaoUpload) {
+        if (sessaoUpload == null) {
+            return null;
+        }
+
+        return SessaoUploadDto.builder()
+                .id(sessaoUpload.getId())
+                .usuarioId(sessaoUpload.getUsuario() != null ? sessaoUpload.getUsuario().getId() : null)
+                .nomeArquivo(sessaoUpload.getNomeArquivo())
+                .tamanhoTotal(sessaoUpload.getTamanhoTotal())
+                .deslocamento(sessaoUpload.getDeslocamento())
+                .expiraEm(sessaoUpload.getExpiraEm())
+                .build();
+    }
+}
@@ -35,6 +35,9 @@ public class ArquivoAudio {
     @Column(name = "caminho_arquivo", nullable = false, length = 500)
     private String caminhoArquivo;
 
+    @Column(name = "hash_conteudo", length = 64)
+    private String hashConteudo;
+
     @Column(name = "tamanho_arquivo")
     private Long tamanhoArquivo;
 
@@ -47,6 +50,9 @@ public class ArquivoAudio {
     @Column(name = "transcricao", columnDefinition = "TEXT")
     private String transcricao;
 
+    @Column(name = "regioes_fala", columnDefinition = "TEXT")
+    private String regioesFala;
+
     @CreationTimestamp
     @Column(name = "criado_em", nullable = false, updatable = false)
     private LocalDateTime criadoEm;
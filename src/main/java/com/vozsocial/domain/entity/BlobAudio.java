@@ -0,0 +1,40 @@
+package com.vozsocial.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um conteúdo de áudio armazenado uma única vez,
+ * endereçado pelo hash SHA-256 e compartilhado por vários arquivos de áudio
+ */
+@Entity
+@Table(name = "blobs_audio")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlobAudio {
+
+    @Id
+    @Column(name = "hash_conteudo", length = 64)
+    private String hashConteudo;
+
+    @Column(name = "caminho_arquivo", nullable = false, length = 500)
+    private String caminhoArquivo;
+
+    @Column(name = "tamanho_arquivo")
+    private Long tamanhoArquivo;
+
+    @Column(name = "referencias", nullable = false)
+    private Integer referencias;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+}
@@ -0,0 +1,81 @@
+package com.vozsocial.domain.entity;
+
+import com.vozsocial.domain.enums.ModoRetranscricao;
+import com.vozsocial.domain.enums.StatusExecucaoRetranscricao;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa uma execução de retranscrição em lote, com o checkpoint
+ * de onde retomar depois de uma pausa ou de uma queda da instância
+ */
+@Entity
+@Table(name = "execucoes_retranscricao")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecucaoRetranscricao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "modo", nullable = false, length = 20)
+    private ModoRetranscricao modo;
+
+    @Column(name = "versao", nullable = false, length = 100)
+    private String versao;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private StatusExecucaoRetranscricao status = StatusExecucaoRetranscricao.EM_ANDAMENTO;
+
+    @Column(name = "ultimo_id", nullable = false)
+    @Builder.Default
+    private Long ultimoId = 0L;
+
+    @Column(name = "id_final", nullable = false)
+    private Long idFinal;
+
+    @Column(name = "total_estimado", nullable = false)
+    @Builder.Default
+    private Long totalEstimado = 0L;
+
+    @Column(name = "processados", nullable = false)
+    @Builder.Default
+    private Long processados = 0L;
+
+    @Column(name = "falhas", nullable = false)
+    @Builder.Default
+    private Long falhas = 0L;
+
+    @Column(name = "reservado_por", length = 64)
+    private String reservadoPor;
+
+    @Column(name = "reservado_ate")
+    private LocalDateTime reservadoAte;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    @Column(name = "concluido_em")
+    private LocalDateTime concluidoEm;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+}
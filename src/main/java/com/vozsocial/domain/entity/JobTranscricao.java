@@ -0,0 +1,58 @@
+package com.vozsocial.domain.entity;
+
+import com.vozsocial.domain.enums.StatusJobTranscricao;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa a transcrição pendente de um post, processada
+ * pelos workers em background fora da requisição de criação
+ */
+@Entity
+@Table(name = "jobs_transcricao")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobTranscricao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false, unique = true)
+    private Long postId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private StatusJobTranscricao status = StatusJobTranscricao.PENDENTE;
+
+    @Column(name = "tentativas", nullable = false)
+    @Builder.Default
+    private Integer tentativas = 0;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(name = "reservado_ate")
+    private LocalDateTime reservadoAte;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+}
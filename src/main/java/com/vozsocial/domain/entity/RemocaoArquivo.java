@@ -0,0 +1,41 @@
+package com.vozsocial.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que registra um arquivo físico a ser removido do storage pelo coletor
+ * em background, depois que a exclusão no banco foi confirmada
+ */
+@Entity
+@Table(name = "remocoes_arquivo")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemocaoArquivo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "caminho_arquivo", nullable = false, length = 500)
+    private String caminhoArquivo;
+
+    @Column(name = "hash_conteudo", length = 64)
+    private String hashConteudo;
+
+    @Column(name = "tentativas", nullable = false)
+    @Builder.Default
+    private Integer tentativas = 0;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+}
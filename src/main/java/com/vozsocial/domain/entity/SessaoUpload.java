@@ -0,0 +1,51 @@
+package com.vozsocial.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um upload retomável em andamento, recebido em partes
+ * e gravado diretamente no arquivo temporário de destino
+ */
+@Entity
+@Table(name = "sessoes_upload")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessaoUpload {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(name = "nome_arquivo", length = 255)
+    private String nomeArquivo;
+
+    @Column(name = "caminho_temporario", nullable = false, length = 500)
+    private String caminhoTemporario;
+
+    @Column(name = "tamanho_total")
+    private Long tamanhoTotal;
+
+    @Column(name = "deslocamento", nullable = false)
+    @Builder.Default
+    private Long deslocamento = 0L;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+}
@@ -0,0 +1,73 @@
+package com.vozsocial.domain.entity;
+
+import com.vozsocial.domain.enums.StatusVarianteAudio;
+import com.vozsocial.domain.enums.TipoFiltroVoz;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa a versão de um arquivo de áudio com um filtro de voz aplicado,
+ * renderizada em background e entregue como um conteúdo armazenado comum
+ */
+@Entity
+@Table(name = "variantes_audio")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VarianteAudio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "arquivo_audio_id", nullable = false)
+    private ArquivoAudio arquivoAudio;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_filtro_voz", nullable = false, length = 20)
+    private TipoFiltroVoz tipoFiltroVoz;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private StatusVarianteAudio status = StatusVarianteAudio.PENDENTE;
+
+    @Column(name = "caminho_arquivo", length = 500)
+    private String caminhoArquivo;
+
+    @Column(name = "hash_conteudo", length = 64)
+    private String hashConteudo;
+
+    @Column(name = "tamanho_arquivo")
+    private Long tamanhoArquivo;
+
+    @Column(name = "tipo_mime", length = 100)
+    private String tipoMime;
+
+    @Column(name = "tentativas", nullable = false)
+    @Builder.Default
+    private Integer tentativas = 0;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @UpdateTimestamp
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+}
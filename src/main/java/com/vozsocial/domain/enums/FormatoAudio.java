@@ -0,0 +1,55 @@
+package com.vozsocial.domain.enums;
+
+/**
+ * Enum que representa os formatos de áudio reconhecidos pelo conteúdo do arquivo
+ */
+public enum FormatoAudio {
+    WEBM("audio/webm", ".webm"),
+    WAV("audio/wav", ".wav"),
+    MP3("audio/mpeg", ".mp3"),
+    DESCONHECIDO(null, null);
+
+    private final String tipoMime;
+    private final String extensao;
+
+    FormatoAudio(String tipoMime, String extensao) {
+        this.tipoMime = tipoMime;
+        this.extensao = extensao;
+    }
+
+    public String getTipoMime() {
+        return tipoMime;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    /**
+     * Identifica o formato pelos primeiros bytes do arquivo (magic numbers)
+     */
+    public static FormatoAudio detectar(byte[] cabecalho, int tamanho) {
+        if (tamanho >= 4
+                && (cabecalho[0] & 0xFF) == 0x1A && (cabecalho[1] & 0xFF) == 0x45
+                && (cabecalho[2] & 0xFF) == 0xDF && (cabecalho[3] & 0xFF) == 0xA3) {
+            return WEBM;
+        }
+
+        if (tamanho >= 12
+                && cabecalho[0] == 'R' && cabecalho[1] == 'I' && cabecalho[2] == 'F' && cabecalho[3] == 'F'
+                && cabecalho[8] == 'W' && cabecalho[9] == 'A' && cabecalho[10] == 'V' && cabecalho[11] == 'E') {
+            return WAV;
+        }
+
+        if (tamanho >= 3 && cabecalho[0] == 'I' && cabecalho[1] == 'D' && cabecalho[2] == '3') {
+            return MP3;
+        }
+
+        // Sincronismo de frame MPEG: 11 bits em 1
+        if (tamanho >= 2 && (cabecalho[0] & 0xFF) == 0xFF && (cabecalho[1] & 0xE0) == 0xE0) {
+            return MP3;
+        }
+
+        return DESCONHECIDO;
+    }
+}
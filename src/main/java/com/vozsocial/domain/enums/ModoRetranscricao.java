@@ -0,0 +1,19 @@
+package com.vozsocial.domain.enums;
+
+/**
+ * Enum que representa quais arquivos uma execução de retranscrição percorre
+ */
+public enum ModoRetranscricao {
+    RETRANSCRICAO("Todos os arquivos, com o modelo e o prompt atuais"),
+    BACKFILL("Apenas arquivos ainda sem transcrição");
+
+    private final String descricao;
+
+    ModoRetranscricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
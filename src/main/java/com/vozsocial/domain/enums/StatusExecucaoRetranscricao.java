@@ -0,0 +1,21 @@
+package com.vozsocial.domain.enums;
+
+/**
+ * Enum que representa a situação de uma execução de retranscrição
+ */
+public enum StatusExecucaoRetranscricao {
+    EM_ANDAMENTO("Em andamento"),
+    PAUSADA("Pausada"),
+    CONCLUIDA("Concluída"),
+    CANCELADA("Cancelada");
+
+    private final String descricao;
+
+    StatusExecucaoRetranscricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
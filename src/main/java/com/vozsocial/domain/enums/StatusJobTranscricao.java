@@ -0,0 +1,21 @@
+package com.vozsocial.domain.enums;
+
+/**
+ * Enum que representa as etapas de um job de transcrição
+ */
+public enum StatusJobTranscricao {
+    PENDENTE("Pendente"),
+    PROCESSANDO("Processando"),
+    CONCLUIDO("Concluído"),
+    FALHOU("Falhou");
+
+    private final String descricao;
+
+    StatusJobTranscricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -0,0 +1,21 @@
+package com.vozsocial.domain.enums;
+
+/**
+ * Enum que representa a situação da renderização de uma variante de áudio
+ */
+public enum StatusVarianteAudio {
+    PENDENTE("Pendente"),
+    CONCLUIDA("Concluída"),
+    NAO_SUPORTADA("Formato não suportado pelo filtro"),
+    FALHOU("Falhou");
+
+    private final String descricao;
+
+    StatusVarianteAudio(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
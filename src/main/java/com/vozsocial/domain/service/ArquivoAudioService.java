@@ -1,29 +1,55 @@
 package com.vozsocial.domain.service;
 
 import com.vozsocial.application.dto.ArquivoAudioDto;
+import com.vozsocial.application.dto.VarianteAudioDto;
+import com.vozsocial.application.dto.WaveformDto;
+import com.vozsocial.application.dto.request.UploadAudioBase64Request;
 import com.vozsocial.application.mapper.ArquivoAudioMapper;
 import com.vozsocial.domain.entity.ArquivoAudio;
 import com.vozsocial.domain.entity.Usuario;
+import com.vozsocial.domain.entity.VarianteAudio;
+import com.vozsocial.domain.enums.FormatoAudio;
+import com.vozsocial.domain.enums.StatusVarianteAudio;
+import com.vozsocial.domain.enums.TipoFiltroVoz;
+import com.vozsocial.infrastructure.ai.PrioridadeChamada;
+import com.vozsocial.infrastructure.audio.AparadorSilencio;
+import com.vozsocial.infrastructure.audio.GeradorWaveform;
+import com.vozsocial.infrastructure.audio.LeitorDuracaoAudio;
 import com.vozsocial.infrastructure.repository.ArquivoAudioRepository;
+import com.vozsocial.infrastructure.repository.BlobAudioRepository;
+import com.vozsocial.infrastructure.json.LeitorJsonAudioStream;
+import com.vozsocial.infrastructure.json.LeituraAudioStream;
 import com.vozsocial.infrastructure.repository.UsuarioRepository;
+import com.vozsocial.infrastructure.repository.VarianteAudioRepository;
+import com.vozsocial.infrastructure.storage.ArmazenamentoAudio;
+import com.vozsocial.infrastructure.storage.ArquivoGravado;
+import com.vozsocial.infrastructure.storage.GravadorStreamAudio;
+import com.vozsocial.infrastructure.storage.LayoutArmazenamentoAudio;
+import com.vozsocial.infrastructure.storage.RegiaoArmazenada;
+import com.vozsocial.infrastructure.web.ConteudoAudio;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -35,13 +61,25 @@ import java.util.stream.Collectors;
 @Transactional
 public class ArquivoAudioService {
 
+    static final long TAMANHO_MAXIMO_BYTES = 50L * 1024 * 1024;
+    // Margem para o último quadro que os gravadores incluem além do limite
+    private static final BigDecimal TOLERANCIA_DURACAO_SEGUNDOS = new BigDecimal("0.50");
+
     private final ArquivoAudioRepository arquivoAudioRepository;
+    private final BlobAudioRepository blobAudioRepository;
     private final UsuarioRepository usuarioRepository;
+    private final VarianteAudioRepository varianteAudioRepository;
     private final ArquivoAudioMapper arquivoAudioMapper;
     private final GoogleAIService googleAIService;
-
-    @Value("${storage.audio.base-path}")
-    private String caminhoBaseStorage;
+    private final GravadorStreamAudio gravadorStreamAudio;
+    private final ArmazenamentoAudio armazenamentoAudio;
+    private final LeitorJsonAudioStream leitorJsonAudioStream;
+    private final LayoutArmazenamentoAudio layoutArmazenamento;
+    private final LeitorDuracaoAudio leitorDuracaoAudio;
+    private final GeradorWaveform geradorWaveform;
+    private final AparadorSilencio aparadorSilencio;
+    private final RemocaoArquivoService remocaoArquivoService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${storage.audio.max-duration-seconds:15}")
     private int duracaoMaximaSegundos;
@@ -57,6 +95,60 @@ public class ArquivoAudioService {
                 .map(arquivoAudioMapper::paraDto);
     }
 
+    /**
+     * Localiza o conteúdo físico de um arquivo de áudio para reprodução
+     */
+    @Transactional(readOnly = true)
+    public Optional<ConteudoAudio> buscarConteudo(Long id) {
+        return arquivoAudioRepository.findById(id)
+                .flatMap(this::paraConteudo);
+    }
+
+    /**
+     * Localiza o conteúdo com o filtro de voz já renderizado; vazio enquanto a variante
+     * não estiver pronta, para que o áudio sem filtro não seja entregue no lugar dela
+     */
+    @Transactional(readOnly = true)
+    public Optional<ConteudoAudio> buscarConteudo(Long id, TipoFiltroVoz filtro) {
+        if (filtro == null || filtro == TipoFiltroVoz.NATURAL) {
+            return buscarConteudo(id);
+        }
+        return varianteAudioRepository.findByArquivoAudioIdAndTipoFiltroVoz(id, filtro)
+                .filter(variante -> variante.getStatus() == StatusVarianteAudio.CONCLUIDA)
+                .flatMap(variante -> montarConteudo(id, variante.getCaminhoArquivo(), variante.getHashConteudo(),
+                        variante.getTipoMime(), variante.getAtualizadoEm()));
+    }
+
+    /**
+     * Lista as variantes com filtro de voz do arquivo de áudio e sua situação
+     */
+    @Transactional(readOnly = true)
+    public List<VarianteAudioDto> listarVariantes(Long id) {
+        return varianteAudioRepository.findByArquivoAudioId(id)
+                .stream()
+                .map(arquivoAudioMapper::paraVarianteDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lê o sidecar binário com a forma de onda do arquivo de áudio
+     */
+    @Transactional(readOnly = true)
+    public Optional<byte[]> buscarWaveformBinario(Long id) {
+        return arquivoAudioRepository.findById(id)
+                .flatMap(arquivoAudio -> armazenamentoAudio.lerWaveform(arquivoAudio.getCaminhoArquivo()));
+    }
+
+    /**
+     * Busca a forma de onda do arquivo de áudio já decodificada
+     */
+    @Transactional(readOnly = true)
+    public Optional<WaveformDto> buscarWaveform(Long id) {
+        return buscarWaveformBinario(id)
+                .map(geradorWaveform::decodificar)
+                .map(arquivoAudioMapper::paraWaveformDto);
+    }
+
     /**
      * Lista arquivos de áudio por usuário
      */
@@ -79,16 +171,21 @@ public class ArquivoAudioService {
         validarArquivo(arquivo);
         Usuario usuario = buscarUsuario(usuarioId);
         
-        String nomeArquivo = gerarNomeArquivoUnico(arquivo.getOriginalFilename());
-        String caminhoArquivo = salvarArquivo(arquivo, nomeArquivo);
+        ArquivoGravado arquivoGravado = aparadorSilencio.aparar(gravarTemporario(abrirArquivo(arquivo)),
+            TAMANHO_MAXIMO_BYTES);
+        BigDecimal duracao = calcularDuracao(arquivoGravado);
+        String caminhoArquivo = armazenarConteudo(arquivoGravado, 
+            extensaoDoConteudo(arquivoGravado, arquivo.getOriginalFilename()));
         
         ArquivoAudio arquivoAudio = ArquivoAudio.builder()
                 .usuario(usuario)
                 .nomeArquivoOriginal(arquivo.getOriginalFilename())
                 .caminhoArquivo(caminhoArquivo)
-                .tamanhoArquivo(arquivo.getSize())
+                .hashConteudo(arquivoGravado.getHashSha256())
+                .tamanhoArquivo(arquivoGravado.getTamanho())
                 .tipoMime(arquivo.getContentType())
-                .duracaoSegundos(calcularDuracaoAproximada(arquivo.getSize()))
+                .duracaoSegundos(duracao)
+                .regioesFala(arquivoGravado.getRegioesFala())
                 .build();
         
         ArquivoAudio arquivoSalvo = arquivoAudioRepository.save(arquivoAudio);
@@ -112,15 +209,21 @@ public class ArquivoAudioService {
         String nomeArquivoFinal = nomeArquivo != null ? nomeArquivo : 
             "audio_" + UUID.randomUUID().toString() + ".webm";
         
-        String caminhoArquivo = salvarArquivoBase64(dadosAudio, nomeArquivoFinal);
+        ArquivoGravado arquivoGravado = aparadorSilencio.aparar(gravarTemporario(new ByteArrayInputStream(dadosAudio)),
+            TAMANHO_MAXIMO_BYTES);
+        BigDecimal duracao = calcularDuracao(arquivoGravado);
+        String caminhoArquivo = armazenarConteudo(arquivoGravado, 
+            extensaoDoConteudo(arquivoGravado, nomeArquivoFinal));
         
         ArquivoAudio arquivoAudio = ArquivoAudio.builder()
                 .usuario(usuario)
                 .nomeArquivoOriginal(nomeArquivoFinal)
                 .caminhoArquivo(caminhoArquivo)
-                .tamanhoArquivo((long) dadosAudio.length)
+                .hashConteudo(arquivoGravado.getHashSha256())
+                .tamanhoArquivo(arquivoGravado.getTamanho())
                 .tipoMime(tipoMime)
-                .duracaoSegundos(calcularDuracaoAproximada((long) dadosAudio.length))
+                .duracaoSegundos(duracao)
+                .regioesFala(arquivoGravado.getRegioesFala())
                 .build();
         
         ArquivoAudio arquivoSalvo = arquivoAudioRepository.save(arquivoAudio);
@@ -130,21 +233,177 @@ public class ArquivoAudioService {
     }
 
     /**
-     * Transcreve áudio usando Google AI
+     * Processa upload de áudio lendo o corpo da requisição diretamente para o storage;
+     * a leitura do cliente acontece fora de transação, sem reter conexão do pool
      */
-    public ArquivoAudioDto transcreverAudio(Long arquivoId, String audioDataUri) {
-        log.info("Transcrevendo áudio ID: {}", arquivoId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArquivoAudioDto processarUploadStream(InputStream corpo, Long usuarioId, String nomeArquivo) {
+        log.info("Processando upload de áudio via stream para usuário: {}", usuarioId);
+        
+        ArquivoGravado arquivoGravado = gravarTemporario(corpo);
+        
+        return processarArquivoGravado(arquivoGravado, usuarioId, nomeArquivo);
+    }
+
+    /**
+     * Processa upload de áudio base64 em JSON, decodificando o data URI em stream fora de transação
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArquivoAudioDto processarUploadBase64Stream(InputStream corpo) {
+        LeituraAudioStream<UploadAudioBase64Request, ArquivoGravado> leitura = leitorJsonAudioStream.ler(
+            corpo, UploadAudioBase64Request.class, "audioDataUri", (tipoMime, dados) -> gravarTemporario(dados),
+            this::descartarTemporario);
+        
+        UploadAudioBase64Request request = leitura.getRequisicao();
+        ArquivoGravado arquivoGravado = leitura.getAudio();
+        log.info("Processando upload de áudio base64 via stream para usuário: {}", request.getUsuarioId());
+        
+        if (arquivoGravado == null) {
+            throw new IllegalArgumentException("Dados do áudio são obrigatórios");
+        }
         
+        return processarArquivoGravado(arquivoGravado, request.getUsuarioId(), request.getNomeArquivo());
+    }
+
+    /**
+     * Grava um stream de áudio em arquivo temporário no volume de storage, sem abrir transação
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ArquivoGravado gravarTemporario(InputStream dados) {
+        return gravadorStreamAudio.gravar(dados, layoutArmazenamento.diretorioTemporario(), TAMANHO_MAXIMO_BYTES);
+    }
+
+    /**
+     * Remove um arquivo temporário que não chegou a ser publicado
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void descartarTemporario(ArquivoGravado arquivoGravado) {
+        gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+    }
+
+    /**
+     * Valida e publica um arquivo já gravado em disco, registrando seus metadados; fora de uma
+     * transação do chamador, só a busca do usuário e a gravação dos metadados abrem transação
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ArquivoAudioDto processarArquivoGravado(ArquivoGravado arquivoGravado, Long usuarioId, String nomeArquivo) {
+        try {
+            if (usuarioId == null) {
+                throw new IllegalArgumentException("ID do usuário é obrigatório");
+            }
+            validarArquivoGravado(arquivoGravado);
+        } catch (RuntimeException e) {
+            gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+            throw e;
+        }
+        
+        // Aparo e leitura da duração só tocam o disco
+        ArquivoGravado aparado = aparadorSilencio.aparar(arquivoGravado, TAMANHO_MAXIMO_BYTES);
+        FormatoAudio formato = aparado.getFormato();
+        BigDecimal duracao = calcularDuracao(aparado);
+        String nomeOriginal = nomeArquivo != null ? nomeArquivo : "audio" + formato.getExtensao();
+        
+        return transactionTemplate.execute(status -> {
+            Usuario usuario;
+            try {
+                usuario = buscarUsuario(usuarioId);
+            } catch (RuntimeException e) {
+                gravadorStreamAudio.descartar(aparado.getCaminhoTemporario());
+                throw e;
+            }
+            String caminhoArquivo = armazenarConteudo(aparado, formato.getExtensao());
+            
+            ArquivoAudio arquivoAudio = ArquivoAudio.builder()
+                    .usuario(usuario)
+                    .nomeArquivoOriginal(nomeOriginal)
+                    .caminhoArquivo(caminhoArquivo)
+                    .hashConteudo(aparado.getHashSha256())
+                    .tamanhoArquivo(aparado.getTamanho())
+                    .tipoMime(formato.getTipoMime())
+                    .duracaoSegundos(duracao)
+                    .regioesFala(aparado.getRegioesFala())
+                    .build();
+            
+            ArquivoAudio arquivoSalvo = arquivoAudioRepository.save(arquivoAudio);
+            
+            log.info("Arquivo de áudio gravado salvo com sucesso. ID: {}, SHA-256: {}", 
+                    arquivoSalvo.getId(), aparado.getHashSha256());
+            return arquivoAudioMapper.paraDto(arquivoSalvo);
+        });
+    }
+
+    /**
+     * Transcreve um arquivo já armazenado; o conteúdo é lido do storage e enviado
+     * ao Google AI em stream, sem que o cliente precise reenviar o áudio nem as pausas longas
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<String> transcreverConteudo(Long arquivoId, PrioridadeChamada prioridade) {
         ArquivoAudio arquivoAudio = arquivoAudioRepository.findById(arquivoId)
                 .orElseThrow(() -> new RuntimeException("Arquivo de áudio não encontrado"));
         
-        String transcricao = googleAIService.transcreverAudio(audioDataUri);
+        String localizador = arquivoAudio.getCaminhoArquivo();
+        long tamanho = armazenamentoAudio.tamanho(localizador).orElse(arquivoAudio.getTamanhoArquivo());
+        
+        return googleAIService.transcreverArquivoAsync(arquivoAudio.getHashConteudo(), arquivoAudio.getTipoMime(),
+                tamanho, () -> armazenamentoAudio.abrir(localizador), arquivoAudio.getRegioesFala(), prioridade);
+    }
+
+    /**
+     * Transcreve um arquivo armazenado e grava a transcrição
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<ArquivoAudioDto> transcreverArquivo(Long arquivoId) {
+        log.info("Transcrevendo áudio ID: {}", arquivoId);
+        
+        // A gravação ocorre na thread que completa a transcrição, em transação própria
+        CompletableFuture<String> transcricaoFutura = transcreverConteudo(arquivoId, PrioridadeChamada.INTERATIVA);
+        return transcricaoFutura.thenApply(transcricao -> gravarTranscricao(arquivoId, transcricao));
+    }
+
+    /**
+     * Transcreve um arquivo armazenado em stream, emitindo os trechos à medida que o modelo
+     * os gera; a transcrição completa é gravada antes de o stream terminar
+     */
+    @Transactional(readOnly = true)
+    public Flux<String> transcreverArquivoEmStream(Long arquivoId) {
+        log.info("Transcrevendo áudio ID {} em stream", arquivoId);
+        ArquivoAudio arquivoAudio = arquivoAudioRepository.findById(arquivoId)
+                .orElseThrow(() -> new RuntimeException("Arquivo de áudio não encontrado"));
         
-        arquivoAudio.setTranscricao(transcricao);
-        ArquivoAudio arquivoAtualizado = arquivoAudioRepository.save(arquivoAudio);
+        String localizador = arquivoAudio.getCaminhoArquivo();
+        long tamanho = armazenamentoAudio.tamanho(localizador).orElse(arquivoAudio.getTamanhoArquivo());
+        StringBuilder completa = new StringBuilder();
         
-        log.info("Transcrição concluída para arquivo ID: {}", arquivoId);
-        return arquivoAudioMapper.paraDto(arquivoAtualizado);
+        return googleAIService.transcreverArquivoEmStream(arquivoAudio.getHashConteudo(), arquivoAudio.getTipoMime(),
+                        tamanho, () -> armazenamentoAudio.abrir(localizador), arquivoAudio.getRegioesFala(),
+                        PrioridadeChamada.INTERATIVA)
+                .doOnNext(completa::append)
+                // A gravação é bloqueante e não deve ocupar a thread de I/O que entregou o último trecho
+                .concatWith(Mono.<String>fromRunnable(() -> gravarTranscricao(arquivoId, completa.toString()))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Grava a transcrição em transação própria, fora da thread que a recebeu
+     */
+    private ArquivoAudioDto gravarTranscricao(Long arquivoId, String transcricao) {
+        return transactionTemplate.execute(status -> {
+            ArquivoAudio arquivoAudio = arquivoAudioRepository.findById(arquivoId)
+                    .orElseThrow(() -> new RuntimeException("Arquivo de áudio não encontrado"));
+            
+            arquivoAudio.setTranscricao(transcricao);
+            ArquivoAudio arquivoAtualizado = arquivoAudioRepository.save(arquivoAudio);
+            
+            log.info("Transcrição concluída para arquivo ID: {}", arquivoId);
+            return arquivoAudioMapper.paraDto(arquivoAtualizado);
+        });
+    }
+
+    /**
+     * Armazena o conteúdo renderizado de uma variante como um blob comum, devolvendo o localizador
+     */
+    public String armazenarVariante(ArquivoGravado arquivoGravado) {
+        return armazenarConteudo(arquivoGravado, arquivoGravado.getFormato().getExtensao());
     }
 
     /**
@@ -156,15 +415,73 @@ public class ArquivoAudioService {
         ArquivoAudio arquivoAudio = arquivoAudioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Arquivo de áudio não encontrado"));
         
-        // Remove arquivo físico
-        removerArquivoFisico(arquivoAudio.getCaminhoArquivo());
+        // As variantes renderizadas liberam suas referências aos blobs antes da exclusão
+        List<VarianteAudio> variantes = varianteAudioRepository.findByArquivoAudioId(id);
+        for (VarianteAudio variante : variantes) {
+            if (variante.getHashConteudo() != null) {
+                liberarConteudo(variante.getHashConteudo(), variante.getCaminhoArquivo());
+            }
+        }
+        varianteAudioRepository.deleteAll(variantes);
         
         // Remove registro do banco
         arquivoAudioRepository.delete(arquivoAudio);
         
+        // O arquivo físico é removido pelo coletor após o commit, e apenas quando não há mais referências
+        if (arquivoAudio.getHashConteudo() == null) {
+            remocaoArquivoService.registrar(arquivoAudio.getCaminhoArquivo(), null);
+        } else {
+            liberarConteudo(arquivoAudio.getHashConteudo(), arquivoAudio.getCaminhoArquivo());
+        }
+        
         log.info("Arquivo de áudio removido com sucesso. ID: {}", id);
     }
 
+    /**
+     * Troca o caminho físico de um conteúdo em todos os registros que o referenciam
+     */
+    public void atualizarCaminhoConteudo(String caminhoAntigo, String caminhoNovo) {
+        int arquivos = arquivoAudioRepository.atualizarCaminho(caminhoAntigo, caminhoNovo);
+        varianteAudioRepository.atualizarCaminho(caminhoAntigo, caminhoNovo);
+        blobAudioRepository.atualizarCaminho(caminhoAntigo, caminhoNovo);
+        
+        log.debug("Caminho atualizado em {} arquivo(s): {} -> {}", arquivos, caminhoAntigo, caminhoNovo);
+    }
+
+    /**
+     * Monta a descrição do conteúdo físico, com validadores derivados dos metadados
+     */
+    private Optional<ConteudoAudio> paraConteudo(ArquivoAudio arquivoAudio) {
+        return montarConteudo(arquivoAudio.getId(), arquivoAudio.getCaminhoArquivo(), arquivoAudio.getHashConteudo(),
+                arquivoAudio.getTipoMime(), arquivoAudio.getCriadoEm());
+    }
+
+    private Optional<ConteudoAudio> montarConteudo(Long id, String localizador, String hash, String tipoMime,
+                                                   LocalDateTime modificadoEm) {
+        Optional<RegiaoArmazenada> regiao = armazenamentoAudio.localizar(localizador);
+        Optional<Long> tamanhoArmazenado = regiao.isPresent()
+                ? regiao.map(RegiaoArmazenada::getTamanho) : armazenamentoAudio.tamanho(localizador);
+        if (tamanhoArmazenado.isEmpty()) {
+            log.warn("Conteúdo físico indisponível para arquivo ID {}", id);
+            return Optional.empty();
+        }
+        
+        long tamanho = tamanhoArmazenado.get();
+        String etag = hash != null
+                ? "\"" + hash + "\""
+                : "\"" + id + "-" + tamanho + "\"";
+        
+        return Optional.of(ConteudoAudio.builder()
+                .localizador(localizador)
+                .arquivo(regiao.map(RegiaoArmazenada::getArquivo).orElse(null))
+                .posicaoInicial(regiao.map(RegiaoArmazenada::getPosicao).orElse(0L))
+                .tamanho(tamanho)
+                .tipoMime(tipoMime != null ? tipoMime : "application/octet-stream")
+                .etag(etag)
+                .ultimaModificacao(modificadoEm.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .build());
+    }
+
     /**
      * Valida arquivo de upload
      */
@@ -173,7 +490,7 @@ public class ArquivoAudioService {
             throw new IllegalArgumentException("Arquivo é obrigatório");
         }
         
-        if (arquivo.getSize() > 50 * 1024 * 1024) { // 50MB
+        if (arquivo.getSize() > TAMANHO_MAXIMO_BYTES) { // 50MB
             throw new IllegalArgumentException("Arquivo muito grande. Máximo 50MB");
         }
         
@@ -183,6 +500,19 @@ public class ArquivoAudioService {
         }
     }
 
+    /**
+     * Valida arquivo gravado via stream
+     */
+    private void validarArquivoGravado(ArquivoGravado arquivoGravado) {
+        if (arquivoGravado.getTamanho() == 0) {
+            throw new IllegalArgumentException("Arquivo é obrigatório");
+        }
+        
+        if (arquivoGravado.getFormato() == FormatoAudio.DESCONHECIDO) {
+            throw new IllegalArgumentException("Formato de arquivo não suportado");
+        }
+    }
+
     /**
      * Valida audio data URI
      */
@@ -215,73 +545,86 @@ public class ArquivoAudioService {
     }
 
     /**
-     * Gera nome único para arquivo
+     * Abre o stream do arquivo enviado via multipart
      */
-    private String gerarNomeArquivoUnico(String nomeOriginal) {
-        String extensao = extrairExtensao(nomeOriginal);
-        return UUID.randomUUID().toString() + "_" + 
-               LocalDateTime.now().toString().replace(":", "-") + 
-               extensao;
+    private InputStream abrirArquivo(MultipartFile arquivo) {
+        try {
+            return arquivo.getInputStream();
+        } catch (IOException e) {
+            log.error("Erro ao ler arquivo enviado: {}", e.getMessage());
+            throw new RuntimeException("Erro ao salvar arquivo");
+        }
     }
 
     /**
-     * Extrai extensão do arquivo
+     * Define a extensão do conteúdo pelo formato detectado, recorrendo ao nome informado
      */
-    private String extrairExtensao(String nomeArquivo) {
-        if (nomeArquivo == null || !nomeArquivo.contains(".")) {
-            return ".webm";
+    private String extensaoDoConteudo(ArquivoGravado arquivoGravado, String nomeArquivo) {
+        if (arquivoGravado.getFormato() != FormatoAudio.DESCONHECIDO) {
+            return arquivoGravado.getFormato().getExtensao();
         }
-        return nomeArquivo.substring(nomeArquivo.lastIndexOf("."));
+        return extrairExtensao(nomeArquivo);
     }
 
     /**
-     * Salva arquivo no sistema de arquivos
+     * Armazena o conteúdo endereçado pelo hash, reaproveitando o blob se já existir
      */
-    private String salvarArquivo(MultipartFile arquivo, String nomeArquivo) {
-        Path diretorioDestino = Paths.get(caminhoBaseStorage);
-        criarDiretorioSeNaoExistir(diretorioDestino);
+    private String armazenarConteudo(ArquivoGravado arquivoGravado, String extensao) {
+        String hash = arquivoGravado.getHashSha256();
         
-        Path caminhoCompleto = diretorioDestino.resolve(nomeArquivo);
+        // O upsert bloqueia a linha do blob até o commit, serializando uploads do mesmo conteúdo
+        int linhasAfetadas = blobAudioRepository.registrarReferencia(
+            hash, armazenamentoAudio.localizadorPrevisto(hash, extensao), arquivoGravado.getTamanho());
         
-        try {
-            Files.copy(arquivo.getInputStream(), caminhoCompleto, StandardCopyOption.REPLACE_EXISTING);
-            return caminhoCompleto.toString();
-        } catch (IOException e) {
-            log.error("Erro ao salvar arquivo: {}", e.getMessage());
-            throw new RuntimeException("Erro ao salvar arquivo");
+        // 1 = blob novo; 2 = blob existente teve a contagem de referências incrementada
+        String caminhoBlob = blobAudioRepository.buscarCaminhoPorHash(hash);
+        
+        if (linhasAfetadas == 1 || !armazenamentoAudio.existe(caminhoBlob)) {
+            String publicado = armazenamentoAudio.publicar(arquivoGravado, extensao, gerarWaveform(arquivoGravado));
+            if (!publicado.equals(caminhoBlob)) {
+                blobAudioRepository.atualizarCaminhoPorHash(hash, publicado);
+                caminhoBlob = publicado;
+            }
+            log.debug("Novo conteúdo armazenado: {}", caminhoBlob);
+        } else {
+            gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+            log.debug("Conteúdo duplicado reaproveitado: {}", caminhoBlob);
         }
+        
+        return caminhoBlob;
     }
 
     /**
-     * Salva arquivo base64 no sistema de arquivos
+     * Calcula a forma de onda a partir do arquivo temporário, antes da publicação
      */
-    private String salvarArquivoBase64(byte[] dadosAudio, String nomeArquivo) {
-        Path diretorioDestino = Paths.get(caminhoBaseStorage);
-        criarDiretorioSeNaoExistir(diretorioDestino);
-        
-        Path caminhoCompleto = diretorioDestino.resolve(nomeArquivo);
+    private byte[] gerarWaveform(ArquivoGravado arquivoGravado) {
+        return geradorWaveform.gerar(arquivoGravado.getCaminhoTemporario(), arquivoGravado.getFormato())
+                .map(waveform -> {
+                    log.debug("Forma de onda gerada com {} picos", waveform.quantidadePicos());
+                    return geradorWaveform.codificar(waveform);
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Libera uma referência ao conteúdo, agendando a remoção do blob quando for a última
+     */
+    private void liberarConteudo(String hash, String caminhoArquivo) {
+        blobAudioRepository.liberarReferencia(hash);
         
-        try {
-            Files.write(caminhoCompleto, dadosAudio);
-            return caminhoCompleto.toString();
-        } catch (IOException e) {
-            log.error("Erro ao salvar arquivo base64: {}", e.getMessage());
-            throw new RuntimeException("Erro ao salvar arquivo");
+        if (blobAudioRepository.removerSemReferencias(hash) > 0) {
+            remocaoArquivoService.registrar(caminhoArquivo, hash);
         }
     }
 
     /**
-     * Cria diretório se não existir
+     * Extrai extensão do arquivo
      */
-    private void criarDiretorioSeNaoExistir(Path diretorio) {
-        try {
-            if (!Files.exists(diretorio)) {
-                Files.createDirectories(diretorio);
-            }
-        } catch (IOException e) {
-            log.error("Erro ao criar diretório: {}", e.getMessage());
-            throw new RuntimeException("Erro ao criar diretório de storage");
+    private String extrairExtensao(String nomeArquivo) {
+        if (nomeArquivo == null || !nomeArquivo.contains(".")) {
+            return ".webm";
         }
+        return nomeArquivo.substring(nomeArquivo.lastIndexOf("."));
     }
 
     /**
@@ -300,6 +643,28 @@ public class ArquivoAudioService {
         return header.substring(5); // Remove "data:"
     }
 
+    /**
+     * Lê a duração real pelos cabeçalhos do contêiner e aplica o limite configurado
+     */
+    private BigDecimal calcularDuracao(ArquivoGravado arquivoGravado) {
+        Optional<BigDecimal> duracao = leitorDuracaoAudio.lerDuracao(
+            arquivoGravado.getCaminhoTemporario(), arquivoGravado.getFormato());
+        
+        if (duracao.isEmpty()) {
+            log.warn("Duração não disponível no cabeçalho do áudio, usando estimativa pelo tamanho");
+            return calcularDuracaoAproximada(arquivoGravado.getTamanho());
+        }
+        
+        BigDecimal limite = BigDecimal.valueOf(duracaoMaximaSegundos).add(TOLERANCIA_DURACAO_SEGUNDOS);
+        if (duracao.get().compareTo(limite) > 0) {
+            gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+            throw new IllegalArgumentException(
+                "Áudio excede a duração máxima de " + duracaoMaximaSegundos + " segundos");
+        }
+        
+        return duracao.get();
+    }
+
     /**
      * Calcula duração aproximada baseada no tamanho do arquivo
      */
@@ -308,19 +673,4 @@ public class ArquivoAudioService {
         double duracaoEstimada = tamanhoBytes / (16.0 * 1024);
         return BigDecimal.valueOf(Math.min(duracaoEstimada, duracaoMaximaSegundos));
     }
-
-    /**
-     * Remove arquivo físico do sistema
-     */
-    private void removerArquivoFisico(String caminhoArquivo) {
-        try {
-            Path path = Paths.get(caminhoArquivo);
-            if (Files.exists(path)) {
-                Files.delete(path);
-                log.debug("Arquivo físico removido: {}", caminhoArquivo);
-            }
-        } catch (IOException e) {
-            log.warn("Erro ao remover arquivo físico: {}", e.getMessage());
-        }
-    }
 }
@@ -0,0 +1,102 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.domain.entity.BlobAudio;
+import com.vozsocial.infrastructure.repository.BlobAudioRepository;
+import com.vozsocial.infrastructure.storage.ArmazenamentoAudioPacote;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service responsável por recuperar o espaço de registros excluídos do storage em pacotes,
+ * copiando os registros vivos de segmentos pouco ocupados para o segmento ativo
+ */
+@Service
+@ConditionalOnProperty(name = "storage.audio.engine", havingValue = "pacote")
+@RequiredArgsConstructor
+@Slf4j
+public class CompactacaoPacotesService {
+
+    private final ArmazenamentoAudioPacote armazenamentoPacote;
+    private final BlobAudioRepository blobAudioRepository;
+    private final ArquivoAudioService arquivoAudioService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.audio.pacote.compactacao.ocupacao-minima:0.5}")
+    private double ocupacaoMinima;
+
+    // Segmentos já esvaziados são apagados apenas na execução seguinte,
+    // dando tempo para entregas em andamento que ainda leem o caminho antigo
+    private final List<Integer> aguardandoExclusao = new ArrayList<>();
+
+    /**
+     * Compacta os segmentos selados cuja fração de registros vivos está abaixo do mínimo
+     */
+    @Scheduled(fixedDelayString = "${storage.audio.pacote.compactacao.intervalo-ms:3600000}")
+    public void compactar() {
+        try {
+            for (Integer segmento : aguardandoExclusao) {
+                armazenamentoPacote.removerSegmento(segmento);
+            }
+            aguardandoExclusao.clear();
+
+            for (Integer segmento : armazenamentoPacote.listarSegmentosSelados()) {
+                compactarSegmento(segmento);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Compactação de pacotes interrompida: {}", e.getMessage());
+        }
+    }
+
+    private void compactarSegmento(int segmento) throws IOException {
+        String prefixo = armazenamentoPacote.prefixoSegmento(segmento);
+        List<BlobAudio> vivos = blobAudioRepository.buscarPorPrefixoCaminho(prefixo);
+
+        long ocupados = 0;
+        for (BlobAudio blob : vivos) {
+            ocupados += armazenamentoPacote.tamanhoRegistro(blob.getCaminhoArquivo());
+        }
+
+        long tamanho = armazenamentoPacote.tamanhoSegmento(segmento);
+        if (tamanho > 0 && ocupados >= tamanho * ocupacaoMinima) {
+            return;
+        }
+
+        log.info("Compactando segmento {}: {} registro(s) vivo(s), {} de {} bytes ocupados",
+                segmento, vivos.size(), ocupados, tamanho);
+
+        for (BlobAudio blob : vivos) {
+            transactionTemplate.executeWithoutResult(status -> moverRegistro(blob.getHashConteudo(), prefixo));
+        }
+
+        aguardandoExclusao.add(segmento);
+    }
+
+    /**
+     * Copia o registro sob o lock do blob, para que nenhum upload concorrente
+     * passe a referenciar o localizador antigo depois da troca
+     */
+    private void moverRegistro(String hash, String prefixo) {
+        Optional<String> localizador = blobAudioRepository.bloquearPorHash(hash);
+        if (localizador.isEmpty() || !localizador.get().startsWith(prefixo)) {
+            return;
+        }
+
+        try {
+            String novoLocalizador = armazenamentoPacote.copiar(localizador.get());
+            arquivoAudioService.atualizarCaminhoConteudo(localizador.get(), novoLocalizador);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
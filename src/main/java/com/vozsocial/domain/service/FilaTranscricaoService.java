@@ -0,0 +1,297 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.domain.entity.ArquivoAudio;
+import com.vozsocial.domain.entity.JobTranscricao;
+import com.vozsocial.domain.enums.StatusJobTranscricao;
+import com.vozsocial.infrastructure.ai.PrioridadeChamada;
+import com.vozsocial.infrastructure.exception.ServicoIndisponivelException;
+import com.vozsocial.infrastructure.repository.JobTranscricaoRepository;
+import com.vozsocial.infrastructure.repository.PostAudioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service responsável pela fila persistente de transcrição: a criação do post apenas
+ * registra o job, e um pool limitado de workers reserva os jobs com SKIP LOCKED,
+ * chama o Google AI fora de transação e repete com backoff em caso de falha
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FilaTranscricaoService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final JobTranscricaoRepository jobTranscricaoRepository;
+    private final PostAudioRepository postAudioRepository;
+    private final ArquivoAudioService arquivoAudioService;
+    private final GoogleAIService googleAIService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transcricao.workers:4}")
+    private int quantidadeWorkers;
+
+    @Value("${transcricao.maximo-tentativas:6}")
+    private int maximoTentativas;
+
+    @Value("${transcricao.backoff-inicial-ms:5000}")
+    private long backoffInicialMs;
+
+    @Value("${transcricao.backoff-maximo-ms:600000}")
+    private long backoffMaximoMs;
+
+    @Value("${transcricao.duracao-reserva-ms:600000}")
+    private long duracaoReservaMs;
+
+    @Value("${transcricao.tamanho-lote-recuperacao:100}")
+    private int tamanhoLoteRecuperacao;
+
+    private ThreadPoolExecutor workers;
+    private ThreadPoolExecutor despachante;
+    private final AtomicInteger emAndamento = new AtomicInteger();
+
+    /**
+     * Cria o pool de workers e o despachante, que aceita no máximo um despertar pendente
+     */
+    @PostConstruct
+    public void iniciar() {
+        workers = new ThreadPoolExecutor(quantidadeWorkers, quantidadeWorkers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(quantidadeWorkers));
+        despachante = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.DiscardPolicy());
+
+        Gauge.builder("vozsocial.transcricao.workers.ativos", emAndamento, AtomicInteger::get)
+                .description("Jobs de transcrição em execução")
+                .register(meterRegistry);
+        Gauge.builder("vozsocial.transcricao.fila.pendentes",
+                        () -> jobTranscricaoRepository.countByStatus(StatusJobTranscricao.PENDENTE))
+                .description("Jobs de transcrição aguardando execução")
+                .register(meterRegistry);
+
+        log.info("Fila de transcrição iniciada com {} worker(s)", quantidadeWorkers);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        despachante.shutdownNow();
+        workers.shutdown();
+    }
+
+    /**
+     * Registra o job na transação do chamador; os workers são acordados após o commit
+     */
+    public void enfileirar(Long postId) {
+        jobTranscricaoRepository.save(JobTranscricao.builder()
+                .postId(postId)
+                .proximaTentativaEm(LocalDateTime.now())
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acordar();
+                }
+            });
+        } else {
+            acordar();
+        }
+    }
+
+    /**
+     * Reserva jobs prontos até a capacidade livre do pool e os entrega aos workers
+     */
+    @Scheduled(fixedDelayString = "${transcricao.intervalo-ms:5000}")
+    public synchronized void despachar() {
+        int livres = quantidadeWorkers - emAndamento.get();
+        if (livres <= 0) {
+            return;
+        }
+
+        List<Long> reservados = transactionTemplate.execute(status -> {
+            LocalDateTime agora = LocalDateTime.now();
+            List<Long> ids = jobTranscricaoRepository.bloquearProntos(agora, livres);
+            if (!ids.isEmpty()) {
+                jobTranscricaoRepository.reservar(ids, agora.plusNanos(duracaoReservaMs * 1_000_000));
+            }
+            return ids;
+        });
+
+        for (Long jobId : reservados) {
+            emAndamento.incrementAndGet();
+            workers.execute(() -> {
+                try {
+                    processar(jobId);
+                } finally {
+                    emAndamento.decrementAndGet();
+                    acordar();
+                }
+            });
+        }
+    }
+
+    /**
+     * Devolve à fila as reservas expiradas e enfileira posts ainda não processados
+     * que ficaram sem job, como os criados antes da fila existir
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${transcricao.intervalo-recuperacao-ms:60000}")
+    public void recuperar() {
+        Integer liberados = transactionTemplate.execute(status ->
+                jobTranscricaoRepository.liberarReservasExpiradas(LocalDateTime.now()));
+        if (liberados != null && liberados > 0) {
+            log.warn("{} job(s) de transcrição com reserva expirada devolvido(s) à fila", liberados);
+        }
+
+        List<Long> postIds = postAudioRepository.buscarIdsNaoProcessadosSemJob(
+                PageRequest.of(0, tamanhoLoteRecuperacao));
+        for (Long postId : postIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> enfileirar(postId));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Post {} já enfileirado por outra requisição", postId);
+            }
+        }
+
+        if (!postIds.isEmpty()) {
+            log.info("{} post(s) sem transcrição recuperado(s) para a fila", postIds.size());
+        }
+    }
+
+    private void acordar() {
+        try {
+            despachante.execute(this::despachar);
+        } catch (RuntimeException e) {
+            log.debug("Despachante de transcrição indisponível: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Executa um job reservado: lê o áudio, transcreve e conclui ou agenda nova tentativa
+     */
+    private void processar(Long jobId) {
+        Optional<Long> arquivoId = transactionTemplate.execute(status -> jobTranscricaoRepository.findById(jobId)
+                .flatMap(job -> postAudioRepository.findById(job.getPostId()))
+                .map(post -> post.getArquivoAudio().getId()));
+        if (arquivoId == null || arquivoId.isEmpty()) {
+            // Post removido depois da reserva; o job foi apagado em cascata
+            return;
+        }
+
+        try {
+            String transcricao = aguardar(arquivoAudioService.transcreverConteudo(arquivoId.get(),
+                    PrioridadeChamada.BACKGROUND));
+
+            transactionTemplate.executeWithoutResult(status -> concluir(jobId, transcricao));
+            contar("concluido");
+        } catch (RuntimeException e) {
+            log.warn("Falha ao transcrever job {}: {}", jobId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> registrarFalha(jobId, e));
+        }
+    }
+
+    private void concluir(Long jobId, String transcricao) {
+        jobTranscricaoRepository.findById(jobId).ifPresent(job -> {
+            postAudioRepository.findById(job.getPostId()).ifPresent(post -> {
+                ArquivoAudio arquivoAudio = post.getArquivoAudio();
+                arquivoAudio.setTranscricao(transcricao);
+                post.setProcessado(true);
+                postAudioRepository.save(post);
+            });
+
+            job.setStatus(StatusJobTranscricao.CONCLUIDO);
+            job.setReservadoAte(null);
+            job.setUltimoErro(null);
+            jobTranscricaoRepository.save(job);
+
+            log.info("Transcrição processada para post ID: {}", job.getPostId());
+        });
+    }
+
+    /**
+     * Agenda nova tentativa com backoff exponencial e jitter, ou marca o job como falho
+     * quando as tentativas se esgotam
+     */
+    private void registrarFalha(Long jobId, RuntimeException erro) {
+        jobTranscricaoRepository.findById(jobId).ifPresent(job -> {
+            job.setReservadoAte(null);
+            job.setUltimoErro(resumirErro(erro));
+
+            if (erro instanceof ServicoIndisponivelException indisponivel && indisponivel.getCause() == null) {
+                // Recusa imediata do disjuntor ou do bulkhead: o Google AI nem foi chamado
+                job.setTentativas(job.getTentativas() - 1);
+                job.setStatus(StatusJobTranscricao.PENDENTE);
+                job.setProximaTentativaEm(LocalDateTime.now().plusSeconds(indisponivel.getRetryAfterSegundos()));
+                contar("adiado");
+            } else if (job.getTentativas() >= maximoTentativas) {
+                job.setStatus(StatusJobTranscricao.FALHOU);
+                log.error("Transcrição do post {} desistida após {} tentativa(s)",
+                        job.getPostId(), job.getTentativas());
+                contar("falhou");
+            } else {
+                long espera = calcularBackoff(job.getTentativas());
+                job.setStatus(StatusJobTranscricao.PENDENTE);
+                job.setProximaTentativaEm(LocalDateTime.now().plusNanos(espera * 1_000_000));
+                contar("reagendado");
+            }
+            jobTranscricaoRepository.save(job);
+        });
+    }
+
+    /**
+     * Backoff exponencial com jitter, para que falhas simultâneas não
+     * voltem a bater no Google AI ao mesmo tempo
+     */
+    private long calcularBackoff(int tentativas) {
+        long teto = backoffInicialMs << Math.min(tentativas - 1, 20);
+        teto = Math.min(teto, backoffMaximoMs);
+        return teto / 2 + ThreadLocalRandom.current().nextLong(teto / 2 + 1);
+    }
+
+    private String aguardar(CompletableFuture<String> transcricao) {
+        try {
+            return transcricao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private String resumirErro(RuntimeException erro) {
+        String mensagem = erro.getClass().getSimpleName() + ": " + erro.getMessage();
+        return mensagem.length() > TAMANHO_MAXIMO_ERRO ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem;
+    }
+
+    private void contar(String resultado) {
+        Counter.builder("vozsocial.transcricao.jobs")
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .increment();
+    }
+}
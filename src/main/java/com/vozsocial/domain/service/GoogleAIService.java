@@ -1,146 +1,242 @@
 package com.vozsocial.domain.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vozsocial.infrastructure.ai.PrioridadeChamada;
+import com.vozsocial.infrastructure.audio.AparadorSilencio;
+import com.vozsocial.infrastructure.audio.AudioCompactado;
+import com.vozsocial.infrastructure.cache.CacheTranscricao;
+import com.vozsocial.infrastructure.storage.FonteAudio;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
- * Service responsável pela integração com Google AI para transcrição e transformação de voz
+ * Service responsável pela integração com Google AI para transcrição de voz
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GoogleAIService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-
-    @Value("${google.ai.api.key}")
-    private String apiKey;
-
-    @Value("${google.ai.api.base-url}")
-    private String baseUrl;
+    private final LoteTranscricaoService loteTranscricaoService;
+    private final CacheTranscricao cacheTranscricao;
+    private final AparadorSilencio aparadorSilencio;
+    private final TranscricaoSegmentadaService transcricaoSegmentadaService;
 
     /**
      * Transcreve áudio usando Google AI
      */
     public String transcreverAudio(String audioDataUri) {
-        log.debug("Iniciando transcrição de áudio");
-        
-        String url = baseUrl + "/models/gemini-2.0-flash-exp:generateContent?key=" + apiKey;
-        
-        Map<String, Object> requestBody = criarCorpoRequisicaoTranscricao(audioDataUri);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("x-goog-api-key", apiKey);
-        
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-        
-        ResponseEntity<String> response = restTemplate.postForEntity(url, entity, String.class);
-        
-        return extrairTranscricao(response.getBody());
+        return transcreverAudio(audioDataUri, null);
     }
 
     /**
-     * Transforma voz para robótica usando Google AI TTS
+     * Transcreve áudio reaproveitando transcrições anteriores do mesmo conteúdo;
+     * o hash SHA-256 já conhecido do áudio evita decodificá-lo apenas para montar a chave
      */
-    public String transformarVozRobotica(String audioDataUri, String transcricao) {
-        log.debug("Iniciando transformação de voz para robótica");
-        
-        // Implementação da transformação de voz
-        // Por enquanto, retorna o áudio original com indicação de processamento
-        log.warn("Transformação de voz robótica ainda não implementada completamente");
-        
-        return audioDataUri; // Placeholder
+    public String transcreverAudio(String audioDataUri, String hashConteudo) {
+        try {
+            return transcreverAudioAsync(audioDataUri, hashConteudo, PrioridadeChamada.INTERATIVA).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
     }
 
     /**
-     * Cria corpo da requisição para transcrição
+     * Transcreve áudio sem bloquear a thread chamadora enquanto o Google AI responde
      */
-    private Map<String, Object> criarCorpoRequisicaoTranscricao(String audioDataUri) {
-        Map<String, Object> requestBody = new HashMap<>();
-        
-        // Extrair dados base64 do dataUri
-        String audioData = audioDataUri.contains(",") ? 
-            audioDataUri.split(",")[1] : audioDataUri;
-        
-        Map<String, Object> inlineData = new HashMap<>();
-        inlineData.put("mimeType", "audio/webm");
-        inlineData.put("data", audioData);
-        
-        Map<String, Object> audioPart = new HashMap<>();
-        audioPart.put("inlineData", inlineData);
-        
-        Map<String, Object> textPart = new HashMap<>();
-        textPart.put("text", "Por favor, transcreva este áudio em português brasileiro.");
-        
-        Map<String, Object> content = new HashMap<>();
-        content.put("parts", Arrays.asList(textPart, audioPart));
-        
-        requestBody.put("contents", Arrays.asList(content));
-        
-        // Configurações de geração
-        Map<String, Object> generationConfig = new HashMap<>();
-        generationConfig.put("temperature", 0.1);
-        generationConfig.put("maxOutputTokens", 1000);
-        
-        requestBody.put("generationConfig", generationConfig);
-        
-        return requestBody;
+    public CompletableFuture<String> transcreverAudioAsync(String audioDataUri, String hashConteudo,
+                                                          PrioridadeChamada prioridade) {
+        String hash = hashConteudo != null ? hashConteudo : calcularHashAudio(audioDataUri);
+        return cacheTranscricao.obterAsync(chaveCache(hash), () -> transcreverDataUri(audioDataUri, prioridade));
     }
 
     /**
-     * Extrai transcrição da resposta da API
+     * Transcreve um conteúdo armazenado, enviado em stream apenas com as regiões de fala
+     * já detectadas; a chave de cache continua sendo o hash do conteúdo original, e sem
+     * ele a chamada não passa pelo cache
      */
-    private String extrairTranscricao(String responseBody) {
-        JsonNode rootNode = parseJson(responseBody);
-        
-        if (rootNode == null) {
-            log.error("Erro ao fazer parse da resposta JSON");
-            throw new RuntimeException("Erro ao processar resposta da API");
+    public CompletableFuture<String> transcreverArquivoAsync(String hashConteudo, String tipoMime, long tamanho,
+                                                            FonteAudio fonte, String regioesFala,
+                                                            PrioridadeChamada prioridade) {
+        if (hashConteudo == null) {
+            return transcreverRegioes(tipoMime, tamanho, fonte, regioesFala, prioridade);
         }
-        
-        JsonNode candidatesNode = rootNode.path("candidates");
-        if (candidatesNode.isArray() && candidatesNode.size() > 0) {
-            JsonNode firstCandidate = candidatesNode.get(0);
-            JsonNode contentNode = firstCandidate.path("content");
-            JsonNode partsNode = contentNode.path("parts");
-            
-            if (partsNode.isArray() && partsNode.size() > 0) {
-                JsonNode firstPart = partsNode.get(0);
-                String transcricao = firstPart.path("text").asText();
-                
-                log.debug("Transcrição extraída com sucesso");
-                return transcricao;
+        return cacheTranscricao.obterAsync(chaveCache(hashConteudo),
+                () -> transcreverRegioes(tipoMime, tamanho, fonte, regioesFala, prioridade));
+    }
+
+    /**
+     * Transcreve áudio em stream, emitindo os trechos à medida que o modelo os gera
+     */
+    public Flux<String> transcreverAudioEmStream(String audioDataUri, PrioridadeChamada prioridade) {
+        return emStream(chaveCache(calcularHashAudio(audioDataUri)),
+                () -> loteTranscricaoService.transcreverEmStream(
+                        removerSilencio(audioDataUri, decodificarWav(audioDataUri)), prioridade));
+    }
+
+    /**
+     * Transcreve um conteúdo armazenado em stream, enviando apenas as regiões de fala
+     */
+    public Flux<String> transcreverArquivoEmStream(String hashConteudo, String tipoMime, long tamanho,
+                                                   FonteAudio fonte, String regioesFala,
+                                                   PrioridadeChamada prioridade) {
+        return emStream(hashConteudo != null ? chaveCache(hashConteudo) : null, () -> {
+            Optional<AudioCompactado> compactado =
+                    aparadorSilencio.compactarParaTranscricao(fonte, tamanho, regioesFala);
+            return compactado
+                    .map(audio -> loteTranscricaoService.transcreverEmStream(tipoMime, audio.getTamanho(),
+                            audio.getFonte(), prioridade))
+                    .orElseGet(() -> loteTranscricaoService.transcreverEmStream(tipoMime, tamanho, fonte, prioridade));
+        });
+    }
+
+    /**
+     * Uma transcrição já em cache é emitida de uma vez; a gerada em stream é gravada
+     * no cache apenas quando termina completa
+     */
+    private Flux<String> emStream(String chave, Supplier<Flux<String>> gerar) {
+        return Flux.defer(() -> {
+            Optional<String> emCache = chave != null ? cacheTranscricao.buscar(chave) : Optional.empty();
+            if (emCache.isPresent()) {
+                return Flux.just(emCache.get());
+            }
+
+            StringBuilder completa = new StringBuilder();
+            return gerar.get()
+                    .doOnNext(completa::append)
+                    .doOnComplete(() -> {
+                        if (chave != null) {
+                            cacheTranscricao.gravar(chave, completa.toString());
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Áudios longos seguem a transcrição em janelas paralelas; os demais vão em uma única
+     * requisição, apenas com as regiões de fala
+     */
+    private CompletableFuture<String> transcreverRegioes(String tipoMime, long tamanho, FonteAudio fonte,
+                                                         String regioesFala, PrioridadeChamada prioridade) {
+        Optional<CompletableFuture<String>> segmentada =
+                transcricaoSegmentadaService.transcrever(tipoMime, tamanho, fonte, regioesFala, prioridade);
+        if (segmentada.isPresent()) {
+            return segmentada.get();
+        }
+
+        AudioCompactado compactado = aparadorSilencio.compactarParaTranscricao(fonte, tamanho, regioesFala)
+                .orElse(null);
+        if (compactado == null) {
+            return loteTranscricaoService.transcrever(tipoMime, tamanho, fonte, prioridade);
+        }
+        return loteTranscricaoService.transcrever(tipoMime, compactado.getTamanho(), compactado.getFonte(),
+                prioridade);
+    }
+
+    /**
+     * Data URIs com WAV longo seguem a transcrição em janelas paralelas; os demais vão em
+     * uma única requisição
+     */
+    private CompletableFuture<String> transcreverDataUri(String audioDataUri, PrioridadeChamada prioridade) {
+        byte[] wav = decodificarWav(audioDataUri);
+        if (wav != null) {
+            Optional<CompletableFuture<String>> segmentada = transcricaoSegmentadaService.transcrever(
+                    "audio/wav", wav.length, () -> new ByteArrayInputStream(wav), null, prioridade);
+            if (segmentada.isPresent()) {
+                return segmentada.get();
             }
         }
-        
-        log.error("Não foi possível extrair transcrição da resposta");
-        throw new RuntimeException("Falha na transcrição do áudio");
+        return loteTranscricaoService.transcrever(removerSilencio(audioDataUri, wav), prioridade);
     }
 
     /**
-     * Faz parse seguro do JSON
+     * Decodifica o data URI apenas quando declara WAV, único formato que pode ser recortado
      */
-    private JsonNode parseJson(String json) {
-        try {
-            return objectMapper.readTree(json);
-        } catch (Exception e) {
-            log.error("Erro ao fazer parse do JSON: {}", e.getMessage());
+    private byte[] decodificarWav(String audioDataUri) {
+        int separador = audioDataUri.indexOf(',');
+        if (separador < 0 || !audioDataUri.substring(0, separador).toLowerCase().contains("wav")) {
             return null;
         }
+        return Base64.getMimeDecoder().decode(audioDataUri.substring(separador + 1));
+    }
+
+    /**
+     * Remove o silêncio de áudios WAV recebidos em data URI; outros formatos seguem intactos
+     */
+    private String removerSilencio(String audioDataUri, byte[] wav) {
+        if (wav == null) {
+            return audioDataUri;
+        }
+        return aparadorSilencio.compactar(wav)
+                .map(compactado -> "data:audio/wav;base64," + Base64.getEncoder().encodeToString(compactado))
+                .orElse(audioDataUri);
+    }
+
+    /**
+     * Identifica o modelo e o prompt atuais; muda sempre que um dos dois muda
+     */
+    public String versaoTranscricao() {
+        String hashPrompt = sha256(LoteTranscricaoService.PROMPT_TRANSCRICAO.getBytes(StandardCharsets.UTF_8))
+                .substring(0, 16);
+        return LoteTranscricaoService.MODELO_TRANSCRICAO + ":" + hashPrompt;
+    }
+
+    /**
+     * A chave combina modelo, prompt e conteúdo, para que trocar o prompt não reaproveite
+     * transcrições geradas com o anterior
+     */
+    private String chaveCache(String hashAudio) {
+        return versaoTranscricao() + ":" + hashAudio;
+    }
+
+    /**
+     * Calcula o SHA-256 dos bytes decodificados do áudio, em blocos, sem montar o áudio decodificado em memória
+     */
+    private String calcularHashAudio(String audioDataUri) {
+        String audioData = audioDataUri.contains(",") ?
+            audioDataUri.substring(audioDataUri.indexOf(',') + 1) : audioDataUri;
+        
+        MessageDigest digest = criarDigest();
+        try (InputStream entrada = Base64.getMimeDecoder().wrap(
+                new ByteArrayInputStream(audioData.getBytes(StandardCharsets.US_ASCII)))) {
+            byte[] buffer = new byte[8192];
+            int lidos;
+            while ((lidos = entrada.read(buffer)) != -1) {
+                digest.update(buffer, 0, lidos);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String sha256(byte[] dados) {
+        return HexFormat.of().formatHex(criarDigest().digest(dados));
+    }
+
+    private MessageDigest criarDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
 }
@@ -0,0 +1,477 @@
+package com.vozsocial.domain.service;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vozsocial.infrastructure.ai.ClienteGoogleAI;
+import com.vozsocial.infrastructure.ai.PrioridadeChamada;
+import com.vozsocial.infrastructure.exception.ServicoIndisponivelException;
+import com.vozsocial.infrastructure.storage.FonteAudio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service responsável por montar as requisições de transcrição ao Google AI. Clipes curtos
+ * que chegam juntos são agrupados por alguns milissegundos, até um limite de itens ou de
+ * bytes, e enviados em um único generateContent com um prompt por item; as respostas
+ * são separadas de volta para o futuro de cada chamador
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoteTranscricaoService {
+
+    static final String MODELO_TRANSCRICAO = "gemini-2.0-flash-exp";
+    static final String PROMPT_TRANSCRICAO = "Por favor, transcreva este áudio em português brasileiro.";
+
+    private static final String MIME_PADRAO = "audio/webm";
+    private static final int TOKENS_POR_AUDIO = 1000;
+    private static final int TOKENS_PROMPT = 50;
+
+    private final ClienteGoogleAI clienteGoogleAI;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${google.ai.lote.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${google.ai.lote.maximo-itens:8}")
+    private int maximoItens;
+
+    @Value("${google.ai.lote.maximo-bytes-kb:4096}")
+    private long maximoBytesKb;
+
+    @Value("${google.ai.lote.limite-item-kb:512}")
+    private long limiteItemKb;
+
+    @Value("${google.ai.lote.espera-ms:20}")
+    private long esperaMs;
+
+    @Value("${google.ai.cota.bytes-audio-por-token:250}")
+    private long bytesAudioPorToken;
+
+    private ScheduledExecutorService temporizador;
+    private DistributionSummary itensPorLote;
+    private DistributionSummary preenchimento;
+
+    private final Object trava = new Object();
+    private List<ItemLote> pendentes = new ArrayList<>();
+    private long bytesPendentes;
+    private ScheduledFuture<?> envioAgendado;
+
+    /**
+     * Cria o temporizador que fecha lotes incompletos e as métricas de preenchimento
+     */
+    @PostConstruct
+    public void iniciar() {
+        temporizador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "lote-transcricao");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        itensPorLote = DistributionSummary.builder("vozsocial.ia.lote.itens")
+                .description("Clipes enviados por requisição de transcrição")
+                .register(meterRegistry);
+        preenchimento = DistributionSummary.builder("vozsocial.ia.lote.preenchimento")
+                .description("Fração do limite de itens ocupada em cada lote")
+                .publishPercentiles(0.5, 0.9)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        List<ItemLote> restantes;
+        synchronized (trava) {
+            restantes = retirarPendentes();
+        }
+        enviar(restantes);
+        temporizador.shutdown();
+    }
+
+    /**
+     * Transcreve o áudio, agrupando-o com outros clipes curtos quando possível
+     */
+    public CompletableFuture<String> transcrever(String audioDataUri, PrioridadeChamada prioridade) {
+        String dados = extrairDados(audioDataUri);
+        return enfileirar(new ItemLote(extrairMime(audioDataUri), dados, null, 0, dados.length(), prioridade));
+    }
+
+    /**
+     * Transcreve um conteúdo armazenado; o áudio é lido e codificado em base64 apenas
+     * durante o envio, em blocos
+     */
+    public CompletableFuture<String> transcrever(String tipoMime, long tamanho, FonteAudio fonte,
+                                                 PrioridadeChamada prioridade) {
+        long tamanhoBase64 = (tamanho + 2) / 3 * 4;
+        return enfileirar(new ItemLote(tipoMime != null ? tipoMime : MIME_PADRAO, null, fonte, tamanho, tamanhoBase64,
+                prioridade));
+    }
+
+    /**
+     * Transcreve o áudio em stream, sem agrupamento: cada trecho de texto é emitido assim
+     * que o modelo o gera
+     */
+    public Flux<String> transcreverEmStream(String audioDataUri, PrioridadeChamada prioridade) {
+        String dados = extrairDados(audioDataUri);
+        return enviarEmStream(new ItemLote(extrairMime(audioDataUri), dados, null, 0, dados.length(), prioridade));
+    }
+
+    /**
+     * Transcreve um conteúdo armazenado em stream, lendo o áudio da origem durante o envio
+     */
+    public Flux<String> transcreverEmStream(String tipoMime, long tamanho, FonteAudio fonte,
+                                            PrioridadeChamada prioridade) {
+        long tamanhoBase64 = (tamanho + 2) / 3 * 4;
+        return enviarEmStream(new ItemLote(tipoMime != null ? tipoMime : MIME_PADRAO, null, fonte, tamanho,
+                tamanhoBase64, prioridade));
+    }
+
+    private Flux<String> enviarEmStream(ItemLote item) {
+        log.debug("Iniciando transcrição de áudio em stream");
+        return clienteGoogleAI.gerarConteudoStream(MODELO_TRANSCRICAO, item.prioridade, estimarTokens(List.of(item)),
+                        saida -> escreverCorpoRequisicaoTranscricao(item, saida))
+                .map(this::extrairTrecho)
+                .filter(trecho -> !trecho.isEmpty());
+    }
+
+    private CompletableFuture<String> enfileirar(ItemLote item) {
+        if (!habilitado || maximoItens <= 1 || item.tamanhoBase64 > limiteItemKb * 1024) {
+            enviar(List.of(item));
+            return item.resultado;
+        }
+
+        List<ItemLote> lote = null;
+        synchronized (trava) {
+            pendentes.add(item);
+            bytesPendentes += item.tamanhoBase64;
+
+            if (pendentes.size() >= maximoItens || bytesPendentes >= maximoBytesKb * 1024) {
+                lote = retirarPendentes();
+            } else if (envioAgendado == null) {
+                envioAgendado = temporizador.schedule(this::enviarPorTempo, esperaMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (lote != null) {
+            enviar(lote);
+        }
+        return item.resultado;
+    }
+
+    private void enviarPorTempo() {
+        List<ItemLote> lote;
+        synchronized (trava) {
+            envioAgendado = null;
+            lote = retirarPendentes();
+        }
+        enviar(lote);
+    }
+
+    private List<ItemLote> retirarPendentes() {
+        List<ItemLote> lote = pendentes;
+        pendentes = new ArrayList<>();
+        bytesPendentes = 0;
+        if (envioAgendado != null) {
+            envioAgendado.cancel(false);
+            envioAgendado = null;
+        }
+        return lote;
+    }
+
+    private void enviar(List<ItemLote> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        itensPorLote.record(lote.size());
+        preenchimento.record((double) lote.size() / Math.max(1, maximoItens));
+
+        if (lote.size() == 1) {
+            enviarIndividual(lote.get(0));
+            return;
+        }
+
+        log.debug("Enviando lote de {} clipes para transcrição", lote.size());
+        clienteGoogleAI.gerarConteudo(MODELO_TRANSCRICAO, prioridade(lote), estimarTokens(lote),
+                saida -> escreverCorpoLote(lote, saida))
+                .toFuture()
+                .whenComplete((resposta, erro) -> {
+                    if (erro != null) {
+                        Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                                ? erro.getCause() : erro;
+                        if (causa instanceof ServicoIndisponivelException) {
+                            lote.forEach(item -> item.resultado.completeExceptionally(causa));
+                        } else {
+                            reenviarIndividualmente(lote, causa.getMessage());
+                        }
+                        return;
+                    }
+
+                    List<String> transcricoes = extrairTranscricoesLote(resposta, lote.size());
+                    if (transcricoes == null) {
+                        reenviarIndividualmente(lote, "resposta do lote não corresponde aos itens");
+                        return;
+                    }
+                    for (int i = 0; i < lote.size(); i++) {
+                        lote.get(i).resultado.complete(transcricoes.get(i));
+                    }
+                });
+    }
+
+    /**
+     * Um lote cuja resposta não pôde ser separada é refeito com uma requisição por clipe
+     */
+    private void reenviarIndividualmente(List<ItemLote> lote, String motivo) {
+        log.warn("Lote de {} clipes reenviado individualmente: {}", lote.size(), motivo);
+        Counter.builder("vozsocial.ia.lote.reenvios")
+                .description("Lotes refeitos com uma requisição por clipe")
+                .register(meterRegistry)
+                .increment();
+        lote.forEach(this::enviarIndividual);
+    }
+
+    private void enviarIndividual(ItemLote item) {
+        log.debug("Iniciando transcrição de áudio");
+        clienteGoogleAI.gerarConteudo(MODELO_TRANSCRICAO, item.prioridade, estimarTokens(List.of(item)),
+                saida -> escreverCorpoRequisicaoTranscricao(item, saida))
+                .map(this::extrairTranscricao)
+                .subscribe(item.resultado::complete, item.resultado::completeExceptionally);
+    }
+
+    /**
+     * O lote herda a maior prioridade entre seus clipes
+     */
+    private PrioridadeChamada prioridade(List<ItemLote> lote) {
+        return lote.stream().anyMatch(item -> item.prioridade == PrioridadeChamada.INTERATIVA)
+                ? PrioridadeChamada.INTERATIVA : PrioridadeChamada.BACKGROUND;
+    }
+
+    /**
+     * Estimativa de tokens reservada na cota: prompts, áudio pelo tamanho em bytes e a
+     * saída máxima; o consumo real é acertado com a resposta
+     */
+    private long estimarTokens(List<ItemLote> lote) {
+        long total = 0;
+        for (ItemLote item : lote) {
+            long bytesAudio = item.tamanhoBase64 / 4 * 3;
+            total += TOKENS_PROMPT + TOKENS_POR_AUDIO + bytesAudio / Math.max(1, bytesAudioPorToken);
+        }
+        return total;
+    }
+
+    /**
+     * Escreve o corpo da requisição de transcrição de um único clipe
+     */
+    private void escreverCorpoRequisicaoTranscricao(ItemLote item, OutputStream saida) throws IOException {
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.writeStartObject();
+            gerador.writeArrayFieldStart("contents");
+            gerador.writeStartObject();
+            gerador.writeArrayFieldStart("parts");
+            escreverParteTexto(gerador, PROMPT_TRANSCRICAO);
+            escreverParteAudio(gerador, item);
+            gerador.writeEndArray();
+            gerador.writeEndObject();
+            gerador.writeEndArray();
+
+            // Configurações de geração
+            gerador.writeObjectFieldStart("generationConfig");
+            gerador.writeNumberField("temperature", 0.1);
+            gerador.writeNumberField("maxOutputTokens", TOKENS_POR_AUDIO);
+            gerador.writeEndObject();
+            gerador.writeEndObject();
+        }
+    }
+
+    /**
+     * Escreve uma única requisição com todos os clipes, cada um precedido do seu prompt,
+     * pedindo as transcrições como um array JSON na mesma ordem
+     */
+    private void escreverCorpoLote(List<ItemLote> lote, OutputStream saida) throws IOException {
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.writeStartObject();
+            gerador.writeArrayFieldStart("contents");
+            gerador.writeStartObject();
+            gerador.writeArrayFieldStart("parts");
+            escreverParteTexto(gerador, "Você receberá " + lote.size() + " áudios numerados. Responda apenas com "
+                    + "um array JSON de " + lote.size() + " strings, contendo a transcrição de cada áudio na mesma ordem.");
+            for (int i = 0; i < lote.size(); i++) {
+                escreverParteTexto(gerador, "Áudio " + (i + 1) + ": " + PROMPT_TRANSCRICAO);
+                escreverParteAudio(gerador, lote.get(i));
+            }
+            gerador.writeEndArray();
+            gerador.writeEndObject();
+            gerador.writeEndArray();
+
+            gerador.writeObjectFieldStart("generationConfig");
+            gerador.writeNumberField("temperature", 0.1);
+            gerador.writeNumberField("maxOutputTokens", TOKENS_POR_AUDIO * lote.size());
+            gerador.writeStringField("responseMimeType", "application/json");
+            gerador.writeObjectFieldStart("responseSchema");
+            gerador.writeStringField("type", "ARRAY");
+            gerador.writeObjectFieldStart("items");
+            gerador.writeStringField("type", "STRING");
+            gerador.writeEndObject();
+            gerador.writeEndObject();
+            gerador.writeEndObject();
+            gerador.writeEndObject();
+        }
+    }
+
+    private void escreverParteTexto(JsonGenerator gerador, String texto) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeStringField("text", texto);
+        gerador.writeEndObject();
+    }
+
+    /**
+     * Escreve o áudio inline; conteúdos armazenados são codificados em base64 direto da origem
+     */
+    private void escreverParteAudio(JsonGenerator gerador, ItemLote item) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeObjectFieldStart("inlineData");
+        gerador.writeStringField("mimeType", item.mime);
+        gerador.writeFieldName("data");
+        if (item.dados != null) {
+            gerador.writeString(item.dados);
+        } else {
+            try (InputStream entrada = item.fonte.abrir()) {
+                gerador.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, entrada, Math.toIntExact(item.tamanho));
+            }
+        }
+        gerador.writeEndObject();
+        gerador.writeEndObject();
+    }
+
+    /**
+     * Extrai transcrição da resposta da API
+     */
+    private String extrairTranscricao(String responseBody) {
+        String transcricao = extrairTexto(responseBody);
+        if (transcricao == null) {
+            log.error("Não foi possível extrair transcrição da resposta");
+            throw new RuntimeException("Falha na transcrição do áudio");
+        }
+
+        log.debug("Transcrição extraída com sucesso");
+        return transcricao;
+    }
+
+    /**
+     * Separa as transcrições do lote; retorna null se a resposta não tiver uma por item
+     */
+    private List<String> extrairTranscricoesLote(String responseBody, int quantidade) {
+        String texto;
+        try {
+            texto = extrairTexto(responseBody);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        JsonNode array = texto != null ? parseJson(texto) : null;
+        if (array == null || !array.isArray() || array.size() != quantidade) {
+            return null;
+        }
+
+        List<String> transcricoes = new ArrayList<>(quantidade);
+        array.forEach(no -> transcricoes.add(no.asText()));
+        return transcricoes;
+    }
+
+    /**
+     * Extrai o texto de uma resposta parcial do stream, que pode trazer várias partes ou nenhuma
+     */
+    private String extrairTrecho(String responseBody) {
+        JsonNode rootNode = parseJson(responseBody);
+        if (rootNode == null) {
+            throw new RuntimeException("Erro ao processar resposta da API");
+        }
+
+        StringBuilder trecho = new StringBuilder();
+        rootNode.path("candidates").path(0).path("content").path("parts")
+                .forEach(parte -> trecho.append(parte.path("text").asText("")));
+        return trecho.toString();
+    }
+
+    private String extrairTexto(String responseBody) {
+        JsonNode rootNode = parseJson(responseBody);
+
+        if (rootNode == null) {
+            log.error("Erro ao fazer parse da resposta JSON");
+            throw new RuntimeException("Erro ao processar resposta da API");
+        }
+
+        JsonNode partsNode = rootNode.path("candidates").path(0).path("content").path("parts");
+        if (partsNode.isArray() && partsNode.size() > 0) {
+            return partsNode.get(0).path("text").asText();
+        }
+        return null;
+    }
+
+    /**
+     * Faz parse seguro do JSON
+     */
+    private JsonNode parseJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            log.error("Erro ao fazer parse do JSON: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String extrairMime(String audioDataUri) {
+        if (audioDataUri.startsWith("data:") && audioDataUri.contains(";")) {
+            return audioDataUri.substring(5, audioDataUri.indexOf(';'));
+        }
+        return MIME_PADRAO;
+    }
+
+    private String extrairDados(String audioDataUri) {
+        return audioDataUri.contains(",") ? audioDataUri.substring(audioDataUri.indexOf(',') + 1) : audioDataUri;
+    }
+
+    /**
+     * Clipe aguardando envio e o futuro que recebe sua transcrição
+     */
+    private static final class ItemLote {
+        private final String mime;
+        private final String dados;
+        private final FonteAudio fonte;
+        private final long tamanho;
+        private final long tamanhoBase64;
+        private final PrioridadeChamada prioridade;
+        private final CompletableFuture<String> resultado = new CompletableFuture<>();
+
+        private ItemLote(String mime, String dados, FonteAudio fonte, long tamanho, long tamanhoBase64,
+                         PrioridadeChamada prioridade) {
+            this.mime = mime;
+            this.dados = dados;
+            this.fonte = fonte;
+            this.tamanho = tamanho;
+            this.tamanhoBase64 = tamanhoBase64;
+            this.prioridade = prioridade;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.domain.entity.ArquivoAudio;
+import com.vozsocial.infrastructure.repository.ArquivoAudioRepository;
+import com.vozsocial.infrastructure.storage.ArmazenamentoAudio;
+import com.vozsocial.infrastructure.storage.LayoutArmazenamentoAudio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service responsável por migrar, em background, os arquivos do diretório plano
+ * para o layout distribuído por prefixo de hash, sem indisponibilidade
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MigracaoArmazenamentoService {
+
+    private final ArquivoAudioRepository arquivoAudioRepository;
+    private final ArquivoAudioService arquivoAudioService;
+    private final LayoutArmazenamentoAudio layoutArmazenamento;
+    private final ArmazenamentoAudio armazenamentoAudio;
+
+    @Value("${storage.audio.migracao.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${storage.audio.migracao.tamanho-lote:100}")
+    private int tamanhoLote;
+
+    @Value("${storage.audio.migracao.pausa-entre-lotes-ms:500}")
+    private long pausaEntreLotesMs;
+
+    private final AtomicBoolean concluida = new AtomicBoolean(false);
+
+    /**
+     * Percorre a tabela por keyset movendo os arquivos em lotes com pausa entre eles
+     */
+    @Scheduled(fixedDelayString = "${storage.audio.migracao.intervalo-ms:300000}")
+    public void migrarPendentes() {
+        if (!habilitada || concluida.get()) {
+            return;
+        }
+
+        log.info("Iniciando migração do storage para o layout distribuído");
+
+        long ultimoId = 0L;
+        int migrados = 0;
+        List<ArquivoAudio> lote;
+
+        do {
+            lote = arquivoAudioRepository.buscarAPartirDoId(ultimoId, PageRequest.of(0, tamanhoLote));
+
+            for (ArquivoAudio arquivoAudio : lote) {
+                ultimoId = arquivoAudio.getId();
+                if (migrarArquivo(arquivoAudio)) {
+                    migrados++;
+                }
+            }
+
+            if (!aguardar(pausaEntreLotesMs)) {
+                return;
+            }
+        } while (lote.size() == tamanhoLote);
+
+        concluida.set(true);
+        log.info("Migração do storage concluída. Arquivos movidos: {}", migrados);
+    }
+
+    /**
+     * Move um arquivo para o layout: cria o novo caminho (hard link quando possível),
+     * atualiza o banco e só então remove o caminho antigo
+     */
+    private boolean migrarArquivo(ArquivoAudio arquivoAudio) {
+        if (!armazenamentoAudio.armazenadoEmArquivoLocal(arquivoAudio.getCaminhoArquivo())) {
+            return false;
+        }
+        
+        Path atual = Paths.get(arquivoAudio.getCaminhoArquivo()).normalize();
+        Path destino = calcularDestino(arquivoAudio, atual).normalize();
+
+        if (atual.equals(destino)) {
+            return false;
+        }
+
+        try {
+            if (Files.exists(atual)) {
+                Files.createDirectories(destino.getParent());
+                vincular(atual, destino);
+            } else if (!Files.exists(destino)) {
+                log.warn("Arquivo não encontrado durante migração. ID: {}, caminho: {}",
+                        arquivoAudio.getId(), atual);
+                return false;
+            }
+            
+            // O sidecar de forma de onda acompanha o arquivo de áudio, já presente no destino
+            Path waveformAtual = layoutArmazenamento.resolverWaveform(atual);
+            if (Files.exists(waveformAtual)) {
+                vincular(waveformAtual, layoutArmazenamento.resolverWaveform(destino));
+            }
+
+            arquivoAudioService.atualizarCaminhoConteudo(atual.toString(), destino.toString());
+            Files.deleteIfExists(atual);
+            Files.deleteIfExists(waveformAtual);
+            return true;
+        } catch (IOException e) {
+            log.warn("Erro ao migrar arquivo ID {}: {}", arquivoAudio.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Path calcularDestino(ArquivoAudio arquivoAudio, Path atual) {
+        String nomeArquivo = atual.getFileName().toString();
+
+        if (arquivoAudio.getHashConteudo() == null) {
+            return layoutArmazenamento.resolverLegado(nomeArquivo);
+        }
+
+        String extensao = nomeArquivo.contains(".") ? nomeArquivo.substring(nomeArquivo.lastIndexOf(".")) : "";
+        return layoutArmazenamento.resolver(arquivoAudio.getHashConteudo(), extensao);
+    }
+
+    private void vincular(Path atual, Path destino) throws IOException {
+        try {
+            Files.createLink(destino, atual);
+        } catch (FileAlreadyExistsException e) {
+            log.debug("Destino já existe, reaproveitando: {}", destino);
+        } catch (UnsupportedOperationException | IOException e) {
+            // Volumes sem suporte a hard link recebem uma cópia
+            if (!Files.exists(destino)) {
+                Files.copy(atual, destino);
+            }
+        }
+    }
+
+    private boolean aguardar(long milissegundos) {
+        try {
+            Thread.sleep(milissegundos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -2,12 +2,17 @@ package com.vozsocial.domain.service;
 
 import com.vozsocial.application.dto.ArquivoAudioDto;
 import com.vozsocial.application.dto.PostAudioDto;
+import com.vozsocial.application.dto.SessaoUploadDto;
 import com.vozsocial.application.dto.request.CriarPostRequest;
+import com.vozsocial.application.dto.response.PaginaCursorResponse;
 import com.vozsocial.application.mapper.PostAudioMapper;
 import com.vozsocial.domain.entity.ArquivoAudio;
 import com.vozsocial.domain.entity.PostAudio;
 import com.vozsocial.domain.entity.Usuario;
+import com.vozsocial.infrastructure.json.LeitorJsonAudioStream;
+import com.vozsocial.infrastructure.json.LeituraAudioStream;
 import com.vozsocial.infrastructure.repository.ArquivoAudioRepository;
+import com.vozsocial.infrastructure.storage.ArquivoGravado;
 import com.vozsocial.infrastructure.repository.CurtidaPostRepository;
 import com.vozsocial.infrastructure.repository.PostAudioRepository;
 import com.vozsocial.infrastructure.repository.UsuarioRepository;
@@ -16,9 +21,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -36,7 +49,13 @@ public class PostAudioService {
     private final CurtidaPostRepository curtidaPostRepository;
     private final PostAudioMapper postAudioMapper;
     private final ArquivoAudioService arquivoAudioService;
-    private final GoogleAIService googleAIService;
+    private final LeitorJsonAudioStream leitorJsonAudioStream;
+    private final SessaoUploadService sessaoUploadService;
+    private final FilaTranscricaoService filaTranscricaoService;
+    private final RenderizacaoVariantesService renderizacaoVariantesService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
 
     /**
      * Busca post por ID
@@ -53,34 +72,70 @@ public class PostAudioService {
      * Busca feed principal de posts
      */
     @Transactional(readOnly = true)
-    public Page<PostAudioDto> buscarFeed(Pageable pageable) {
+    public Page<PostAudioDto> buscarFeed(Pageable pageable, boolean incluirWaveform) {
         log.debug("Buscando feed de posts - página: {}, tamanho: {}", 
                  pageable.getPageNumber(), pageable.getPageSize());
         
         return postAudioRepository.findAllByOrderByCriadoEmDesc(pageable)
-                .map(postAudioMapper::paraDto);
+                .map(postAudioMapper::paraDto)
+                .map(post -> incluirWaveform ? comWaveform(post) : post);
     }
 
     /**
      * Busca posts por usuário
      */
     @Transactional(readOnly = true)
-    public Page<PostAudioDto> buscarPostsDoUsuario(Long usuarioId, Pageable pageable) {
+    public Page<PostAudioDto> buscarPostsDoUsuario(Long usuarioId, Pageable pageable, boolean incluirWaveform) {
         log.debug("Buscando posts do usuário: {}", usuarioId);
         
         return postAudioRepository.findByUsuarioIdOrderByCriadoEmDesc(usuarioId, pageable)
-                .map(postAudioMapper::paraDto);
+                .map(postAudioMapper::paraDto)
+                .map(post -> incluirWaveform ? comWaveform(post) : post);
+    }
+
+    /**
+     * Busca o feed por cursor: cada página continua do último post da anterior em
+     * (criado_em, id), com o mesmo custo em qualquer profundidade e sem contagem
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<PostAudioDto> buscarFeedPorCursor(String cursor, int tamanho, boolean incluirWaveform) {
+        int limite = limitarTamanho(tamanho);
+        log.debug("Buscando feed de posts por cursor - tamanho: {}", limite);
+        
+        Optional<PosicaoCursor> ultimo = decodificarCursor(cursor);
+        List<PostAudio> posts = ultimo
+                .map(anterior -> postAudioRepository.buscarFeedAntesDe(anterior.criadoEm(), anterior.id(), limite + 1))
+                .orElseGet(() -> postAudioRepository.buscarFeed(limite + 1));
+        return paraPaginaCursor(posts, limite, incluirWaveform);
+    }
+
+    /**
+     * Busca posts por usuário por cursor, na mesma ordem do feed
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<PostAudioDto> buscarPostsDoUsuarioPorCursor(Long usuarioId, String cursor, int tamanho,
+                                                                           boolean incluirWaveform) {
+        int limite = limitarTamanho(tamanho);
+        log.debug("Buscando posts do usuário {} por cursor", usuarioId);
+        
+        Optional<PosicaoCursor> ultimo = decodificarCursor(cursor);
+        List<PostAudio> posts = ultimo
+                .map(anterior -> postAudioRepository.buscarDoUsuarioAntesDe(usuarioId, anterior.criadoEm(),
+                        anterior.id(), limite + 1))
+                .orElseGet(() -> postAudioRepository.buscarDoUsuario(usuarioId, limite + 1));
+        return paraPaginaCursor(posts, limite, incluirWaveform);
     }
 
     /**
      * Busca posts mais curtidos
      */
     @Transactional(readOnly = true)
-    public Page<PostAudioDto> buscarPostsMaisCurtidos(Pageable pageable) {
+    public Page<PostAudioDto> buscarPostsMaisCurtidos(Pageable pageable, boolean incluirWaveform) {
         log.debug("Buscando posts mais curtidos");
         
         return postAudioRepository.buscarMaisCurtidos(pageable)
-                .map(postAudioMapper::paraDto);
+                .map(postAudioMapper::paraDto)
+                .map(post -> incluirWaveform ? comWaveform(post) : post);
     }
 
     /**
@@ -112,6 +167,98 @@ public class PostAudioService {
         
         PostAudio postSalvo = postAudioRepository.save(post);
         
+        // A transcrição e a variante com filtro de voz são feitas em background
+        filaTranscricaoService.enfileirar(postSalvo.getId());
+        renderizacaoVariantesService.enfileirar(arquivoAudio.getId(), postSalvo.getTipoFiltroVoz());
+        
+        log.info("Post criado com sucesso. ID: {}", postSalvo.getId());
+        return postAudioMapper.paraDto(postSalvo);
+    }
+
+    /**
+     * Cria novo post lendo o áudio diretamente do corpo da requisição; o corpo é gravado
+     * em disco fora de transação e só a publicação e o post usam conexão do pool
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostAudioDto criarPostComStream(InputStream corpo, CriarPostRequest request) {
+        log.info("Criando post com áudio via stream para usuário: {}", request.getUsuarioId());
+        
+        // Grava o áudio em uma única passada direto no storage
+        ArquivoGravado arquivoGravado = arquivoAudioService.gravarTemporario(corpo);
+        
+        return transactionTemplate.execute(status -> criarPostComArquivoGravado(arquivoGravado, request));
+    }
+
+    /**
+     * Publica o arquivo já gravado em disco e cria o post que o referencia
+     */
+    private PostAudioDto criarPostComArquivoGravado(ArquivoGravado arquivoGravado, CriarPostRequest request) {
+        ArquivoAudioDto arquivoAudioDto = arquivoAudioService.processarArquivoGravado(
+            arquivoGravado, request.getUsuarioId(), request.getNomeArquivo());
+        
+        Usuario usuario = buscarUsuario(request.getUsuarioId());
+        ArquivoAudio arquivoAudio = buscarArquivoAudio(arquivoAudioDto.getId());
+        
+        // Cria o post
+        PostAudio post = PostAudio.builder()
+                .usuario(usuario)
+                .arquivoAudio(arquivoAudio)
+                .conteudo(request.getConteudo())
+                .tipoFiltroVoz(request.getTipoFiltroVoz())
+                .processado(false)
+                .quantidadeCurtidas(0)
+                .quantidadeComentarios(0)
+                .quantidadeCompartilhamentos(0)
+                .build();
+        
+        PostAudio postSalvo = postAudioRepository.save(post);
+        
+        // A transcrição e a variante com filtro de voz são feitas em background
+        filaTranscricaoService.enfileirar(postSalvo.getId());
+        renderizacaoVariantesService.enfileirar(arquivoAudio.getId(), postSalvo.getTipoFiltroVoz());
+        
+        log.info("Post criado com sucesso. ID: {}", postSalvo.getId());
+        return postAudioMapper.paraDto(postSalvo);
+    }
+
+    /**
+     * Cria novo post concluindo uma sessão de upload retomável
+     */
+    public PostAudioDto criarPostComSessaoUpload(String sessaoId, CriarPostRequest request) {
+        log.info("Criando post com sessão de upload {} para usuário: {}", sessaoId, request.getUsuarioId());
+        
+        Usuario usuario = buscarUsuario(request.getUsuarioId());
+        
+        SessaoUploadDto sessao = sessaoUploadService.buscar(sessaoId)
+                .orElseThrow(() -> new IllegalArgumentException("Sessão de upload não encontrada"));
+        if (!sessao.getUsuarioId().equals(usuario.getId())) {
+            throw new IllegalArgumentException("Sessão de upload pertence a outro usuário");
+        }
+        
+        // Publica o arquivo já recebido em partes
+        ArquivoAudioDto arquivoAudioDto = sessaoUploadService.finalizar(sessaoId);
+        
+        // Busca a entidade do arquivo de áudio
+        ArquivoAudio arquivoAudio = buscarArquivoAudio(arquivoAudioDto.getId());
+        
+        // Cria o post
+        PostAudio post = PostAudio.builder()
+                .usuario(usuario)
+                .arquivoAudio(arquivoAudio)
+                .conteudo(request.getConteudo())
+                .tipoFiltroVoz(request.getTipoFiltroVoz())
+                .processado(false)
+                .quantidadeCurtidas(0)
+                .quantidadeComentarios(0)
+                .quantidadeCompartilhamentos(0)
+                .build();
+        
+        PostAudio postSalvo = postAudioRepository.save(post);
+        
+        // A transcrição e a variante com filtro de voz são feitas em background
+        filaTranscricaoService.enfileirar(postSalvo.getId());
+        renderizacaoVariantesService.enfileirar(arquivoAudio.getId(), postSalvo.getTipoFiltroVoz());
+        
         log.info("Post criado com sucesso. ID: {}", postSalvo.getId());
         return postAudioMapper.paraDto(postSalvo);
     }
@@ -145,13 +292,35 @@ public class PostAudioService {
         
         PostAudio postSalvo = postAudioRepository.save(post);
         
-        // Processa transcrição assíncrona (em produção seria em background)
-        processarTranscricaoPost(postSalvo.getId(), request.getAudioDataUri());
+        // A transcrição e a variante com filtro de voz são feitas em background
+        filaTranscricaoService.enfileirar(postSalvo.getId());
+        renderizacaoVariantesService.enfileirar(arquivoAudio.getId(), postSalvo.getTipoFiltroVoz());
         
         log.info("Post criado com sucesso. ID: {}", postSalvo.getId());
         return postAudioMapper.paraDto(postSalvo);
     }
 
+    /**
+     * Cria novo post com áudio base64 decodificado em stream, sem manter o data URI em memória
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostAudioDto criarPostComAudioBase64Stream(InputStream corpo) {
+        LeituraAudioStream<CriarPostRequest, ArquivoGravado> leitura = leitorJsonAudioStream.ler(
+            corpo, CriarPostRequest.class, "audioDataUri", 
+            (tipoMime, dados) -> arquivoAudioService.gravarTemporario(dados),
+            arquivoAudioService::descartarTemporario);
+        
+        CriarPostRequest request = leitura.getRequisicao();
+        ArquivoGravado arquivoGravado = leitura.getAudio();
+        log.info("Criando post com áudio base64 via stream para usuário: {}", request.getUsuarioId());
+        
+        if (arquivoGravado == null) {
+            throw new IllegalArgumentException("Dados do áudio são obrigatórios");
+        }
+        
+        return transactionTemplate.execute(status -> criarPostComArquivoGravado(arquivoGravado, request));
+    }
+
     /**
      * Atualiza conteúdo do post
      */
@@ -223,26 +392,61 @@ public class PostAudioService {
     }
 
     /**
-     * Processa transcrição do post
+     * Anexa ao post os picos da forma de onda do seu áudio, quando disponíveis
      */
-    private void processarTranscricaoPost(Long postId, String audioDataUri) {
-        log.debug("Processando transcrição para post ID: {}", postId);
-        
-        PostAudio post = postAudioRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post não encontrado"));
-        
-        String transcricao = googleAIService.transcreverAudio(audioDataUri);
-        
-        // Atualiza transcrição no arquivo de áudio
-        ArquivoAudio arquivoAudio = post.getArquivoAudio();
-        arquivoAudio.setTranscricao(transcricao);
-        
-        // Marca post como processado
-        post.setProcessado(true);
-        
-        postAudioRepository.save(post);
-        
-        log.info("Transcrição processada para post ID: {}", postId);
+    private PostAudioDto comWaveform(PostAudioDto post) {
+        if (post.getArquivoAudio() != null) {
+            arquivoAudioService.buscarWaveform(post.getArquivoAudio().getId())
+                    .ifPresent(post::setWaveform);
+        }
+        return post;
+    }
+
+    /**
+     * Um item além do tamanho indica que existe próxima página, dispensando a contagem
+     */
+    private PaginaCursorResponse<PostAudioDto> paraPaginaCursor(List<PostAudio> posts, int limite,
+                                                                boolean incluirWaveform) {
+        boolean temMais = posts.size() > limite;
+        List<PostAudio> pagina = temMais ? posts.subList(0, limite) : posts;
+        
+        return PaginaCursorResponse.<PostAudioDto>builder()
+                .itens(pagina.stream()
+                        .map(postAudioMapper::paraDto)
+                        .map(post -> incluirWaveform ? comWaveform(post) : post)
+                        .toList())
+                .proximoCursor(temMais ? codificarCursor(pagina.get(pagina.size() - 1)) : null)
+                .temMais(temMais)
+                .build();
+    }
+
+    private int limitarTamanho(int tamanho) {
+        return Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+    }
+
+    /**
+     * O cursor é a posição (criadoEm, id) do último post entregue, em Base64 URL
+     */
+    private String codificarCursor(PostAudio post) {
+        String posicao = post.getCriadoEm() + "|" + post.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cursor vazio indica a primeira página
+     */
+    private Optional<PosicaoCursor> decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String posicao = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separador = posicao.lastIndexOf('|');
+            return Optional.of(new PosicaoCursor(LocalDateTime.parse(posicao.substring(0, separador)),
+                    Long.parseLong(posicao.substring(separador + 1))));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
     }
 
     /**
@@ -260,4 +464,10 @@ public class PostAudioService {
         return arquivoAudioRepository.findById(arquivoId)
                 .orElseThrow(() -> new RuntimeException("Arquivo de áudio não encontrado"));
     }
+
+    /**
+     * Posição do último post entregue em uma página por cursor
+     */
+    private record PosicaoCursor(LocalDateTime criadoEm, Long id) {
+    }
 }
@@ -0,0 +1,256 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.domain.entity.RemocaoArquivo;
+import com.vozsocial.infrastructure.repository.ArquivoAudioRepository;
+import com.vozsocial.infrastructure.repository.BlobAudioRepository;
+import com.vozsocial.infrastructure.repository.RemocaoArquivoRepository;
+import com.vozsocial.infrastructure.storage.ArmazenamentoAudio;
+import com.vozsocial.infrastructure.storage.LayoutArmazenamentoAudio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Service responsável por remover arquivos físicos fora das transações de exclusão:
+ * as exclusões registram tombstones e o coletor apaga os arquivos em lotes após o commit,
+ * além de reconciliar periodicamente o storage com o banco para achar órfãos
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RemocaoArquivoService {
+
+    private static final Pattern HASH_SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final String EXTENSAO_TEMPORARIO = ".part";
+    private static final String EXTENSAO_WAVEFORM = ".peaks";
+
+    private final RemocaoArquivoRepository remocaoArquivoRepository;
+    private final ArquivoAudioRepository arquivoAudioRepository;
+    private final BlobAudioRepository blobAudioRepository;
+    private final LayoutArmazenamentoAudio layoutArmazenamento;
+    private final ArmazenamentoAudio armazenamentoAudio;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.audio.remocao.tamanho-lote:200}")
+    private int tamanhoLote;
+
+    @Value("${storage.audio.remocao.pausa-entre-lotes-ms:200}")
+    private long pausaEntreLotesMs;
+
+    @Value("${storage.audio.remocao.maximo-tentativas:5}")
+    private int maximoTentativas;
+
+    @Value("${storage.audio.reconciliacao.habilitada:true}")
+    private boolean reconciliacaoHabilitada;
+
+    @Value("${storage.audio.reconciliacao.carencia-minutos:60}")
+    private long carenciaMinutos;
+
+    /**
+     * Registra o arquivo para remoção na transação corrente; se ela for desfeita, o registro também é
+     */
+    @Transactional
+    public void registrar(String caminhoArquivo, String hashConteudo) {
+        remocaoArquivoRepository.save(RemocaoArquivo.builder()
+                .caminhoArquivo(caminhoArquivo)
+                .hashConteudo(hashConteudo)
+                .build());
+
+        log.debug("Remoção agendada para arquivo físico: {}", caminhoArquivo);
+    }
+
+    /**
+     * Processa os tombstones pendentes em lotes, com pausa entre eles
+     */
+    @Scheduled(fixedDelayString = "${storage.audio.remocao.intervalo-ms:10000}")
+    public void coletarPendentes() {
+        List<RemocaoArquivo> lote;
+        int removidos = 0;
+
+        do {
+            lote = remocaoArquivoRepository.buscarPendentes(maximoTentativas, PageRequest.of(0, tamanhoLote));
+
+            for (RemocaoArquivo remocao : lote) {
+                if (processar(remocao)) {
+                    removidos++;
+                }
+            }
+
+            if (lote.size() == tamanhoLote && !aguardar(pausaEntreLotesMs)) {
+                return;
+            }
+        } while (lote.size() == tamanhoLote);
+
+        if (removidos > 0) {
+            log.info("Coletor removeu {} arquivo(s) físico(s)", removidos);
+        }
+    }
+
+    /**
+     * Percorre o storage procurando arquivos sem registro no banco, deixados por uploads com falha
+     */
+    @Scheduled(initialDelayString = "${storage.audio.reconciliacao.atraso-inicial-ms:600000}",
+               fixedDelayString = "${storage.audio.reconciliacao.intervalo-ms:86400000}")
+    public void reconciliar() {
+        if (!reconciliacaoHabilitada || !Files.isDirectory(layoutArmazenamento.diretorioBase())) {
+            return;
+        }
+
+        log.info("Iniciando reconciliação do storage com o banco");
+
+        Instant limite = Instant.now().minus(Duration.ofMinutes(carenciaMinutos));
+        Path diretorioPacotes = layoutArmazenamento.diretorioPacotes();
+        Path diretorioSessoes = layoutArmazenamento.diretorioSessoes();
+        List<String> candidatos = new ArrayList<>();
+        int orfaos = 0;
+
+        try (Stream<Path> arquivos = Files.walk(layoutArmazenamento.diretorioBase())) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                // Segmentos de pacote têm o espaço recuperado pela compactação
+                if (arquivo.startsWith(diretorioPacotes)) {
+                    continue;
+                }
+                // Sessões de upload em andamento são removidas pela expiração das sessões
+                if (arquivo.startsWith(diretorioSessoes)) {
+                    continue;
+                }
+                BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+                // Arquivos recentes podem pertencer a uploads ainda não confirmados
+                if (!atributos.isRegularFile() || atributos.lastModifiedTime().toInstant().isAfter(limite)) {
+                    continue;
+                }
+
+                String nome = arquivo.getFileName().toString();
+                if (nome.endsWith(EXTENSAO_TEMPORARIO)) {
+                    Files.deleteIfExists(arquivo);
+                    orfaos++;
+                } else if (nome.endsWith(EXTENSAO_WAVEFORM)) {
+                    Path audio = arquivo.resolveSibling(nome.substring(0, nome.length() - EXTENSAO_WAVEFORM.length()));
+                    if (!Files.exists(audio)) {
+                        Files.deleteIfExists(arquivo);
+                        orfaos++;
+                    }
+                } else {
+                    candidatos.add(arquivo.toString());
+                    if (candidatos.size() == tamanhoLote) {
+                        orfaos += registrarOrfaos(candidatos);
+                        candidatos.clear();
+                        if (!aguardar(pausaEntreLotesMs)) {
+                            return;
+                        }
+                    }
+                }
+            }
+            orfaos += registrarOrfaos(candidatos);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Reconciliação do storage interrompida: {}", e.getMessage());
+        }
+
+        log.info("Reconciliação do storage concluída. Órfãos encontrados: {}", orfaos);
+    }
+
+    /**
+     * Remove um arquivo em transação própria, após confirmar que nada voltou a referenciá-lo
+     */
+    private boolean processar(RemocaoArquivo remocao) {
+        try {
+            Boolean removido = transactionTemplate.execute(status -> removerSeLivre(remocao));
+            return Boolean.TRUE.equals(removido);
+        } catch (RuntimeException e) {
+            log.warn("Erro ao remover arquivo físico {}: {}", remocao.getCaminhoArquivo(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> remocaoArquivoRepository.registrarFalha(remocao.getId()));
+            return false;
+        }
+    }
+
+    private boolean removerSeLivre(RemocaoArquivo remocao) {
+        String caminho = remocao.getCaminhoArquivo();
+
+        // O lock no hash segura uploads concorrentes do mesmo conteúdo até a remoção terminar
+        boolean referenciado = remocao.getHashConteudo() != null
+                && blobAudioRepository.bloquearPorHash(remocao.getHashConteudo()).isPresent();
+
+        referenciado = referenciado
+                || arquivoAudioRepository.existsByCaminhoArquivo(caminho)
+                || blobAudioRepository.existsByCaminhoArquivo(caminho);
+
+        remocaoArquivoRepository.delete(remocao);
+
+        if (referenciado) {
+            log.debug("Arquivo voltou a ser referenciado, remoção ignorada: {}", caminho);
+            return false;
+        }
+
+        try {
+            armazenamentoAudio.remover(caminho);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Agenda a remoção dos caminhos do lote que não são referenciados por nenhum registro
+     */
+    private int registrarOrfaos(List<String> caminhos) {
+        if (caminhos.isEmpty()) {
+            return 0;
+        }
+
+        Integer registrados = transactionTemplate.execute(status -> {
+            Set<String> referenciados = new HashSet<>(arquivoAudioRepository.buscarCaminhosReferenciados(caminhos));
+            referenciados.addAll(blobAudioRepository.buscarCaminhosReferenciados(caminhos));
+
+            int quantidade = 0;
+            for (String caminho : caminhos) {
+                if (referenciados.contains(caminho) || remocaoArquivoRepository.existsByCaminhoArquivo(caminho)) {
+                    continue;
+                }
+                registrar(caminho, hashDoNome(caminho));
+                quantidade++;
+            }
+            return quantidade;
+        });
+        return registrados != null ? registrados : 0;
+    }
+
+    /**
+     * Extrai o hash de conteúdo do nome do arquivo, quando ele segue o layout endereçado por conteúdo
+     */
+    private String hashDoNome(String caminho) {
+        String nome = Paths.get(caminho).getFileName().toString();
+        int ponto = nome.indexOf('.');
+        String base = ponto >= 0 ? nome.substring(0, ponto) : nome;
+        return HASH_SHA256.matcher(base).matches() ? base : null;
+    }
+
+    private boolean aguardar(long milissegundos) {
+        try {
+            Thread.sleep(milissegundos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
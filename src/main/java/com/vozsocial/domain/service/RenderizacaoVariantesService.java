@@ -0,0 +1,277 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.domain.entity.ArquivoAudio;
+import com.vozsocial.domain.entity.PostAudio;
+import com.vozsocial.domain.entity.VarianteAudio;
+import com.vozsocial.domain.enums.StatusVarianteAudio;
+import com.vozsocial.domain.enums.TipoFiltroVoz;
+import com.vozsocial.infrastructure.audio.efeito.MotorEfeitosVoz;
+import com.vozsocial.infrastructure.repository.ArquivoAudioRepository;
+import com.vozsocial.infrastructure.repository.PostAudioRepository;
+import com.vozsocial.infrastructure.repository.VarianteAudioRepository;
+import com.vozsocial.infrastructure.storage.ArmazenamentoAudio;
+import com.vozsocial.infrastructure.storage.ArquivoGravado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Service responsável por pré-renderizar as variantes com filtro de voz: a criação do post
+ * registra a variante pendente e os workers aplicam o filtro em background, publicando o
+ * resultado como um blob comum, para que a reprodução seja apenas a leitura de um arquivo
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RenderizacaoVariantesService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final VarianteAudioRepository varianteAudioRepository;
+    private final ArquivoAudioRepository arquivoAudioRepository;
+    private final PostAudioRepository postAudioRepository;
+    private final ArquivoAudioService arquivoAudioService;
+    private final ArmazenamentoAudio armazenamentoAudio;
+    private final MotorEfeitosVoz motorEfeitosVoz;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audio.variantes.workers:2}")
+    private int quantidadeWorkers;
+
+    @Value("${audio.variantes.maximo-tentativas:3}")
+    private int maximoTentativas;
+
+    @Value("${audio.variantes.backoff-inicial-ms:10000}")
+    private long backoffInicialMs;
+
+    @Value("${audio.variantes.tamanho-lote-recuperacao:100}")
+    private int tamanhoLoteRecuperacao;
+
+    private ThreadPoolExecutor workers;
+
+    /**
+     * Cada worker esvazia a fila até não haver variantes prontas; despertares com todos ocupados são descartados
+     */
+    @PostConstruct
+    public void iniciar() {
+        workers = new ThreadPoolExecutor(quantidadeWorkers, quantidadeWorkers, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), new ThreadPoolExecutor.DiscardPolicy());
+
+        Gauge.builder("vozsocial.audio.variantes.pendentes",
+                        () -> varianteAudioRepository.countByStatus(StatusVarianteAudio.PENDENTE))
+                .description("Variantes com filtro de voz aguardando renderização")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        workers.shutdown();
+    }
+
+    /**
+     * Registra a variante do filtro na transação do chamador; filtros sem cadeia de efeitos são ignorados
+     */
+    public void enfileirar(Long arquivoAudioId, TipoFiltroVoz filtro) {
+        if (!motorEfeitosVoz.possuiFiltro(filtro)) {
+            return;
+        }
+
+        varianteAudioRepository.save(VarianteAudio.builder()
+                .arquivoAudio(arquivoAudioRepository.getReferenceById(arquivoAudioId))
+                .tipoFiltroVoz(filtro)
+                .proximaTentativaEm(LocalDateTime.now())
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acordar();
+                }
+            });
+        } else {
+            acordar();
+        }
+    }
+
+    /**
+     * Garante um worker ativo para variantes reagendadas ou perdidas em despertares descartados
+     */
+    @Scheduled(fixedDelayString = "${audio.variantes.intervalo-ms:10000}")
+    public void despachar() {
+        acordar();
+    }
+
+    /**
+     * Registra as variantes de posts com filtro que ficaram sem registro, como os criados antes da renderização existir
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${audio.variantes.intervalo-recuperacao-ms:300000}")
+    public void recuperar() {
+        List<TipoFiltroVoz> filtros = Arrays.stream(TipoFiltroVoz.values())
+                .filter(motorEfeitosVoz::possuiFiltro)
+                .collect(Collectors.toList());
+        if (filtros.isEmpty()) {
+            return;
+        }
+
+        List<PostAudio> posts = transactionTemplate.execute(status ->
+                postAudioRepository.buscarSemVariante(filtros, PageRequest.of(0, tamanhoLoteRecuperacao)));
+        for (PostAudio post : posts) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        enfileirar(post.getArquivoAudio().getId(), post.getTipoFiltroVoz()));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Variante do post {} já registrada por outra requisição", post.getId());
+            }
+        }
+
+        if (!posts.isEmpty()) {
+            log.info("{} variante(s) com filtro de voz recuperada(s) para renderização", posts.size());
+        }
+    }
+
+    private void acordar() {
+        for (int i = 0; i < quantidadeWorkers; i++) {
+            try {
+                workers.execute(this::drenar);
+            } catch (RejectedExecutionException e) {
+                log.debug("Workers de renderização indisponíveis: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void drenar() {
+        try {
+            while (renderizarProxima()) {
+                // Continua enquanto houver variantes prontas
+            }
+        } catch (RuntimeException e) {
+            log.warn("Renderização de variantes interrompida: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renderiza a próxima variante pronta sob o lock da linha; uma falha desfaz a publicação
+     * e é registrada em transação própria
+     */
+    private boolean renderizarProxima() {
+        AtomicReference<Long> bloqueada = new AtomicReference<>();
+        try {
+            Boolean encontrada = transactionTemplate.execute(status -> {
+                List<Long> ids = varianteAudioRepository.bloquearProntas(LocalDateTime.now(), 1);
+                if (ids.isEmpty()) {
+                    return false;
+                }
+                bloqueada.set(ids.get(0));
+                varianteAudioRepository.findById(ids.get(0)).ifPresent(this::renderizar);
+                return true;
+            });
+            return Boolean.TRUE.equals(encontrada);
+        } catch (RuntimeException e) {
+            Long varianteId = bloqueada.get();
+            if (varianteId == null) {
+                throw e;
+            }
+            log.warn("Falha ao renderizar variante {}: {}", varianteId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> registrarFalha(varianteId, e));
+            return true;
+        }
+    }
+
+    private void renderizar(VarianteAudio variante) {
+        ArquivoAudio arquivoAudio = variante.getArquivoAudio();
+
+        byte[] original;
+        try (InputStream entrada = armazenamentoAudio.abrir(arquivoAudio.getCaminhoArquivo())) {
+            original = entrada.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler áudio original", e);
+        }
+
+        Optional<byte[]> renderizado = motorEfeitosVoz.renderizar(variante.getTipoFiltroVoz(), original);
+        if (renderizado.isEmpty()) {
+            // Sem decodificador para o formato do original: a reprodução segue sem a variante
+            variante.setStatus(StatusVarianteAudio.NAO_SUPORTADA);
+            varianteAudioRepository.save(variante);
+            contar("nao_suportada");
+            log.info("Filtro {} não suportado para o arquivo ID {} ({})",
+                    variante.getTipoFiltroVoz(), arquivoAudio.getId(), arquivoAudio.getTipoMime());
+            return;
+        }
+
+        ArquivoGravado arquivoGravado = arquivoAudioService.gravarTemporario(
+                new ByteArrayInputStream(renderizado.get()));
+        String caminho = arquivoAudioService.armazenarVariante(arquivoGravado);
+
+        variante.setCaminhoArquivo(caminho);
+        variante.setHashConteudo(arquivoGravado.getHashSha256());
+        variante.setTamanhoArquivo(arquivoGravado.getTamanho());
+        variante.setTipoMime(arquivoGravado.getFormato().getTipoMime());
+        variante.setStatus(StatusVarianteAudio.CONCLUIDA);
+        variante.setUltimoErro(null);
+        varianteAudioRepository.save(variante);
+        contar("concluida");
+
+        log.info("Variante {} renderizada para o arquivo ID {}", variante.getTipoFiltroVoz(), arquivoAudio.getId());
+    }
+
+    /**
+     * Agenda nova tentativa com backoff exponencial e jitter, ou marca a variante como falha
+     */
+    private void registrarFalha(Long varianteId, RuntimeException erro) {
+        varianteAudioRepository.findById(varianteId).ifPresent(variante -> {
+            variante.setTentativas(variante.getTentativas() + 1);
+            String mensagem = erro.getClass().getSimpleName() + ": " + erro.getMessage();
+            variante.setUltimoErro(mensagem.length() > TAMANHO_MAXIMO_ERRO
+                    ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem);
+
+            if (variante.getTentativas() >= maximoTentativas) {
+                variante.setStatus(StatusVarianteAudio.FALHOU);
+                contar("falhou");
+            } else {
+                long teto = backoffInicialMs << Math.min(variante.getTentativas() - 1, 20);
+                long espera = teto / 2 + ThreadLocalRandom.current().nextLong(teto / 2 + 1);
+                variante.setProximaTentativaEm(LocalDateTime.now().plusNanos(espera * 1_000_000));
+                contar("reagendada");
+            }
+            varianteAudioRepository.save(variante);
+        });
+    }
+
+    private void contar(String resultado) {
+        Counter.builder("vozsocial.audio.variantes")
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,482 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.application.dto.ProgressoRetranscricaoDto;
+import com.vozsocial.domain.entity.ExecucaoRetranscricao;
+import com.vozsocial.domain.enums.ModoRetranscricao;
+import com.vozsocial.domain.enums.StatusExecucaoRetranscricao;
+import com.vozsocial.infrastructure.ai.PrioridadeChamada;
+import com.vozsocial.infrastructure.exception.ServicoIndisponivelException;
+import com.vozsocial.infrastructure.repository.ArquivoAudioRepository;
+import com.vozsocial.infrastructure.repository.ExecucaoRetranscricaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service responsável pela retranscrição em lote dos arquivos já armazenados, usada ao trocar
+ * o modelo ou o prompt e para preencher transcrições que faltam: a tabela é percorrida por
+ * keyset em lotes de tamanho fixo, alguns lotes ficam em voo ao mesmo tempo dentro da cota
+ * do Google AI e cada lote concluído é gravado junto com o checkpoint, na mesma transação.
+ * A execução é reservada por uma instância, que renova a reserva em batimentos próprios
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RetranscricaoService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+    private static final List<StatusExecucaoRetranscricao> EM_ABERTO =
+            List.of(StatusExecucaoRetranscricao.EM_ANDAMENTO, StatusExecucaoRetranscricao.PAUSADA);
+
+    private final ExecucaoRetranscricaoRepository execucaoRepository;
+    private final ArquivoAudioRepository arquivoAudioRepository;
+    private final ArquivoAudioService arquivoAudioService;
+    private final GoogleAIService googleAIService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transcricao.retranscricao.tamanho-lote:50}")
+    private int tamanhoLote;
+
+    @Value("${transcricao.retranscricao.lotes-paralelos:2}")
+    private int lotesParalelos;
+
+    @Value("${transcricao.retranscricao.duracao-reserva-ms:600000}")
+    private long duracaoReservaMs;
+
+    private final String instancia = UUID.randomUUID().toString();
+    private ThreadPoolExecutor executor;
+    private volatile Sessao sessao;
+    private volatile boolean encerrando;
+
+    /**
+     * Cria o executor da retranscrição, que aceita no máximo um despertar pendente
+     */
+    @PostConstruct
+    public void iniciar() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.DiscardPolicy());
+
+        Gauge.builder("vozsocial.retranscricao.vazao", this, servico -> {
+                    Sessao atual = servico.sessao;
+                    return atual != null ? atual.itensPorSegundo() : 0.0;
+                })
+                .description("Arquivos retranscritos por segundo na execução desta instância")
+                .register(meterRegistry);
+        Gauge.builder("vozsocial.retranscricao.restantes", this, servico -> {
+                    Sessao atual = servico.sessao;
+                    return atual != null ? atual.restantes() : 0.0;
+                })
+                .description("Arquivos que faltam na execução desta instância")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        encerrando = true;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cria uma execução que percorre os arquivos existentes até o maior ID atual; com uma
+     * execução já em aberto, devolve a existente. Arquivos enviados depois do início já são
+     * transcritos pela fila com o modelo e o prompt atuais
+     */
+    public ProgressoRetranscricaoDto iniciar(ModoRetranscricao modo) {
+        ExecucaoRetranscricao execucao = transactionTemplate.execute(status -> {
+            List<ExecucaoRetranscricao> abertas = execucaoRepository.findByStatusIn(EM_ABERTO);
+            if (!abertas.isEmpty()) {
+                log.info("Retranscrição {} já em aberto; nenhuma execução criada", abertas.get(0).getId());
+                return abertas.get(0);
+            }
+
+            Long idFinal = arquivoAudioRepository.buscarMaiorId();
+            boolean apenasSemTranscricao = modo == ModoRetranscricao.BACKFILL;
+            ExecucaoRetranscricao nova = execucaoRepository.save(ExecucaoRetranscricao.builder()
+                    .modo(modo)
+                    .versao(googleAIService.versaoTranscricao())
+                    .idFinal(idFinal)
+                    .totalEstimado(arquivoAudioRepository.contarAPartirDoId(0L, idFinal, apenasSemTranscricao))
+                    .build());
+
+            log.info("Retranscrição {} criada no modo {}: {} arquivo(s) até o ID {}",
+                    nova.getId(), modo, nova.getTotalEstimado(), idFinal);
+            return nova;
+        });
+
+        acordar();
+        return paraDto(execucao);
+    }
+
+    /**
+     * Pausa a execução em andamento; o lote em voo é gravado e o checkpoint preservado
+     */
+    public ProgressoRetranscricaoDto pausar() {
+        return alterarStatus(StatusExecucaoRetranscricao.EM_ANDAMENTO, StatusExecucaoRetranscricao.PAUSADA);
+    }
+
+    /**
+     * Retoma a execução pausada a partir do último checkpoint
+     */
+    public ProgressoRetranscricaoDto retomar() {
+        ProgressoRetranscricaoDto progresso =
+                alterarStatus(StatusExecucaoRetranscricao.PAUSADA, StatusExecucaoRetranscricao.EM_ANDAMENTO);
+        acordar();
+        return progresso;
+    }
+
+    /**
+     * Encerra a execução em aberto sem concluí-la; as transcrições já gravadas permanecem
+     */
+    public ProgressoRetranscricaoDto cancelar() {
+        ExecucaoRetranscricao execucao = transactionTemplate.execute(status -> {
+            ExecucaoRetranscricao aberta = execucaoRepository.findByStatusIn(EM_ABERTO).stream().findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Nenhuma retranscrição em aberto"));
+            aberta.setStatus(StatusExecucaoRetranscricao.CANCELADA);
+            aberta.setReservadoPor(null);
+            aberta.setReservadoAte(null);
+            aberta.setConcluidoEm(LocalDateTime.now());
+            return execucaoRepository.save(aberta);
+        });
+        log.info("Retranscrição {} cancelada", execucao.getId());
+        return paraDto(execucao);
+    }
+
+    /**
+     * Progresso da execução mais recente
+     */
+    public Optional<ProgressoRetranscricaoDto> progresso() {
+        return execucaoRepository.findFirstByOrderByIdDesc().map(this::paraDto);
+    }
+
+    /**
+     * Assume execuções em andamento sem instância responsável, inclusive após uma queda
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${transcricao.retranscricao.intervalo-ms:30000}")
+    public void verificar() {
+        acordar();
+    }
+
+    /**
+     * Renova a reserva da execução em andamento independentemente do progresso dos lotes,
+     * que pode demorar mais que a reserva enquanto espera a cota; se outra instância já a
+     * assumiu, a execução local é interrompida
+     */
+    @Scheduled(fixedDelayString = "${transcricao.retranscricao.intervalo-renovacao-ms:60000}")
+    public void renovarReserva() {
+        Sessao atual = sessao;
+        if (atual == null || !atual.ativa) {
+            return;
+        }
+        Integer renovadas = transactionTemplate.execute(status ->
+                execucaoRepository.renovarReserva(atual.execucaoId, instancia, fimReserva()));
+        if (renovadas == null || renovadas == 0) {
+            atual.ativa = false;
+            log.warn("Reserva da retranscrição {} assumida por outra instância; execução local interrompida",
+                    atual.execucaoId);
+        }
+    }
+
+    private void acordar() {
+        try {
+            executor.execute(this::executar);
+        } catch (RuntimeException e) {
+            log.debug("Executor de retranscrição indisponível: {}", e.getMessage());
+        }
+    }
+
+    private void executar() {
+        try {
+            for (Long execucaoId : execucaoRepository.buscarSemReserva(LocalDateTime.now())) {
+                if (encerrando) {
+                    return;
+                }
+                Integer reservadas = transactionTemplate.execute(status -> execucaoRepository.reservar(execucaoId,
+                        instancia, LocalDateTime.now(), fimReserva()));
+                if (reservadas != null && reservadas > 0) {
+                    processar(execucaoId);
+                }
+            }
+        } catch (RuntimeException e) {
+            // A reserva expira e a execução é retomada do checkpoint na próxima verificação
+            log.error("Falha na retranscrição em lote: {}", e.getMessage(), e);
+        } finally {
+            sessao = null;
+        }
+    }
+
+    /**
+     * Mantém até {@code lotesParalelos} lotes em voo e grava na ordem do keyset, de forma
+     * que o checkpoint nunca passe à frente de um arquivo ainda não gravado
+     */
+    private void processar(Long execucaoId) {
+        ExecucaoRetranscricao execucao = execucaoRepository.findById(execucaoId).orElseThrow();
+        boolean apenasSemTranscricao = execucao.getModo() == ModoRetranscricao.BACKFILL;
+        Sessao atual = new Sessao(execucaoId, execucao.getProcessados(), execucao.getTotalEstimado());
+        sessao = atual;
+        log.info("Retranscrição {} retomada a partir do ID {}", execucaoId, execucao.getUltimoId());
+
+        Deque<LoteEmVoo> emVoo = new ArrayDeque<>();
+        long cursor = execucao.getUltimoId();
+        boolean esgotado = false;
+
+        while (true) {
+            while (!esgotado && emVoo.size() < lotesParalelos) {
+                List<Long> ids = arquivoAudioRepository.buscarIdsAPartirDoId(cursor, execucao.getIdFinal(),
+                        apenasSemTranscricao, PageRequest.of(0, tamanhoLote));
+                esgotado = ids.size() < tamanhoLote;
+                if (!ids.isEmpty()) {
+                    cursor = ids.get(ids.size() - 1);
+                    emVoo.add(submeter(atual, ids, cursor));
+                }
+            }
+
+            LoteEmVoo lote = emVoo.poll();
+            if (lote == null) {
+                concluir(execucaoId);
+                return;
+            }
+
+            boolean continuar = atual.ativa && registrarLote(atual, lote);
+            if (!atual.ativa) {
+                log.warn("Retranscrição {} abandonada no ID {} sem gravar o lote", execucaoId, lote.ultimoId);
+                return;
+            }
+            if (!continuar || encerrando) {
+                // Os lotes ainda em voo terminam no cache e são gravados quando a execução voltar
+                liberar(execucaoId);
+                log.info("Retranscrição {} interrompida no ID {}", execucaoId, lote.ultimoId);
+                return;
+            }
+        }
+    }
+
+    private LoteEmVoo submeter(Sessao atual, List<Long> ids, long ultimoId) {
+        Map<Long, CompletableFuture<String>> transcricoes = new LinkedHashMap<>();
+        for (Long id : ids) {
+            transcricoes.put(id, transcrever(atual, id));
+        }
+        return new LoteEmVoo(ultimoId, transcricoes);
+    }
+
+    /**
+     * Recusas da cota ou do disjuntor, em que o Google AI nem foi chamado, são repetidas após
+     * o Retry-After sem contar como falha, enquanto a instância detém a execução
+     */
+    private CompletableFuture<String> transcrever(Sessao atual, Long arquivoId) {
+        CompletableFuture<String> transcricao;
+        try {
+            transcricao = arquivoAudioService.transcreverConteudo(arquivoId, PrioridadeChamada.BACKGROUND);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return transcricao.exceptionallyCompose(erro -> {
+            Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+            if (causa instanceof ServicoIndisponivelException indisponivel && indisponivel.getCause() == null
+                    && !encerrando && atual.ativa) {
+                return CompletableFuture.runAsync(() -> { },
+                                CompletableFuture.delayedExecutor(indisponivel.getRetryAfterSegundos(), TimeUnit.SECONDS))
+                        .thenCompose(pronto -> transcrever(atual, arquivoId));
+            }
+            return CompletableFuture.failedFuture(causa);
+        });
+    }
+
+    /**
+     * Avança o checkpoint e grava as transcrições do lote na mesma transação; se a reserva
+     * passou para outra instância ou o checkpoint já está à frente, nada é gravado e a
+     * execução local é interrompida. Devolve se a execução continua em andamento
+     */
+    private boolean registrarLote(Sessao atual, LoteEmVoo lote) {
+        Map<Long, String> transcritos = new LinkedHashMap<>();
+        String ultimoErro = null;
+        for (Map.Entry<Long, CompletableFuture<String>> item : lote.transcricoes.entrySet()) {
+            try {
+                transcritos.put(item.getKey(), item.getValue().join());
+            } catch (CompletionException e) {
+                Throwable causa = e.getCause() != null ? e.getCause() : e;
+                ultimoErro = resumirErro(item.getKey(), causa);
+                log.warn("Falha ao retranscrever arquivo {}: {}", item.getKey(), causa.getMessage());
+            }
+        }
+
+        int falhas = lote.transcricoes.size() - transcritos.size();
+        String erro = ultimoErro;
+        Boolean continuar = transactionTemplate.execute(status -> {
+            int avancados = execucaoRepository.avancarCheckpoint(atual.execucaoId, instancia, lote.ultimoId,
+                    lote.transcricoes.size(), falhas, erro, fimReserva());
+            if (avancados == 0) {
+                atual.ativa = false;
+                return false;
+            }
+            transcritos.forEach(arquivoAudioRepository::atualizarTranscricao);
+
+            ExecucaoRetranscricao execucao = execucaoRepository.findById(atual.execucaoId).orElseThrow();
+            atual.processados.set(execucao.getProcessados());
+            return execucao.getStatus() == StatusExecucaoRetranscricao.EM_ANDAMENTO;
+        });
+
+        if (atual.ativa) {
+            contar("transcrito", transcritos.size());
+            contar("falhou", falhas);
+        }
+        return Boolean.TRUE.equals(continuar);
+    }
+
+    private void concluir(Long execucaoId) {
+        ExecucaoRetranscricao execucao = transactionTemplate.execute(status -> {
+            ExecucaoRetranscricao atual = execucaoRepository.findById(execucaoId).orElseThrow();
+            if (!instancia.equals(atual.getReservadoPor())) {
+                return null;
+            }
+            if (atual.getStatus() == StatusExecucaoRetranscricao.EM_ANDAMENTO) {
+                atual.setStatus(StatusExecucaoRetranscricao.CONCLUIDA);
+                atual.setConcluidoEm(LocalDateTime.now());
+            }
+            atual.setReservadoPor(null);
+            atual.setReservadoAte(null);
+            return execucaoRepository.save(atual);
+        });
+        if (execucao == null) {
+            log.warn("Retranscrição {} assumida por outra instância antes de concluir", execucaoId);
+            return;
+        }
+        log.info("Retranscrição {} concluída: {} arquivo(s) processado(s), {} falha(s)",
+                execucaoId, execucao.getProcessados(), execucao.getFalhas());
+    }
+
+    /**
+     * Libera a reserva para que a execução seja retomada logo, aqui ou em outra instância
+     */
+    private void liberar(Long execucaoId) {
+        transactionTemplate.executeWithoutResult(status -> execucaoRepository.findById(execucaoId)
+                .filter(execucao -> instancia.equals(execucao.getReservadoPor()))
+                .ifPresent(execucao -> {
+                    execucao.setReservadoPor(null);
+                    execucao.setReservadoAte(null);
+                    execucaoRepository.save(execucao);
+                }));
+    }
+
+    private ProgressoRetranscricaoDto alterarStatus(StatusExecucaoRetranscricao de, StatusExecucaoRetranscricao para) {
+        ExecucaoRetranscricao execucao = transactionTemplate.execute(status -> {
+            ExecucaoRetranscricao aberta = execucaoRepository.findByStatusIn(List.of(de)).stream().findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Nenhuma retranscrição com status " + de.getDescricao()));
+            aberta.setStatus(para);
+            if (para == StatusExecucaoRetranscricao.EM_ANDAMENTO) {
+                aberta.setReservadoPor(null);
+                aberta.setReservadoAte(null);
+            }
+            return execucaoRepository.save(aberta);
+        });
+        log.info("Retranscrição {}: {} -> {}", execucao.getId(), de, para);
+        return paraDto(execucao);
+    }
+
+    private LocalDateTime fimReserva() {
+        return LocalDateTime.now().plusNanos(duracaoReservaMs * 1_000_000);
+    }
+
+    private ProgressoRetranscricaoDto paraDto(ExecucaoRetranscricao execucao) {
+        long total = execucao.getTotalEstimado();
+        ProgressoRetranscricaoDto.ProgressoRetranscricaoDtoBuilder dto = ProgressoRetranscricaoDto.builder()
+                .id(execucao.getId())
+                .modo(execucao.getModo())
+                .status(execucao.getStatus())
+                .versao(execucao.getVersao())
+                .ultimoId(execucao.getUltimoId())
+                .idFinal(execucao.getIdFinal())
+                .totalEstimado(total)
+                .processados(execucao.getProcessados())
+                .falhas(execucao.getFalhas())
+                .percentual(total > 0 ? Math.min(100.0, execucao.getProcessados() * 100.0 / total) : 100.0)
+                .ultimoErro(execucao.getUltimoErro())
+                .criadoEm(execucao.getCriadoEm())
+                .atualizadoEm(execucao.getAtualizadoEm())
+                .concluidoEm(execucao.getConcluidoEm());
+
+        Sessao atual = sessao;
+        if (atual != null && atual.execucaoId.equals(execucao.getId())
+                && execucao.getStatus() == StatusExecucaoRetranscricao.EM_ANDAMENTO) {
+            double vazao = atual.itensPorSegundo();
+            dto.itensPorSegundo(vazao);
+            if (vazao > 0) {
+                long segundos = (long) Math.ceil(atual.restantes() / vazao);
+                dto.segundosRestantes(segundos).previsaoConclusao(LocalDateTime.now().plusSeconds(segundos));
+            }
+        }
+        return dto.build();
+    }
+
+    private String resumirErro(Long arquivoId, Throwable erro) {
+        String mensagem = "Arquivo " + arquivoId + ": " + erro.getClass().getSimpleName() + ": " + erro.getMessage();
+        return mensagem.length() > TAMANHO_MAXIMO_ERRO ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem;
+    }
+
+    private void contar(String resultado, int quantidade) {
+        Counter.builder("vozsocial.retranscricao.itens")
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .increment(quantidade);
+    }
+
+    /**
+     * Transcrições de um lote submetidas ao mesmo tempo; o checkpoint avança até o último ID
+     */
+    private record LoteEmVoo(long ultimoId, Map<Long, CompletableFuture<String>> transcricoes) {
+    }
+
+    /**
+     * Execução processada por esta instância, base da vazão e da previsão de término
+     */
+    private static final class Sessao {
+
+        private final Long execucaoId;
+        private final long processadosNoInicio;
+        private final long totalEstimado;
+        private final long inicioNanos = System.nanoTime();
+        private final AtomicLong processados;
+        private volatile boolean ativa = true;
+
+        private Sessao(Long execucaoId, long processadosNoInicio, long totalEstimado) {
+            this.execucaoId = execucaoId;
+            this.processadosNoInicio = processadosNoInicio;
+            this.totalEstimado = totalEstimado;
+            this.processados = new AtomicLong(processadosNoInicio);
+        }
+
+        private double itensPorSegundo() {
+            double segundos = (System.nanoTime() - inicioNanos) / 1e9;
+            return segundos > 0 ? (processados.get() - processadosNoInicio) / segundos : 0.0;
+        }
+
+        private double restantes() {
+            return Math.max(0, totalEstimado - processados.get());
+        }
+    }
+}
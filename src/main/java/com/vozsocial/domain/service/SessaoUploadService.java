@@ -0,0 +1,290 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.application.dto.ArquivoAudioDto;
+import com.vozsocial.application.dto.SessaoUploadDto;
+import com.vozsocial.application.mapper.SessaoUploadMapper;
+import com.vozsocial.domain.entity.SessaoUpload;
+import com.vozsocial.domain.entity.Usuario;
+import com.vozsocial.domain.enums.FormatoAudio;
+import com.vozsocial.infrastructure.repository.SessaoUploadRepository;
+import com.vozsocial.infrastructure.repository.UsuarioRepository;
+import com.vozsocial.infrastructure.storage.ArquivoGravado;
+import com.vozsocial.infrastructure.storage.GravadorStreamAudio;
+import com.vozsocial.infrastructure.storage.LayoutArmazenamentoAudio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service responsável pelos uploads retomáveis: as partes são acrescentadas direto no arquivo
+ * da sessão e o deslocamento confirmado permite ao cliente retomar após uma queda de conexão
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessaoUploadService {
+
+    private static final String EXTENSAO_SESSAO = ".upload";
+
+    private final SessaoUploadRepository sessaoUploadRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final SessaoUploadMapper sessaoUploadMapper;
+    private final ArquivoAudioService arquivoAudioService;
+    private final GravadorStreamAudio gravadorStreamAudio;
+    private final LayoutArmazenamentoAudio layoutArmazenamento;
+
+    @Value("${storage.audio.sessoes.validade-horas:24}")
+    private long validadeHoras;
+
+    @Value("${storage.audio.sessoes.tamanho-lote-expiracao:100}")
+    private int tamanhoLoteExpiracao;
+
+    // Garante um único envio por sessão nesta instância; o deslocamento é revalidado no banco
+    private final Map<String, ReentrantLock> travas = new ConcurrentHashMap<>();
+
+    /**
+     * Abre uma sessão de upload e cria o arquivo vazio que receberá as partes
+     */
+    @Transactional
+    public SessaoUploadDto criar(Long usuarioId, String nomeArquivo, Long tamanhoTotal) {
+        if (usuarioId == null) {
+            throw new IllegalArgumentException("ID do usuário é obrigatório");
+        }
+        if (tamanhoTotal != null && (tamanhoTotal <= 0 || tamanhoTotal > ArquivoAudioService.TAMANHO_MAXIMO_BYTES)) {
+            throw new IllegalArgumentException("Arquivo muito grande. Máximo 50MB");
+        }
+
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
+
+        String id = UUID.randomUUID().toString();
+        Path arquivo = layoutArmazenamento.diretorioSessoes().resolve(id + EXTENSAO_SESSAO);
+        try {
+            Files.createDirectories(arquivo.getParent());
+            Files.createFile(arquivo);
+        } catch (IOException e) {
+            log.error("Erro ao criar arquivo da sessão de upload: {}", e.getMessage());
+            throw new RuntimeException("Erro ao criar sessão de upload");
+        }
+
+        SessaoUpload sessao = SessaoUpload.builder()
+                .id(id)
+                .usuario(usuario)
+                .nomeArquivo(nomeArquivo)
+                .caminhoTemporario(arquivo.toString())
+                .tamanhoTotal(tamanhoTotal)
+                .deslocamento(0L)
+                .expiraEm(LocalDateTime.now().plusHours(validadeHoras))
+                .build();
+
+        SessaoUpload sessaoSalva = sessaoUploadRepository.save(sessao);
+
+        log.info("Sessão de upload criada. ID: {}, usuário: {}", id, usuarioId);
+        return sessaoUploadMapper.paraDto(sessaoSalva);
+    }
+
+    /**
+     * Busca uma sessão ainda válida
+     */
+    @Transactional(readOnly = true)
+    public Optional<SessaoUploadDto> buscar(String id) {
+        return buscarValida(id).map(sessaoUploadMapper::paraDto);
+    }
+
+    /**
+     * Acrescenta uma parte à sessão; o deslocamento informado deve ser o último confirmado.
+     * Nenhuma conexão com o banco fica presa enquanto a parte é recebida
+     */
+    public SessaoUploadDto anexar(String id, long deslocamento, InputStream dados) {
+        ReentrantLock trava = travar(id);
+
+        try {
+            SessaoUpload sessao = buscarTravada(id, trava);
+            if (sessao.getDeslocamento() != deslocamento) {
+                throw new IllegalStateException("Deslocamento divergente. Esperado: " + sessao.getDeslocamento());
+            }
+
+            long tamanhoMaximo = sessao.getTamanhoTotal() != null
+                    ? sessao.getTamanhoTotal() : ArquivoAudioService.TAMANHO_MAXIMO_BYTES;
+            long gravados = gravadorStreamAudio.anexar(dados, Paths.get(sessao.getCaminhoTemporario()),
+                    deslocamento, tamanhoMaximo - deslocamento);
+
+            long novoDeslocamento = deslocamento + gravados;
+            LocalDateTime expiraEm = LocalDateTime.now().plusHours(validadeHoras);
+            if (sessaoUploadRepository.avancarDeslocamento(id, deslocamento, novoDeslocamento, expiraEm) == 0) {
+                throw new IllegalStateException("Sessão de upload alterada por outra requisição");
+            }
+
+            log.debug("Sessão {}: {} byte(s) recebidos, deslocamento {}", id, gravados, novoDeslocamento);
+
+            sessao.setDeslocamento(novoDeslocamento);
+            sessao.setExpiraEm(expiraEm);
+            return sessaoUploadMapper.paraDto(sessao);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Conclui a sessão, publicando o arquivo recebido como um arquivo de áudio
+     */
+    @Transactional
+    public ArquivoAudioDto finalizar(String id) {
+        ReentrantLock trava = travar(id);
+
+        try {
+            SessaoUpload sessao = buscarTravada(id, trava);
+            if (sessao.getTamanhoTotal() != null && !sessao.getTamanhoTotal().equals(sessao.getDeslocamento())) {
+                throw new IllegalStateException("Upload incompleto. Recebidos " + sessao.getDeslocamento()
+                        + " de " + sessao.getTamanhoTotal() + " bytes");
+            }
+
+            // Valida antes de consumir a sessão, para que o cliente ainda possa cancelá-la ou corrigi-la
+            Path arquivoSessao = Paths.get(sessao.getCaminhoTemporario());
+            ArquivoGravado analisado = gravadorStreamAudio.analisar(arquivoSessao, sessao.getDeslocamento());
+            if (analisado.getTamanho() == 0 || analisado.getFormato() == FormatoAudio.DESCONHECIDO) {
+                throw new IllegalArgumentException("Formato de arquivo não suportado");
+            }
+
+            // A publicação consome o arquivo que recebe; o da sessão fica intacto até o commit
+            ArquivoGravado arquivoGravado = gravadorStreamAudio.vincularTemporario(
+                    analisado, layoutArmazenamento.diretorioTemporario());
+
+            log.info("Finalizando sessão de upload {} ({} bytes)", id, arquivoGravado.getTamanho());
+            ArquivoAudioDto arquivoAudio;
+            try {
+                arquivoAudio = arquivoAudioService.processarArquivoGravado(
+                        arquivoGravado, sessao.getUsuario().getId(), sessao.getNomeArquivo());
+            } catch (RuntimeException e) {
+                gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+                throw e;
+            }
+
+            // Se a transação for desfeita, a sessão e seu arquivo continuam válidos para retomar ou cancelar
+            sessaoUploadRepository.delete(sessao);
+            removerAposCommit(id, arquivoSessao);
+            return arquivoAudio;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Cancela a sessão e descarta os bytes recebidos
+     */
+    @Transactional
+    public void cancelar(String id) {
+        SessaoUpload sessao = sessaoUploadRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Sessão de upload não encontrada"));
+
+        sessaoUploadRepository.delete(sessao);
+        travas.remove(id);
+        gravadorStreamAudio.descartar(Paths.get(sessao.getCaminhoTemporario()));
+
+        log.info("Sessão de upload cancelada. ID: {}", id);
+    }
+
+    /**
+     * Remove sessões abandonadas e seus arquivos
+     */
+    @Scheduled(fixedDelayString = "${storage.audio.sessoes.intervalo-expiracao-ms:900000}")
+    public void expirar() {
+        List<SessaoUpload> expiradas;
+        int removidas = 0;
+        int removidasNoLote;
+
+        do {
+            expiradas = sessaoUploadRepository.buscarExpiradas(
+                    LocalDateTime.now(), PageRequest.of(0, tamanhoLoteExpiracao));
+            removidasNoLote = 0;
+
+            for (SessaoUpload sessao : expiradas) {
+                ReentrantLock trava = travas.get(sessao.getId());
+                if (trava != null && trava.isLocked()) {
+                    continue;
+                }
+                sessaoUploadRepository.delete(sessao);
+                travas.remove(sessao.getId());
+                gravadorStreamAudio.descartar(Paths.get(sessao.getCaminhoTemporario()));
+                removidasNoLote++;
+            }
+            removidas += removidasNoLote;
+        } while (expiradas.size() == tamanhoLoteExpiracao && removidasNoLote > 0);
+
+        if (removidas > 0) {
+            log.info("{} sessão(ões) de upload expirada(s) removida(s)", removidas);
+        }
+    }
+
+    /**
+     * Obtém a trava de envio de uma sessão existente; ids desconhecidos não criam trava
+     */
+    private ReentrantLock travar(String id) {
+        if (buscarValida(id).isEmpty()) {
+            throw new IllegalArgumentException("Sessão de upload não encontrada");
+        }
+
+        ReentrantLock trava = travas.computeIfAbsent(id, chave -> new ReentrantLock());
+        if (!trava.tryLock()) {
+            throw new IllegalStateException("Já existe uma parte sendo enviada para esta sessão");
+        }
+        return trava;
+    }
+
+    /**
+     * Relê a sessão sob a trava, removendo a trava se ela expirou ou foi removida nesse intervalo
+     */
+    private SessaoUpload buscarTravada(String id, ReentrantLock trava) {
+        Optional<SessaoUpload> sessao = buscarValida(id);
+        if (sessao.isEmpty()) {
+            travas.remove(id, trava);
+            throw new IllegalArgumentException("Sessão de upload não encontrada");
+        }
+        return sessao.get();
+    }
+
+    /**
+     * Descarta o arquivo da sessão só depois que a publicação e a remoção da sessão forem confirmadas
+     */
+    private void removerAposCommit(String id, Path arquivoSessao) {
+        Runnable remover = () -> {
+            travas.remove(id);
+            gravadorStreamAudio.descartar(arquivoSessao);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remover.run();
+                }
+            });
+        } else {
+            remover.run();
+        }
+    }
+
+    private Optional<SessaoUpload> buscarValida(String id) {
+        return sessaoUploadRepository.findById(id)
+                .filter(sessao -> sessao.getExpiraEm().isAfter(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,234 @@
+package com.vozsocial.domain.service;
+
+import com.vozsocial.infrastructure.ai.PrioridadeChamada;
+import com.vozsocial.infrastructure.audio.AtividadeVoz;
+import com.vozsocial.infrastructure.audio.CabecalhoWav;
+import com.vozsocial.infrastructure.audio.DetectorAtividadeVoz;
+import com.vozsocial.infrastructure.audio.RegiaoFala;
+import com.vozsocial.infrastructure.storage.FonteAudio;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service responsável pela transcrição de áudios longos em partes: o áudio é dividido em
+ * janelas cortadas nas pausas entre as regiões de fala, cada janela é transcrita em
+ * paralelo dentro da cota do Google AI e os textos são costurados na ordem original,
+ * removendo as palavras repetidas na sobreposição entre janelas vizinhas
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TranscricaoSegmentadaService {
+
+    private static final int PALAVRAS_MAXIMAS_SOBREPOSICAO = 30;
+    private static final int PALAVRAS_MINIMAS_SOBREPOSICAO = 2;
+
+    private final LoteTranscricaoService loteTranscricaoService;
+    private final DetectorAtividadeVoz detectorAtividadeVoz;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transcricao.segmentacao.habilitada:true}")
+    private boolean habilitada;
+
+    // Zero deriva a janela da duração máxima do upload, para que os clipes armazenados também sejam divididos
+    @Value("${transcricao.segmentacao.janela-segundos:0}")
+    private long janelaSegundos;
+
+    @Value("${storage.audio.max-duration-seconds:15}")
+    private int duracaoMaximaSegundos;
+
+    @Value("${transcricao.segmentacao.tolerancia-segundos:15}")
+    private long toleranciaSegundos;
+
+    @Value("${transcricao.segmentacao.sobreposicao-ms:1500}")
+    private long sobreposicaoMs;
+
+    /**
+     * Transcreve o áudio em janelas paralelas; vazio quando o conteúdo não é WAV ou é curto
+     * o bastante para uma única requisição. Sem regiões de fala registradas, o áudio é
+     * analisado aqui mesmo para encontrar as pausas
+     */
+    public Optional<CompletableFuture<String>> transcrever(String tipoMime, long tamanho, FonteAudio fonte,
+                                                           String regioesFala, PrioridadeChamada prioridade) {
+        if (!habilitada) {
+            return Optional.empty();
+        }
+
+        Optional<AtividadeVoz> atividade = analisar(fonte, tamanho, regioesFala);
+        if (atividade.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CabecalhoWav cabecalho = atividade.get().getCabecalho();
+        List<RegiaoFala> regioes = atividade.get().getRegioes();
+        List<RegiaoFala> janelas = dividir(atividade.get().duracaoMs(), regioes);
+
+        List<CompletableFuture<String>> partes = new ArrayList<>(janelas.size());
+        for (RegiaoFala janela : janelas) {
+            List<RegiaoFala> trechos = recortar(regioes, janela);
+            if (trechos.isEmpty()) {
+                // Janela só com silêncio
+                partes.add(CompletableFuture.completedFuture(""));
+                continue;
+            }
+            partes.add(loteTranscricaoService.transcrever(tipoMime,
+                    detectorAtividadeVoz.tamanhoCompactado(cabecalho, trechos),
+                    () -> detectorAtividadeVoz.compactar(fonte.abrir(), cabecalho, trechos), prioridade));
+        }
+
+        DistributionSummary.builder("vozsocial.transcricao.segmentos")
+                .description("Janelas transcritas em paralelo por áudio longo")
+                .register(meterRegistry)
+                .record(janelas.size());
+        log.debug("Áudio de {} ms dividido em {} janela(s) para transcrição", atividade.get().duracaoMs(),
+                janelas.size());
+
+        return Optional.of(CompletableFuture.allOf(partes.toArray(CompletableFuture[]::new))
+                .thenApply(concluido -> costurar(partes.stream().map(CompletableFuture::join).toList())));
+    }
+
+    /**
+     * Lê o cabeçalho e descarta de imediato áudios curtos; as regiões registradas no upload
+     * evitam uma segunda passagem pelas amostras
+     */
+    private Optional<AtividadeVoz> analisar(FonteAudio fonte, long tamanho, String regioesFala) {
+        try {
+            Optional<CabecalhoWav> cabecalho;
+            try (InputStream entrada = fonte.abrir()) {
+                cabecalho = detectorAtividadeVoz.lerCabecalho(entrada, tamanho);
+            }
+            if (cabecalho.isEmpty() || duracaoMs(cabecalho.get()) <= limiteJanelaUnicaMs()) {
+                return Optional.empty();
+            }
+
+            List<RegiaoFala> regioes = RegiaoFala.ler(regioesFala);
+            if (!regioes.isEmpty()) {
+                return Optional.of(new AtividadeVoz(cabecalho.get(), regioes));
+            }
+            try (InputStream entrada = fonte.abrir()) {
+                return detectorAtividadeVoz.analisar(entrada, tamanho);
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível analisar o áudio para dividir a transcrição: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Corta o áudio perto de cada múltiplo do tamanho da janela, preferindo a pausa mais longa
+     * dentro da tolerância; sem pausa, o corte é seco e a janela seguinte começa um pouco
+     * antes, para que a palavra cortada apareça inteira em uma das duas
+     */
+    List<RegiaoFala> dividir(long duracaoMs, List<RegiaoFala> regioes) {
+        long janelaMs = janelaMs();
+        // Janelas curtas limitam a tolerância, para que nenhuma fique com menos da metade do alvo
+        long toleranciaMs = Math.min(toleranciaSegundos * 1000, janelaMs / 2);
+        List<RegiaoFala> janelas = new ArrayList<>();
+        long inicio = 0;
+        while (duracaoMs - inicio > limiteJanelaUnicaMs()) {
+            long alvo = inicio + janelaMs;
+            long corte = melhorPausa(regioes, alvo - toleranciaMs, alvo).orElse(alvo);
+            janelas.add(new RegiaoFala(janelas.isEmpty() ? 0 : Math.max(0, inicio - sobreposicaoMs), corte));
+            inicio = corte;
+        }
+        janelas.add(new RegiaoFala(janelas.isEmpty() ? 0 : Math.max(0, inicio - sobreposicaoMs), duracaoMs));
+        return janelas;
+    }
+
+    private Optional<Long> melhorPausa(List<RegiaoFala> regioes, long minimo, long maximo) {
+        Long melhor = null;
+        long maiorPausa = 0;
+        for (int i = 1; i < regioes.size(); i++) {
+            long inicioPausa = regioes.get(i - 1).getFimMs();
+            long fimPausa = regioes.get(i).getInicioMs();
+            long meio = (inicioPausa + fimPausa) / 2;
+            // Entre pausas do mesmo tamanho vence a mais próxima do alvo, que é o máximo
+            if (meio >= minimo && meio <= maximo && fimPausa - inicioPausa >= maiorPausa) {
+                maiorPausa = fimPausa - inicioPausa;
+                melhor = meio;
+            }
+        }
+        return Optional.ofNullable(melhor);
+    }
+
+    /**
+     * Regiões de fala dentro da janela; sem regiões conhecidas, a janela inteira
+     */
+    private List<RegiaoFala> recortar(List<RegiaoFala> regioes, RegiaoFala janela) {
+        if (regioes.isEmpty()) {
+            return List.of(janela);
+        }
+        List<RegiaoFala> trechos = new ArrayList<>();
+        for (RegiaoFala regiao : regioes) {
+            long inicio = Math.max(regiao.getInicioMs(), janela.getInicioMs());
+            long fim = Math.min(regiao.getFimMs(), janela.getFimMs());
+            if (fim > inicio) {
+                trechos.add(new RegiaoFala(inicio, fim));
+            }
+        }
+        return trechos;
+    }
+
+    /**
+     * Junta os textos na ordem das janelas; quando o fim de um texto se repete no início do
+     * seguinte, as palavras repetidas são descartadas
+     */
+    static String costurar(List<String> textos) {
+        List<String> palavras = new ArrayList<>();
+        for (String texto : textos) {
+            if (texto == null || texto.isBlank()) {
+                continue;
+            }
+            String[] novas = texto.trim().split("\\s+");
+            int repetidas = sobreposicao(palavras, novas);
+            for (int i = repetidas; i < novas.length; i++) {
+                palavras.add(novas[i]);
+            }
+        }
+        return String.join(" ", palavras);
+    }
+
+    private static int sobreposicao(List<String> anteriores, String[] novas) {
+        int maximo = Math.min(PALAVRAS_MAXIMAS_SOBREPOSICAO, Math.min(anteriores.size(), novas.length));
+        for (int quantidade = maximo; quantidade >= PALAVRAS_MINIMAS_SOBREPOSICAO; quantidade--) {
+            int deslocamento = anteriores.size() - quantidade;
+            boolean iguais = true;
+            for (int i = 0; i < quantidade && iguais; i++) {
+                iguais = normalizar(anteriores.get(deslocamento + i)).equals(normalizar(novas[i]));
+            }
+            if (iguais) {
+                return quantidade;
+            }
+        }
+        return 0;
+    }
+
+    private static String normalizar(String palavra) {
+        return palavra.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+
+    private long janelaMs() {
+        return janelaSegundos > 0 ? janelaSegundos * 1000 : duracaoMaximaSegundos * 1000L / 2;
+    }
+
+    private long limiteJanelaUnicaMs() {
+        // Uma sobra de meia janela evita uma última parte curta demais
+        return janelaMs() * 3 / 2;
+    }
+
+    private static long duracaoMs(CabecalhoWav cabecalho) {
+        return cabecalho.quadros() * 1000 / cabecalho.getTaxaAmostragem();
+    }
+}
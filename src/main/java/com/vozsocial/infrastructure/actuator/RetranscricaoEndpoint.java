@@ -0,0 +1,49 @@
+package com.vozsocial.infrastructure.actuator;
+
+import com.vozsocial.application.dto.ProgressoRetranscricaoDto;
+import com.vozsocial.domain.enums.ModoRetranscricao;
+import com.vozsocial.domain.service.RetranscricaoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Endpoint do actuator para acompanhar e controlar a retranscrição em lote
+ * ({@code /actuator/retranscricao})
+ */
+@Component
+@Endpoint(id = "retranscricao")
+@RequiredArgsConstructor
+public class RetranscricaoEndpoint {
+
+    private final RetranscricaoService retranscricaoService;
+
+    /**
+     * Progresso da execução mais recente, com vazão e previsão de término; 404 quando nunca houve execução
+     */
+    @ReadOperation
+    public ProgressoRetranscricaoDto progresso() {
+        return retranscricaoService.progresso().orElse(null);
+    }
+
+    /**
+     * Aplica uma ação: iniciar (com modo RETRANSCRICAO ou BACKFILL), pausar, retomar ou cancelar
+     */
+    @WriteOperation
+    public ProgressoRetranscricaoDto alterar(String acao, @Nullable ModoRetranscricao modo) {
+        return switch (acao.toLowerCase(Locale.ROOT)) {
+            case "iniciar" -> retranscricaoService.iniciar(modo != null ? modo : ModoRetranscricao.RETRANSCRICAO);
+            case "pausar" -> retranscricaoService.pausar();
+            case "retomar" -> retranscricaoService.retomar();
+            case "cancelar" -> retranscricaoService.cancelar();
+            default -> throw new InvalidEndpointRequestException("Ação desconhecida: " + acao,
+                    "Use iniciar, pausar, retomar ou cancelar");
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.vozsocial.infrastructure.ai;
+
+/**
+ * Balde de tokens com reposição contínua. Pedidos maiores que a capacidade são aceitos
+ * com o balde cheio e deixam saldo negativo, pago pela reposição seguinte. Não é
+ * thread-safe: o dono sincroniza o acesso
+ */
+public class BaldeTokens {
+
+    private final double capacidade;
+    private final double reposicaoPorNano;
+
+    private double disponivel;
+    private long atualizadoEm;
+
+    public BaldeTokens(double capacidade, double reposicaoPorSegundo, long agora) {
+        this.capacidade = capacidade;
+        this.reposicaoPorNano = reposicaoPorSegundo / 1_000_000_000d;
+        this.disponivel = capacidade;
+        this.atualizadoEm = agora;
+    }
+
+    /**
+     * Indica se o pedido cabe mantendo ao menos {@code reserva} tokens no balde
+     */
+    public boolean comporta(double quantidade, double reserva, long agora) {
+        repor(agora);
+        return disponivel >= necessario(quantidade, reserva);
+    }
+
+    public void consumir(double quantidade, long agora) {
+        repor(agora);
+        disponivel -= quantidade;
+    }
+
+    /**
+     * Devolve tokens consumidos a mais ou cobra os consumidos a menos que o estimado
+     */
+    public void ajustar(double diferenca, long agora) {
+        repor(agora);
+        disponivel = Math.min(capacidade, disponivel + diferenca);
+    }
+
+    /**
+     * Nanossegundos até o pedido caber no balde mantendo a reserva
+     */
+    public long nanosAte(double quantidade, double reserva, long agora) {
+        repor(agora);
+        double falta = necessario(quantidade, reserva) - disponivel;
+        return falta <= 0 ? 0 : (long) Math.ceil(falta / reposicaoPorNano);
+    }
+
+    /**
+     * Esvazia o balde, como após o serviço sinalizar que a cota real se esgotou
+     */
+    public void esvaziar(long agora) {
+        repor(agora);
+        disponivel = Math.min(disponivel, 0);
+    }
+
+    public double disponivel(long agora) {
+        repor(agora);
+        return disponivel;
+    }
+
+    private double necessario(double quantidade, double reserva) {
+        return Math.min(quantidade + reserva, capacidade);
+    }
+
+    private void repor(long agora) {
+        if (agora > atualizadoEm) {
+            disponivel = Math.min(capacidade, disponivel + (agora - atualizadoEm) * reposicaoPorNano);
+            atualizadoEm = agora;
+        }
+    }
+}
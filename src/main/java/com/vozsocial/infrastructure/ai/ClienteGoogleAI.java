@@ -0,0 +1,315 @@
+package com.vozsocial.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vozsocial.infrastructure.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cliente não bloqueante do Google AI. Cada chamada aguarda sua vez na cota por prioridade,
+ * tem prazo próprio, passa por um limite de chamadas simultâneas (bulkhead) e por um
+ * disjuntor que falha de imediato enquanto o serviço está degradado, em vez de acumular
+ * requisições presas
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteGoogleAI {
+
+    private static final int TAMANHO_BLOCO_CORPO = 16 * 1024;
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENTO_SSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient googleAIWebClient;
+    private final CotaGoogleAI cotaGoogleAI;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${google.ai.api.key}")
+    private String apiKey;
+
+    @Value("${google.ai.cliente.prazo-chamada-ms:30000}")
+    private long prazoChamadaMs;
+
+    @Value("${google.ai.cliente.chamadas-simultaneas:16}")
+    private int chamadasSimultaneas;
+
+    @Value("${google.ai.cliente.disjuntor.janela:20}")
+    private int janelaDisjuntor;
+
+    @Value("${google.ai.cliente.disjuntor.chamadas-minimas:10}")
+    private int chamadasMinimasDisjuntor;
+
+    @Value("${google.ai.cliente.disjuntor.taxa-falha:0.5}")
+    private double taxaFalhaDisjuntor;
+
+    @Value("${google.ai.cliente.disjuntor.tempo-aberto-ms:30000}")
+    private long tempoAbertoMs;
+
+    @Value("${google.ai.cliente.disjuntor.chamadas-teste:3}")
+    private int chamadasTesteDisjuntor;
+
+    private Semaphore vagas;
+    private DisjuntorCircuito disjuntor;
+
+    /**
+     * Cria o bulkhead e o disjuntor e exporta seus estados como métricas
+     */
+    @PostConstruct
+    public void iniciar() {
+        vagas = new Semaphore(chamadasSimultaneas);
+        disjuntor = new DisjuntorCircuito(janelaDisjuntor, chamadasMinimasDisjuntor, taxaFalhaDisjuntor,
+                tempoAbertoMs, chamadasTesteDisjuntor);
+
+        Gauge.builder("vozsocial.ia.chamadas.ativas", () -> chamadasSimultaneas - vagas.availablePermits())
+                .description("Chamadas ao Google AI em andamento")
+                .register(meterRegistry);
+        Gauge.builder("vozsocial.ia.disjuntor.aberto",
+                        () -> disjuntor.getEstado() == DisjuntorCircuito.Estado.FECHADO ? 0 : 1)
+                .description("1 quando o disjuntor do Google AI está aberto ou em teste")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Chama o generateContent do modelo e devolve o corpo JSON da resposta. A chamada
+     * reserva antes a estimativa de tokens na cota da sua prioridade, acertada depois com
+     * o consumo informado na resposta. O corpo é escrito em blocos à medida que a conexão
+     * o consome, sem ser montado em memória
+     */
+    public Mono<String> gerarConteudo(String modelo, PrioridadeChamada prioridade, long tokensEstimados,
+                                      EscritorCorpo escritor) {
+        return cotaGoogleAI.reservar(prioridade, tokensEstimados)
+                .thenMany(Flux.defer(() -> chamar(modelo, tokensEstimados, escritor, false)))
+                .single();
+    }
+
+    /**
+     * Chama o streamGenerateContent do modelo em modo SSE e devolve cada resposta parcial
+     * assim que chega; cada evento é um JSON completo com o trecho gerado desde o anterior.
+     * O prazo da chamada vale para a primeira resposta e para o intervalo entre respostas
+     */
+    public Flux<String> gerarConteudoStream(String modelo, PrioridadeChamada prioridade, long tokensEstimados,
+                                            EscritorCorpo escritor) {
+        return cotaGoogleAI.reservar(prioridade, tokensEstimados)
+                .thenMany(Flux.defer(() -> chamar(modelo, tokensEstimados, escritor, true)));
+    }
+
+    private Flux<String> chamar(String modelo, long tokensEstimados, EscritorCorpo escritor, boolean stream) {
+        if (!vagas.tryAcquire()) {
+            cotaGoogleAI.registrarConsumo(tokensEstimados, 0);
+            registrarResultado(modelo, "bulkhead", 0);
+            return Flux.error(new ServicoIndisponivelException(
+                    "Limite de chamadas simultâneas ao Google AI atingido", 1));
+        }
+        if (!disjuntor.permitirChamada()) {
+            vagas.release();
+            cotaGoogleAI.registrarConsumo(tokensEstimados, 0);
+            registrarResultado(modelo, "disjuntor", 0);
+            return Flux.error(new ServicoIndisponivelException(
+                    "Google AI temporariamente indisponível", disjuntor.segundosAteNovaTentativa()));
+        }
+
+        long inicio = System.nanoTime();
+        AtomicReference<String> ultimaResposta = new AtomicReference<>();
+        WebClient.ResponseSpec resposta = googleAIWebClient.post()
+                .uri(stream ? "/models/{modelo}:streamGenerateContent?alt=sse" : "/models/{modelo}:generateContent",
+                        modelo)
+                .header("x-goog-api-key", apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(corpoEmBlocos(escritor), DataBuffer.class)
+                .retrieve();
+        Flux<String> corpo = stream
+                ? resposta.bodyToFlux(EVENTO_SSE).mapNotNull(ServerSentEvent::data)
+                : resposta.bodyToMono(String.class).flux();
+
+        return corpo
+                .timeout(Duration.ofMillis(prazoChamadaMs))
+                .doOnNext(ultimaResposta::set)
+                .doOnComplete(() -> {
+                    // No stream, o usageMetadata da última resposta traz o total da chamada
+                    cotaGoogleAI.registrarConsumo(tokensEstimados,
+                            tokensConsumidos(ultimaResposta.get(), tokensEstimados));
+                    disjuntor.registrarSucesso();
+                    registrarResultado(modelo, "sucesso", System.nanoTime() - inicio);
+                })
+                .doOnError(erro -> {
+                    if (erro instanceof WebClientResponseException respostaErro
+                            && respostaErro.getStatusCode().value() == 429) {
+                        cotaGoogleAI.suspender(segundosRetryAfter(respostaErro));
+                    } else if (falhaAoEscreverCorpo(erro) != null) {
+                        cotaGoogleAI.registrarConsumo(tokensEstimados, 0);
+                    }
+                    if (contaComoFalha(erro)) {
+                        disjuntor.registrarFalha();
+                    } else {
+                        disjuntor.registrarSucesso();
+                    }
+                    registrarResultado(modelo, classificar(erro), System.nanoTime() - inicio);
+                })
+                .doFinally(sinal -> {
+                    if (sinal == SignalType.CANCEL) {
+                        disjuntor.descartar();
+                    }
+                    vagas.release();
+                })
+                .onErrorMap(this::traduzirErro);
+    }
+
+    /**
+     * Executa o escritor fora das threads de I/O; o OutputStream bloqueia enquanto
+     * a conexão não pede mais blocos, limitando a memória ao tamanho do bloco
+     */
+    private Flux<DataBuffer> corpoEmBlocos(EscritorCorpo escritor) {
+        return Flux.from(DataBufferUtils.outputStreamPublisher(saida -> {
+            try {
+                escritor.escrever(saida);
+            } catch (IOException e) {
+                throw new FalhaCorpoRequisicao(e);
+            }
+        }, DefaultDataBufferFactory.sharedInstance, tarefa -> Schedulers.boundedElastic().schedule(tarefa),
+                TAMANHO_BLOCO_CORPO));
+    }
+
+    /**
+     * Erros do cliente, como requisição inválida ou falha ao ler o áudio, não indicam
+     * degradação do serviço
+     */
+    private boolean contaComoFalha(Throwable erro) {
+        if (falhaAoEscreverCorpo(erro) != null) {
+            return false;
+        }
+        if (erro instanceof WebClientResponseException resposta) {
+            return resposta.getStatusCode().is5xxServerError() || resposta.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+
+    /**
+     * Tokens cobrados pelo serviço segundo o usageMetadata da resposta; sem ele vale a estimativa
+     */
+    private long tokensConsumidos(String resposta, long tokensEstimados) {
+        if (resposta == null) {
+            return tokensEstimados;
+        }
+        try {
+            JsonNode total = objectMapper.readTree(resposta).path("usageMetadata").path("totalTokenCount");
+            return total.canConvertToLong() ? total.asLong() : tokensEstimados;
+        } catch (IOException | RuntimeException e) {
+            return tokensEstimados;
+        }
+    }
+
+    private Long segundosRetryAfter(WebClientResponseException resposta) {
+        String retryAfter = resposta.getHeaders().getFirst("Retry-After");
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(retryAfter.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String classificar(Throwable erro) {
+        if (falhaAoEscreverCorpo(erro) != null) {
+            return "corpo";
+        }
+        if (erro instanceof TimeoutException) {
+            return "prazo";
+        }
+        if (erro instanceof WebClientResponseException resposta) {
+            return "http_" + resposta.getStatusCode().value();
+        }
+        if (erro instanceof WebClientRequestException) {
+            return "conexao";
+        }
+        return "erro";
+    }
+
+    private Throwable traduzirErro(Throwable erro) {
+        FalhaCorpoRequisicao falhaCorpo = falhaAoEscreverCorpo(erro);
+        if (falhaCorpo != null) {
+            log.error("Erro ao montar a requisição ao Google AI: {}", falhaCorpo.getCause().getMessage());
+            return new RuntimeException("Erro ao ler áudio para transcrição", falhaCorpo.getCause());
+        }
+        if (erro instanceof TimeoutException) {
+            log.warn("Google AI não respondeu em {} ms", prazoChamadaMs);
+            return new ServicoIndisponivelException("Google AI não respondeu no prazo", 1, erro);
+        }
+        if (erro instanceof WebClientRequestException) {
+            log.warn("Falha de conexão com o Google AI: {}", erro.getMessage());
+            return new ServicoIndisponivelException("Falha de conexão com o Google AI", 1, erro);
+        }
+        if (erro instanceof WebClientResponseException resposta) {
+            log.error("Google AI respondeu {}: {}", resposta.getStatusCode().value(),
+                    resposta.getResponseBodyAsString());
+            if (contaComoFalha(erro)) {
+                return new ServicoIndisponivelException("Google AI respondeu " + resposta.getStatusCode().value(),
+                        1, erro);
+            }
+            return new RuntimeException("Requisição recusada pelo Google AI: " + resposta.getStatusCode().value());
+        }
+        return erro;
+    }
+
+    private void registrarResultado(String modelo, String resultado, long duracaoNanos) {
+        Timer.builder("vozsocial.ia.chamadas")
+                .description("Latência das chamadas ao Google AI")
+                .tag("modelo", modelo)
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(duracaoNanos));
+    }
+
+    private FalhaCorpoRequisicao falhaAoEscreverCorpo(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof FalhaCorpoRequisicao falha) {
+                return falha;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Escreve o corpo JSON da requisição
+     */
+    @FunctionalInterface
+    public interface EscritorCorpo {
+        void escrever(OutputStream saida) throws IOException;
+    }
+
+    private static final class FalhaCorpoRequisicao extends RuntimeException {
+        private FalhaCorpoRequisicao(IOException causa) {
+            super(causa);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.vozsocial.infrastructure.ai;
+
+import com.vozsocial.infrastructure.exception.ServicoIndisponivelException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalonador da cota do Google AI: toda chamada reserva uma requisição e uma estimativa
+ * de tokens em dois baldes (requisições por segundo e tokens por minuto) antes de sair.
+ * Pedidos sem cota aguardam em filas por prioridade; a fila interativa é sempre atendida
+ * antes da de background, que além disso não consome a fração de tokens reservada às
+ * chamadas interativas. Pedidos que esperam demais ou encontram a fila cheia são recusados
+ * com Retry-After, e uma resposta 429 suspende a cota por alguns segundos
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CotaGoogleAI {
+
+    private static final long NANOS_POR_MS = 1_000_000L;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${google.ai.cota.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${google.ai.cota.requisicoes-por-segundo:10}")
+    private double requisicoesPorSegundo;
+
+    @Value("${google.ai.cota.tokens-por-minuto:1000000}")
+    private long tokensPorMinuto;
+
+    @Value("${google.ai.cota.reserva-interativa:0.2}")
+    private double reservaInterativa;
+
+    @Value("${google.ai.cota.pausa-429-ms:5000}")
+    private long pausa429Ms;
+
+    @Value("${google.ai.cota.interativa.maximo-fila:64}")
+    private int maximoFilaInterativa;
+
+    @Value("${google.ai.cota.interativa.espera-maxima-ms:5000}")
+    private long esperaMaximaInterativaMs;
+
+    @Value("${google.ai.cota.background.maximo-fila:256}")
+    private int maximoFilaBackground;
+
+    @Value("${google.ai.cota.background.espera-maxima-ms:30000}")
+    private long esperaMaximaBackgroundMs;
+
+    private final Map<PrioridadeChamada, ArrayDeque<Pedido>> filas = new EnumMap<>(PrioridadeChamada.class);
+    private final Map<PrioridadeChamada, Timer> esperas = new EnumMap<>(PrioridadeChamada.class);
+
+    private BaldeTokens requisicoes;
+    private BaldeTokens tokens;
+    private long suspensoAte;
+    private ScheduledExecutorService temporizador;
+    private ScheduledFuture<?> proximaLiberacao;
+    private long proximaLiberacaoEm;
+
+    /**
+     * Cria os baldes, as filas por prioridade e as métricas de profundidade e espera
+     */
+    @PostConstruct
+    public void iniciar() {
+        long agora = System.nanoTime();
+        // Capacidade de um segundo de requisições e de um minuto de tokens, permitindo rajadas curtas
+        requisicoes = new BaldeTokens(Math.max(1, requisicoesPorSegundo), requisicoesPorSegundo, agora);
+        tokens = new BaldeTokens(tokensPorMinuto, tokensPorMinuto / 60d, agora);
+        suspensoAte = agora;
+
+        temporizador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "cota-google-ai");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (PrioridadeChamada prioridade : PrioridadeChamada.values()) {
+            filas.put(prioridade, new ArrayDeque<>());
+            String tag = prioridade.name().toLowerCase();
+            Gauge.builder("vozsocial.ia.cota.fila", () -> tamanhoFila(prioridade))
+                    .description("Chamadas ao Google AI aguardando cota")
+                    .tag("prioridade", tag)
+                    .register(meterRegistry);
+            esperas.put(prioridade, Timer.builder("vozsocial.ia.cota.espera")
+                    .description("Tempo de espera pela cota do Google AI")
+                    .tag("prioridade", tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        Gauge.builder("vozsocial.ia.cota.tokens.disponiveis", this::tokensDisponiveis)
+                .description("Tokens por minuto ainda disponíveis no balde")
+                .register(meterRegistry);
+
+        log.info("Cota do Google AI: {} requisição(ões)/s e {} tokens/min", requisicoesPorSegundo, tokensPorMinuto);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        temporizador.shutdownNow();
+    }
+
+    /**
+     * Completa quando houver cota para a chamada; recusa com {@link ServicoIndisponivelException}
+     * sem causa quando a fila da prioridade está cheia ou a espera máxima se esgota
+     */
+    public Mono<Void> reservar(PrioridadeChamada prioridade, long tokensEstimados) {
+        if (!habilitada) {
+            return Mono.empty();
+        }
+
+        return Mono.create(sink -> {
+            Pedido pedido = new Pedido(prioridade, Math.max(0, tokensEstimados), sink, System.nanoTime());
+            boolean admitido;
+            synchronized (this) {
+                ArrayDeque<Pedido> fila = filas.get(prioridade);
+                admitido = fila.size() < maximoFila(prioridade);
+                if (admitido) {
+                    fila.addLast(pedido);
+                }
+            }
+
+            if (!admitido) {
+                recusar(pedido, "fila_cheia");
+                return;
+            }
+            sink.onCancel(() -> cancelar(pedido));
+            liberar();
+        });
+    }
+
+    /**
+     * Acerta o balde de tokens com o consumo informado pelo serviço; uma chamada que não
+     * chegou a sair informa consumo zero e devolve a estimativa inteira
+     */
+    public void registrarConsumo(long tokensEstimados, long tokensConsumidos) {
+        if (!habilitada || tokensEstimados == tokensConsumidos) {
+            return;
+        }
+        synchronized (this) {
+            tokens.ajustar(tokensEstimados - tokensConsumidos, System.nanoTime());
+        }
+        liberar();
+    }
+
+    /**
+     * Suspende a liberação após o serviço responder 429, pelo tempo indicado ou pela pausa padrão
+     */
+    public void suspender(Long segundosIndicados) {
+        if (!habilitada) {
+            return;
+        }
+        long pausaNanos = segundosIndicados != null && segundosIndicados > 0
+                ? segundosIndicados * 1000 * NANOS_POR_MS : pausa429Ms * NANOS_POR_MS;
+        synchronized (this) {
+            long agora = System.nanoTime();
+            suspensoAte = Math.max(suspensoAte, agora + pausaNanos);
+            tokens.esvaziar(agora);
+        }
+        log.warn("Cota do Google AI esgotada no serviço; chamadas suspensas por {} ms", pausaNanos / NANOS_POR_MS);
+        Counter.builder("vozsocial.ia.cota.suspensoes")
+                .description("Respostas 429 que suspenderam a cota")
+                .register(meterRegistry)
+                .increment();
+        liberar();
+    }
+
+    /**
+     * Atende as filas em ordem de prioridade enquanto houver cota, recusa os pedidos vencidos
+     * e agenda a próxima liberação para quando o primeiro pedido retido couber nos baldes
+     */
+    private void liberar() {
+        List<Pedido> atendidos = new ArrayList<>();
+        List<Pedido> vencidos = new ArrayList<>();
+
+        synchronized (this) {
+            long agora = System.nanoTime();
+            long proxima = Long.MAX_VALUE;
+
+            for (PrioridadeChamada prioridade : PrioridadeChamada.values()) {
+                ArrayDeque<Pedido> fila = filas.get(prioridade);
+                long limite = esperaMaxima(prioridade) * NANOS_POR_MS;
+                while (!fila.isEmpty() && agora - fila.peekFirst().criadoEm >= limite) {
+                    vencidos.add(fila.pollFirst());
+                }
+                if (!fila.isEmpty()) {
+                    proxima = Math.min(proxima, fila.peekFirst().criadoEm + limite - agora);
+                }
+            }
+
+            if (agora < suspensoAte) {
+                proxima = Math.min(proxima, suspensoAte - agora);
+            } else {
+                for (PrioridadeChamada prioridade : PrioridadeChamada.values()) {
+                    ArrayDeque<Pedido> fila = filas.get(prioridade);
+                    double reserva = reserva(prioridade);
+                    while (!fila.isEmpty()) {
+                        Pedido pedido = fila.peekFirst();
+                        if (!requisicoes.comporta(1, 0, agora) || !tokens.comporta(pedido.tokens, reserva, agora)) {
+                            proxima = Math.min(proxima, Math.max(requisicoes.nanosAte(1, 0, agora),
+                                    tokens.nanosAte(pedido.tokens, reserva, agora)));
+                            break;
+                        }
+                        requisicoes.consumir(1, agora);
+                        tokens.consumir(pedido.tokens, agora);
+                        atendidos.add(fila.pollFirst());
+                    }
+                    if (!fila.isEmpty()) {
+                        // Prioridade estrita: as filas seguintes aguardam esta esvaziar
+                        break;
+                    }
+                }
+            }
+
+            if (proxima != Long.MAX_VALUE) {
+                agendar(agora, Math.max(proxima, NANOS_POR_MS));
+            }
+        }
+
+        vencidos.forEach(pedido -> recusar(pedido, "prazo"));
+        long agora = System.nanoTime();
+        for (Pedido pedido : atendidos) {
+            esperas.get(pedido.prioridade).record(Duration.ofNanos(agora - pedido.criadoEm));
+            pedido.sink.success();
+        }
+    }
+
+    private void agendar(long agora, long espera) {
+        long em = agora + espera;
+        // A liberação já agendada serve se ainda não começou e não é mais tardia que a pedida
+        if (proximaLiberacao != null && !proximaLiberacao.isDone()
+                && proximaLiberacaoEm > agora && proximaLiberacaoEm <= em) {
+            return;
+        }
+        if (proximaLiberacao != null) {
+            proximaLiberacao.cancel(false);
+        }
+        proximaLiberacaoEm = em;
+        proximaLiberacao = temporizador.schedule(this::liberar, espera, TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelar(Pedido pedido) {
+        synchronized (this) {
+            filas.get(pedido.prioridade).remove(pedido);
+        }
+    }
+
+    private void recusar(Pedido pedido, String motivo) {
+        Counter.builder("vozsocial.ia.cota.recusas")
+                .description("Chamadas ao Google AI recusadas por falta de cota")
+                .tag("prioridade", pedido.prioridade.name().toLowerCase())
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+        pedido.sink.error(new ServicoIndisponivelException("Cota do Google AI esgotada", segundosAteCota(pedido)));
+    }
+
+    private synchronized long segundosAteCota(Pedido pedido) {
+        long agora = System.nanoTime();
+        long espera = Math.max(suspensoAte - agora, Math.max(requisicoes.nanosAte(1, 0, agora),
+                tokens.nanosAte(pedido.tokens, reserva(pedido.prioridade), agora)));
+        return Math.max(1, (espera + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private double reserva(PrioridadeChamada prioridade) {
+        return prioridade == PrioridadeChamada.INTERATIVA ? 0 : tokensPorMinuto * reservaInterativa;
+    }
+
+    private int maximoFila(PrioridadeChamada prioridade) {
+        return prioridade == PrioridadeChamada.INTERATIVA ? maximoFilaInterativa : maximoFilaBackground;
+    }
+
+    private long esperaMaxima(PrioridadeChamada prioridade) {
+        return prioridade == PrioridadeChamada.INTERATIVA ? esperaMaximaInterativaMs : esperaMaximaBackgroundMs;
+    }
+
+    private synchronized int tamanhoFila(PrioridadeChamada prioridade) {
+        return filas.get(prioridade).size();
+    }
+
+    private synchronized double tokensDisponiveis() {
+        return tokens.disponivel(System.nanoTime());
+    }
+
+    /**
+     * Chamada aguardando cota e o sinal que a libera
+     */
+    private static final class Pedido {
+        private final PrioridadeChamada prioridade;
+        private final long tokens;
+        private final MonoSink<Void> sink;
+        private final long criadoEm;
+
+        private Pedido(PrioridadeChamada prioridade, long tokens, MonoSink<Void> sink, long criadoEm) {
+            this.prioridade = prioridade;
+            this.tokens = tokens;
+            this.sink = sink;
+            this.criadoEm = criadoEm;
+        }
+    }
+}
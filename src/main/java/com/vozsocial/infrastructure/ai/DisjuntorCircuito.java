@@ -0,0 +1,130 @@
+package com.vozsocial.infrastructure.ai;
+
+import java.util.Arrays;
+
+/**
+ * Disjuntor por contagem: abre quando a taxa de falhas das últimas chamadas passa do limite,
+ * recusa chamadas enquanto aberto e, após a espera, libera algumas chamadas de teste
+ * que decidem entre fechar de novo ou voltar a abrir
+ */
+public class DisjuntorCircuito {
+
+    public enum Estado { FECHADO, ABERTO, SEMI_ABERTO }
+
+    private final boolean[] janela;
+    private final int chamadasMinimas;
+    private final double taxaFalhaLimite;
+    private final long tempoAbertoMs;
+    private final int chamadasTeste;
+
+    private Estado estado = Estado.FECHADO;
+    private int posicao;
+    private int registradas;
+    private int falhas;
+    private long abertoDesde;
+    private int testesEmAndamento;
+    private int testesComSucesso;
+
+    public DisjuntorCircuito(int tamanhoJanela, int chamadasMinimas, double taxaFalhaLimite,
+                             long tempoAbertoMs, int chamadasTeste) {
+        this.janela = new boolean[tamanhoJanela];
+        this.chamadasMinimas = chamadasMinimas;
+        this.taxaFalhaLimite = taxaFalhaLimite;
+        this.tempoAbertoMs = tempoAbertoMs;
+        this.chamadasTeste = chamadasTeste;
+    }
+
+    /**
+     * Indica se a chamada pode seguir; no estado semiaberto reserva uma das vagas de teste
+     */
+    public synchronized boolean permitirChamada() {
+        if (estado == Estado.ABERTO) {
+            if (System.currentTimeMillis() - abertoDesde < tempoAbertoMs) {
+                return false;
+            }
+            estado = Estado.SEMI_ABERTO;
+            testesEmAndamento = 0;
+            testesComSucesso = 0;
+        }
+
+        if (estado == Estado.SEMI_ABERTO) {
+            if (testesEmAndamento >= chamadasTeste) {
+                return false;
+            }
+            testesEmAndamento++;
+        }
+        return true;
+    }
+
+    public synchronized void registrarSucesso() {
+        if (estado == Estado.SEMI_ABERTO) {
+            testesComSucesso++;
+            if (testesComSucesso >= chamadasTeste) {
+                fechar();
+            }
+            return;
+        }
+        registrar(false);
+    }
+
+    public synchronized void registrarFalha() {
+        if (estado == Estado.SEMI_ABERTO) {
+            abrir();
+            return;
+        }
+        registrar(true);
+    }
+
+    /**
+     * Devolve a vaga de teste de uma chamada cancelada antes de ter resultado
+     */
+    public synchronized void descartar() {
+        if (estado == Estado.SEMI_ABERTO && testesEmAndamento > testesComSucesso) {
+            testesEmAndamento--;
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Segundos até o disjuntor aceitar novas chamadas de teste
+     */
+    public synchronized long segundosAteNovaTentativa() {
+        if (estado != Estado.ABERTO) {
+            return 1;
+        }
+        long restante = tempoAbertoMs - (System.currentTimeMillis() - abertoDesde);
+        return Math.max(1, (restante + 999) / 1000);
+    }
+
+    private void registrar(boolean falha) {
+        if (registradas == janela.length && janela[posicao]) {
+            falhas--;
+        }
+        janela[posicao] = falha;
+        if (falha) {
+            falhas++;
+        }
+        posicao = (posicao + 1) % janela.length;
+        registradas = Math.min(registradas + 1, janela.length);
+
+        if (registradas >= chamadasMinimas && (double) falhas / registradas >= taxaFalhaLimite) {
+            abrir();
+        }
+    }
+
+    private void abrir() {
+        estado = Estado.ABERTO;
+        abertoDesde = System.currentTimeMillis();
+    }
+
+    private void fechar() {
+        estado = Estado.FECHADO;
+        posicao = 0;
+        registradas = 0;
+        falhas = 0;
+        Arrays.fill(janela, false);
+    }
+}
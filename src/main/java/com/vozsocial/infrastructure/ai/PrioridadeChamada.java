@@ -0,0 +1,11 @@
+package com.vozsocial.infrastructure.ai;
+
+/**
+ * Classe de prioridade de uma chamada ao Google AI na disputa pela cota
+ */
+public enum PrioridadeChamada {
+    // Requisições com um usuário aguardando a resposta; atendidas primeiro
+    INTERATIVA,
+    // Trabalho da fila, que pode ser adiado quando a cota se esgota
+    BACKGROUND
+}
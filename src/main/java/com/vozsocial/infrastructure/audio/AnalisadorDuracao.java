@@ -0,0 +1,22 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+
+import java.io.IOException;
+import java.util.OptionalDouble;
+
+/**
+ * Extrai a duração de um formato de áudio lendo apenas cabeçalhos e índices do contêiner
+ */
+public interface AnalisadorDuracao {
+
+    /**
+     * Indica se o analisador entende o formato informado
+     */
+    boolean suporta(FormatoAudio formato);
+
+    /**
+     * Calcula a duração em segundos, ou vazio se o contêiner não informar dados suficientes
+     */
+    OptionalDouble calcularDuracao(LeitorPosicional leitor) throws IOException;
+}
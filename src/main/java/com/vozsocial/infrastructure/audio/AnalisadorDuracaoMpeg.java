@@ -0,0 +1,172 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.OptionalDouble;
+
+/**
+ * Calcula a duração de arquivos MPEG áudio (MP3) pelos cabeçalhos de frame,
+ * usando os cabeçalhos Xing/Info ou VBRI quando presentes e a taxa constante caso contrário
+ */
+@Component
+public class AnalisadorDuracaoMpeg implements AnalisadorDuracao {
+
+    private static final int JANELA_BUSCA_SINCRONISMO = 64 * 1024;
+    private static final int TAMANHO_TAG_ID3V1 = 128;
+
+    private static final int VERSAO_MPEG1 = 3;
+
+    private static final int LAYER_II = 2;
+    private static final int LAYER_I = 3;
+
+    private static final int[][] TAXAS_BITS_MPEG1 = {
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},   // Layer I
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},      // Layer II
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320}        // Layer III
+    };
+
+    private static final int[][] TAXAS_BITS_MPEG2 = {
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},      // Layer I
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}            // Layer II e III
+    };
+
+    private static final int[][] TAXAS_AMOSTRAGEM = {
+            {11025, 12000, 8000},   // MPEG 2.5
+            {0, 0, 0},              // reservado
+            {22050, 24000, 16000},  // MPEG 2
+            {44100, 48000, 32000}   // MPEG 1
+    };
+
+    @Override
+    public boolean suporta(FormatoAudio formato) {
+        return formato == FormatoAudio.MP3;
+    }
+
+    @Override
+    public OptionalDouble calcularDuracao(LeitorPosicional leitor) throws IOException {
+        long inicioAudio = pularId3v2(leitor);
+        long fimBusca = Math.min(leitor.tamanhoArquivo() - 4, inicioAudio + JANELA_BUSCA_SINCRONISMO);
+
+        for (long posicao = inicioAudio; posicao < fimBusca; posicao++) {
+            Frame frame = lerFrame(leitor, posicao);
+            if (frame == null || !proximoFrameValido(leitor, posicao + frame.tamanho)) {
+                continue;
+            }
+
+            long totalFrames = lerTotalFramesXing(leitor, posicao, frame);
+            if (totalFrames <= 0) {
+                totalFrames = lerTotalFramesVbri(leitor, posicao);
+            }
+            if (totalFrames > 0) {
+                return OptionalDouble.of((double) totalFrames * frame.amostrasPorFrame / frame.taxaAmostragem);
+            }
+
+            // Sem cabeçalho VBR: assume taxa constante sobre os bytes de áudio
+            long fimAudio = leitor.tamanhoArquivo();
+            if (leitor.igual(fimAudio - TAMANHO_TAG_ID3V1, "TAG")) {
+                fimAudio -= TAMANHO_TAG_ID3V1;
+            }
+            return OptionalDouble.of((fimAudio - posicao) * 8.0 / (frame.taxaBits * 1000.0));
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    private long pularId3v2(LeitorPosicional leitor) throws IOException {
+        if (!leitor.igual(0, "ID3")) {
+            return 0;
+        }
+        // Tamanho synchsafe: 4 bytes com 7 bits úteis cada
+        long tamanho = ((long) (leitor.u8(6) & 0x7F) << 21) | ((leitor.u8(7) & 0x7F) << 14)
+                | ((leitor.u8(8) & 0x7F) << 7) | (leitor.u8(9) & 0x7F);
+        boolean possuiRodape = (leitor.u8(5) & 0x10) != 0;
+        return 10 + tamanho + (possuiRodape ? 10 : 0);
+    }
+
+    private boolean proximoFrameValido(LeitorPosicional leitor, long posicao) throws IOException {
+        // Frame único no fim do arquivo é aceito sem confirmação
+        return posicao + 4 > leitor.tamanhoArquivo() || lerFrame(leitor, posicao) != null;
+    }
+
+    private Frame lerFrame(LeitorPosicional leitor, long posicao) throws IOException {
+        if (posicao + 4 > leitor.tamanhoArquivo()) {
+            return null;
+        }
+
+        int b0 = leitor.u8(posicao);
+        int b1 = leitor.u8(posicao + 1);
+        if (b0 != 0xFF || (b1 & 0xE0) != 0xE0) {
+            return null;
+        }
+
+        int b2 = leitor.u8(posicao + 2);
+        int b3 = leitor.u8(posicao + 3);
+        int versao = (b1 >> 3) & 0x03;
+        int layer = (b1 >> 1) & 0x03;
+        int indiceTaxaBits = (b2 >> 4) & 0x0F;
+        int indiceAmostragem = (b2 >> 2) & 0x03;
+
+        if (versao == 1 || layer == 0 || indiceTaxaBits == 0 || indiceTaxaBits == 15 || indiceAmostragem == 3) {
+            return null;
+        }
+
+        Frame frame = new Frame();
+        frame.versao = versao;
+        frame.mono = ((b3 >> 6) & 0x03) == 3;
+        frame.taxaAmostragem = TAXAS_AMOSTRAGEM[versao][indiceAmostragem];
+        frame.taxaBits = versao == VERSAO_MPEG1
+                ? TAXAS_BITS_MPEG1[3 - layer][indiceTaxaBits]
+                : TAXAS_BITS_MPEG2[layer == LAYER_I ? 0 : 1][indiceTaxaBits];
+
+        if (layer == LAYER_I) {
+            frame.amostrasPorFrame = 384;
+        } else if (layer == LAYER_II || versao == VERSAO_MPEG1) {
+            frame.amostrasPorFrame = 1152;
+        } else {
+            frame.amostrasPorFrame = 576;
+        }
+
+        int preenchimento = (b2 >> 1) & 0x01;
+        frame.tamanho = layer == LAYER_I
+                ? (12 * frame.taxaBits * 1000 / frame.taxaAmostragem + preenchimento) * 4
+                : frame.amostrasPorFrame / 8 * frame.taxaBits * 1000 / frame.taxaAmostragem + preenchimento;
+
+        return frame.tamanho > 4 ? frame : null;
+    }
+
+    private long lerTotalFramesXing(LeitorPosicional leitor, long posicaoFrame, Frame frame) throws IOException {
+        int informacaoLateral;
+        if (frame.versao == VERSAO_MPEG1) {
+            informacaoLateral = frame.mono ? 17 : 32;
+        } else {
+            informacaoLateral = frame.mono ? 9 : 17;
+        }
+
+        long posicao = posicaoFrame + 4 + informacaoLateral;
+        if (!leitor.igual(posicao, "Xing") && !leitor.igual(posicao, "Info")) {
+            return -1;
+        }
+
+        long flags = leitor.u32BE(posicao + 4);
+        return (flags & 0x01) != 0 ? leitor.u32BE(posicao + 8) : -1;
+    }
+
+    private long lerTotalFramesVbri(LeitorPosicional leitor, long posicaoFrame) throws IOException {
+        long posicao = posicaoFrame + 4 + 32;
+        if (!leitor.igual(posicao, "VBRI")) {
+            return -1;
+        }
+        return leitor.u32BE(posicao + 14);
+    }
+
+    private static class Frame {
+        int versao;
+        boolean mono;
+        int taxaAmostragem;
+        int taxaBits;
+        int amostrasPorFrame;
+        int tamanho;
+    }
+}
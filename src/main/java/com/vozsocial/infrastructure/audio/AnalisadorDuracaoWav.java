@@ -0,0 +1,66 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.OptionalDouble;
+
+/**
+ * Calcula a duração de arquivos WAV a partir dos chunks RIFF "fmt ", "fact" e "data"
+ */
+@Component
+public class AnalisadorDuracaoWav implements AnalisadorDuracao {
+
+    private static final int MAXIMO_CHUNKS = 64;
+    private static final int FORMATO_PCM = 1;
+    private static final long TAMANHO_INDEFINIDO = 0xFFFFFFFFL;
+
+    @Override
+    public boolean suporta(FormatoAudio formato) {
+        return formato == FormatoAudio.WAV;
+    }
+
+    @Override
+    public OptionalDouble calcularDuracao(LeitorPosicional leitor) throws IOException {
+        if (!leitor.igual(0, "RIFF") || !leitor.igual(8, "WAVE")) {
+            return OptionalDouble.empty();
+        }
+
+        int formatoAudio = 0;
+        long taxaAmostragem = 0;
+        long bytesPorSegundo = 0;
+        long amostrasFact = -1;
+        long tamanhoDados = -1;
+
+        long posicao = 12;
+        for (int i = 0; i < MAXIMO_CHUNKS && posicao + 8 <= leitor.tamanhoArquivo(); i++) {
+            long tamanhoChunk = leitor.u32LE(posicao + 4);
+            long inicioDados = posicao + 8;
+
+            if (leitor.igual(posicao, "fmt ")) {
+                formatoAudio = leitor.u16LE(inicioDados);
+                taxaAmostragem = leitor.u32LE(inicioDados + 4);
+                bytesPorSegundo = leitor.u32LE(inicioDados + 8);
+            } else if (leitor.igual(posicao, "fact")) {
+                amostrasFact = leitor.u32LE(inicioDados);
+            } else if (leitor.igual(posicao, "data")) {
+                long disponivel = leitor.tamanhoArquivo() - inicioDados;
+                // Gravadores em stream deixam o tamanho zerado ou indefinido
+                tamanhoDados = tamanhoChunk == 0 || tamanhoChunk == TAMANHO_INDEFINIDO || tamanhoChunk > disponivel
+                        ? disponivel : tamanhoChunk;
+                break;
+            }
+
+            posicao = inicioDados + tamanhoChunk + (tamanhoChunk & 1);
+        }
+
+        if (formatoAudio != FORMATO_PCM && amostrasFact > 0 && taxaAmostragem > 0) {
+            return OptionalDouble.of((double) amostrasFact / taxaAmostragem);
+        }
+        if (tamanhoDados < 0 || bytesPorSegundo == 0) {
+            return OptionalDouble.empty();
+        }
+        return OptionalDouble.of((double) tamanhoDados / bytesPorSegundo);
+    }
+}
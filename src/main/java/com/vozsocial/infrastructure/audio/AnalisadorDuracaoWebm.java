@@ -0,0 +1,125 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.OptionalDouble;
+
+/**
+ * Calcula a duração de arquivos WebM/Matroska percorrendo os elementos EBML.
+ * Usa o elemento Duration de Info quando presente; gravações do MediaRecorder
+ * não o preenchem, então nesse caso percorre apenas os cabeçalhos dos blocos
+ * dos clusters para achar o último timestamp
+ */
+@Component
+public class AnalisadorDuracaoWebm implements AnalisadorDuracao {
+
+    private static final long ID_EBML = 0x1A45DFA3L;
+    private static final long ID_SEGMENT = 0x18538067L;
+    private static final long ID_INFO = 0x1549A966L;
+    private static final long ID_TIMECODE_SCALE = 0x2AD7B1L;
+    private static final long ID_DURATION = 0x4489L;
+    private static final long ID_CLUSTER = 0x1F43B675L;
+    private static final long ID_TIMECODE = 0xE7L;
+    private static final long ID_SIMPLE_BLOCK = 0xA3L;
+    private static final long ID_BLOCK_GROUP = 0xA0L;
+    private static final long ID_BLOCK = 0xA1L;
+
+    private static final long TAMANHO_DESCONHECIDO = -1;
+    private static final long ESCALA_PADRAO_NS = 1_000_000L;
+    private static final int MAXIMO_ELEMENTOS = 500_000;
+
+    @Override
+    public boolean suporta(FormatoAudio formato) {
+        return formato == FormatoAudio.WEBM;
+    }
+
+    @Override
+    public OptionalDouble calcularDuracao(LeitorPosicional leitor) throws IOException {
+        if (leitor.u32BE(0) != ID_EBML) {
+            return OptionalDouble.empty();
+        }
+
+        long escalaNs = ESCALA_PADRAO_NS;
+        double duracaoInfo = -1;
+        long timecodeCluster = 0;
+        long maiorTimestamp = -1;
+        long intervaloBlocos = 0;
+
+        long posicao = 0;
+        for (int i = 0; i < MAXIMO_ELEMENTOS && posicao < leitor.tamanhoArquivo(); i++) {
+            int tamanhoId = tamanhoVint(leitor.u8(posicao));
+            if (tamanhoId > 4) {
+                break;
+            }
+            long id = leitor.uintBE(posicao, tamanhoId);
+
+            int tamanhoCampo = tamanhoVint(leitor.u8(posicao + tamanhoId));
+            if (tamanhoCampo > 8) {
+                break;
+            }
+            long tamanho = lerTamanho(leitor, posicao + tamanhoId, tamanhoCampo);
+            long inicioDados = posicao + tamanhoId + tamanhoCampo;
+
+            // Elementos mestres relevantes: desce para os filhos em vez de pular o conteúdo
+            if (id == ID_SEGMENT || id == ID_INFO || id == ID_BLOCK_GROUP) {
+                posicao = inicioDados;
+                continue;
+            }
+            if (id == ID_CLUSTER) {
+                if (duracaoInfo > 0) {
+                    break;
+                }
+                posicao = inicioDados;
+                continue;
+            }
+            if (tamanho == TAMANHO_DESCONHECIDO) {
+                break;
+            }
+
+            if (id == ID_TIMECODE_SCALE) {
+                escalaNs = leitor.uintBE(inicioDados, (int) tamanho);
+            } else if (id == ID_DURATION && (tamanho == 4 || tamanho == 8)) {
+                duracaoInfo = leitor.floatBE(inicioDados, (int) tamanho);
+            } else if (id == ID_TIMECODE) {
+                timecodeCluster = leitor.uintBE(inicioDados, (int) tamanho);
+            } else if (id == ID_SIMPLE_BLOCK || id == ID_BLOCK) {
+                // Bloco: número da trilha (vint) seguido do timecode relativo (int16)
+                int tamanhoTrilha = tamanhoVint(leitor.u8(inicioDados));
+                long timestamp = timecodeCluster + (short) leitor.u16BE(inicioDados + tamanhoTrilha);
+                if (timestamp > maiorTimestamp) {
+                    if (maiorTimestamp >= 0) {
+                        intervaloBlocos = timestamp - maiorTimestamp;
+                    }
+                    maiorTimestamp = timestamp;
+                }
+            }
+
+            posicao = inicioDados + tamanho;
+        }
+
+        if (duracaoInfo > 0) {
+            return OptionalDouble.of(duracaoInfo * escalaNs / 1e9);
+        }
+        if (maiorTimestamp >= 0) {
+            // O último bloco ainda dura aproximadamente o intervalo entre blocos
+            return OptionalDouble.of((maiorTimestamp + intervaloBlocos) * escalaNs / 1e9);
+        }
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Quantidade de bytes de um vint EBML, indicada pelos zeros à esquerda do primeiro byte
+     */
+    private int tamanhoVint(int primeiroByte) {
+        return primeiroByte == 0 ? 9 : Integer.numberOfLeadingZeros(primeiroByte) - 23;
+    }
+
+    private long lerTamanho(LeitorPosicional leitor, long posicao, int tamanhoCampo) throws IOException {
+        long bruto = leitor.uintBE(posicao, tamanhoCampo);
+        long mascara = (1L << (7 * tamanhoCampo)) - 1;
+        long valor = bruto & mascara;
+        return valor == mascara ? TAMANHO_DESCONHECIDO : valor;
+    }
+}
@@ -0,0 +1,171 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import com.vozsocial.infrastructure.storage.ArquivoGravado;
+import com.vozsocial.infrastructure.storage.FonteAudio;
+import com.vozsocial.infrastructure.storage.GravadorStreamAudio;
+import com.vozsocial.infrastructure.storage.LayoutArmazenamentoAudio;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Remove o silêncio do início e do fim de uploads WAV antes da publicação, registrando
+ * no arquivo gravado as regiões com fala relativas ao áudio aparado
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AparadorSilencio {
+
+    private final DetectorAtividadeVoz detectorAtividadeVoz;
+    private final GravadorStreamAudio gravadorStreamAudio;
+    private final LayoutArmazenamentoAudio layoutArmazenamento;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.audio.vad.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${storage.audio.vad.corte-minimo-ms:200}")
+    private long corteMinimoMs;
+
+    /**
+     * Devolve o arquivo aparado, ou o próprio arquivo quando não é WAV, não há fala
+     * detectada ou o silêncio nas bordas é curto demais para compensar uma nova gravação
+     */
+    public ArquivoGravado aparar(ArquivoGravado arquivoGravado, long limiteBytes) {
+        if (!habilitado || arquivoGravado.getFormato() != FormatoAudio.WAV) {
+            return arquivoGravado;
+        }
+
+        Optional<AtividadeVoz> atividade;
+        try (InputStream entrada = Files.newInputStream(arquivoGravado.getCaminhoTemporario())) {
+            atividade = detectorAtividadeVoz.analisar(entrada, arquivoGravado.getTamanho());
+        } catch (IOException e) {
+            log.warn("Não foi possível detectar a fala do upload: {}", e.getMessage());
+            return arquivoGravado;
+        }
+        if (atividade.isEmpty() || atividade.get().getRegioes().isEmpty()) {
+            return arquivoGravado;
+        }
+
+        List<RegiaoFala> regioes = atividade.get().getRegioes();
+        long inicioMs = regioes.get(0).getInicioMs();
+        long fimMs = regioes.get(regioes.size() - 1).getFimMs();
+        if (inicioMs + (atividade.get().duracaoMs() - fimMs) < corteMinimoMs) {
+            arquivoGravado.setRegioesFala(RegiaoFala.formatar(regioes));
+            return arquivoGravado;
+        }
+
+        CabecalhoWav cabecalho = atividade.get().getCabecalho();
+        List<RegiaoFala> borda = List.of(new RegiaoFala(inicioMs, fimMs));
+        ArquivoGravado aparado;
+        try (InputStream entrada = detectorAtividadeVoz.compactar(
+                Files.newInputStream(arquivoGravado.getCaminhoTemporario()), cabecalho, borda)) {
+            aparado = gravadorStreamAudio.gravar(entrada, layoutArmazenamento.diretorioTemporario(), limiteBytes);
+        } catch (IOException e) {
+            log.warn("Não foi possível aparar o silêncio do upload: {}", e.getMessage());
+            return arquivoGravado;
+        }
+        gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+
+        aparado.setRegioesFala(RegiaoFala.formatar(regioes.stream()
+                .map(regiao -> new RegiaoFala(regiao.getInicioMs() - inicioMs, regiao.getFimMs() - inicioMs))
+                .collect(Collectors.toList())));
+
+        long removidos = arquivoGravado.getTamanho() - aparado.getTamanho();
+        registrarRemocao("armazenamento", removidos);
+        log.debug("Silêncio aparado do upload: {} ms no início, {} ms no fim, {} bytes",
+                inicioMs, atividade.get().duracaoMs() - fimMs, removidos);
+        return aparado;
+    }
+
+    /**
+     * Prepara um arquivo armazenado para a transcrição sem as pausas entre as regiões de
+     * fala já registradas; vazio quando não há regiões ou nada seria removido
+     */
+    public Optional<AudioCompactado> compactarParaTranscricao(FonteAudio fonte, long tamanho, String regioesFala) {
+        List<RegiaoFala> regioes = RegiaoFala.ler(regioesFala);
+        if (!habilitado || regioes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Optional<CabecalhoWav> cabecalho;
+        try (InputStream entrada = fonte.abrir()) {
+            cabecalho = detectorAtividadeVoz.lerCabecalho(entrada, tamanho);
+        } catch (IOException e) {
+            log.warn("Não foi possível ler o cabeçalho do áudio armazenado: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (cabecalho.isEmpty()) {
+            return Optional.empty();
+        }
+
+        CabecalhoWav wav = cabecalho.get();
+        long tamanhoCompactado = detectorAtividadeVoz.tamanhoCompactado(wav, regioes);
+        if (tamanhoCompactado >= tamanho) {
+            return Optional.empty();
+        }
+        registrarRemocao("transcricao", tamanho - tamanhoCompactado);
+        return Optional.of(AudioCompactado.builder()
+                .tamanho(tamanhoCompactado)
+                .fonte(() -> detectorAtividadeVoz.compactar(fonte.abrir(), wav, regioes))
+                .build());
+    }
+
+    /**
+     * Remove o silêncio de um WAV já em memória, como o recebido em data URI; vazio
+     * quando o conteúdo não é WAV suportado ou não há silêncio a remover
+     */
+    public Optional<byte[]> compactar(byte[] conteudo) {
+        if (!habilitado) {
+            return Optional.empty();
+        }
+        try {
+            Optional<AtividadeVoz> atividade = detectorAtividadeVoz.analisar(
+                    new ByteArrayInputStream(conteudo), conteudo.length);
+            if (atividade.isEmpty() || atividade.get().getRegioes().isEmpty()) {
+                return Optional.empty();
+            }
+
+            CabecalhoWav cabecalho = atividade.get().getCabecalho();
+            List<RegiaoFala> regioes = atividade.get().getRegioes();
+            if (detectorAtividadeVoz.tamanhoCompactado(cabecalho, regioes) >= conteudo.length) {
+                return Optional.empty();
+            }
+            byte[] compactado;
+            try (InputStream entrada = detectorAtividadeVoz.compactar(
+                    new ByteArrayInputStream(conteudo), cabecalho, regioes)) {
+                compactado = entrada.readAllBytes();
+            }
+            registrarRemocao("transcricao", conteudo.length - compactado.length);
+            return Optional.of(compactado);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o silêncio do áudio: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Registra os bytes de silêncio que deixaram de ser armazenados ou enviados à transcrição
+     */
+    private void registrarRemocao(String etapa, long bytes) {
+        DistributionSummary.builder("vozsocial.audio.silencio.removido")
+                .description("Bytes de silêncio removidos do áudio")
+                .baseUnit("bytes")
+                .tag("etapa", etapa)
+                .register(meterRegistry)
+                .record(Math.max(0, bytes));
+    }
+}
@@ -0,0 +1,25 @@
+package com.vozsocial.infrastructure.audio;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado da detecção de atividade de voz em um WAV: formato das amostras e regiões com fala
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtividadeVoz {
+
+    private CabecalhoWav cabecalho;
+    private List<RegiaoFala> regioes;
+
+    public long duracaoMs() {
+        return cabecalho.quadros() * 1000 / cabecalho.getTaxaAmostragem();
+    }
+}
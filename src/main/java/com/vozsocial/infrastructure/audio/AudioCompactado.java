@@ -0,0 +1,20 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.infrastructure.storage.FonteAudio;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * WAV montado em stream apenas com as regiões de fala, pronto para envio à transcrição
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AudioCompactado {
+
+    private long tamanho;
+    private FonteAudio fonte;
+}
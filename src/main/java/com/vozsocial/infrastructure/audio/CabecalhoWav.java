@@ -0,0 +1,174 @@
+package com.vozsocial.infrastructure.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+/**
+ * Formato das amostras e posição do chunk "data" de um WAV PCM (8 a 32 bits) ou de
+ * ponto flutuante de 32 bits, lidos dos chunks RIFF presentes no início do conteúdo
+ */
+public class CabecalhoWav {
+
+    public static final int TAMANHO_CANONICO = 44;
+
+    private static final int MAXIMO_CHUNKS = 64;
+    private static final int FORMATO_PCM = 1;
+    private static final int FORMATO_FLOAT = 3;
+    private static final int FORMATO_EXTENSIVEL = 0xFFFE;
+    private static final long TAMANHO_INDEFINIDO = 0xFFFFFFFFL;
+
+    private final int formato;
+    private final int canais;
+    private final int taxaAmostragem;
+    private final int bitsPorAmostra;
+    private final long inicioDados;
+    private final long tamanhoDados;
+
+    private CabecalhoWav(int formato, int canais, int taxaAmostragem, int bitsPorAmostra,
+                         long inicioDados, long tamanhoDados) {
+        this.formato = formato;
+        this.canais = canais;
+        this.taxaAmostragem = taxaAmostragem;
+        this.bitsPorAmostra = bitsPorAmostra;
+        this.inicioDados = inicioDados;
+        this.tamanhoDados = tamanhoDados;
+    }
+
+    /**
+     * Interpreta os chunks contidos no prefixo; o tamanho total limita o chunk "data" de
+     * gravadores em stream, que deixam o tamanho zerado ou indefinido. Vazio quando o
+     * conteúdo não é um WAV suportado ou o chunk "data" começa além do prefixo
+     */
+    public static Optional<CabecalhoWav> ler(byte[] prefixo, int tamanhoPrefixo, long tamanhoTotal) {
+        ByteBuffer buffer = ByteBuffer.wrap(prefixo, 0, tamanhoPrefixo).order(ByteOrder.LITTLE_ENDIAN);
+        if (tamanhoPrefixo < 12 || !igual(buffer, 0, "RIFF") || !igual(buffer, 8, "WAVE")) {
+            return Optional.empty();
+        }
+
+        int formato = 0;
+        int canais = 0;
+        int taxaAmostragem = 0;
+        int alinhamento = 0;
+        int bits = 0;
+        long inicioDados = -1;
+        long tamanhoDados = 0;
+
+        long posicao = 12;
+        for (int i = 0; i < MAXIMO_CHUNKS && posicao + 8 <= tamanhoPrefixo; i++) {
+            long tamanhoChunk = buffer.getInt((int) posicao + 4) & 0xFFFFFFFFL;
+            long inicioChunk = posicao + 8;
+
+            if (igual(buffer, (int) posicao, "fmt ") && inicioChunk + 16 <= tamanhoPrefixo) {
+                int base = (int) inicioChunk;
+                formato = buffer.getShort(base) & 0xFFFF;
+                canais = buffer.getShort(base + 2) & 0xFFFF;
+                taxaAmostragem = buffer.getInt(base + 4);
+                alinhamento = buffer.getShort(base + 12) & 0xFFFF;
+                bits = buffer.getShort(base + 14) & 0xFFFF;
+                if (formato == FORMATO_EXTENSIVEL && tamanhoChunk >= 26 && inicioChunk + 26 <= tamanhoPrefixo) {
+                    // Os dois primeiros bytes do GUID do subformato repetem o código do formato
+                    formato = buffer.getShort(base + 24) & 0xFFFF;
+                }
+            } else if (igual(buffer, (int) posicao, "data")) {
+                long disponivel = tamanhoTotal - inicioChunk;
+                inicioDados = inicioChunk;
+                tamanhoDados = tamanhoChunk == 0 || tamanhoChunk == TAMANHO_INDEFINIDO || tamanhoChunk > disponivel
+                        ? disponivel : tamanhoChunk;
+                break;
+            }
+
+            posicao = inicioChunk + tamanhoChunk + (tamanhoChunk & 1);
+        }
+
+        boolean suportado = (formato == FORMATO_PCM && bits >= 8 && bits <= 32 && bits % 8 == 0)
+                || (formato == FORMATO_FLOAT && bits == 32);
+        if (!suportado || inicioDados < 0 || canais == 0 || taxaAmostragem <= 0
+                || alinhamento != canais * bits / 8) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new CabecalhoWav(formato, canais, taxaAmostragem, bits, inicioDados,
+                tamanhoDados - tamanhoDados % alinhamento));
+    }
+
+    public int getCanais() {
+        return canais;
+    }
+
+    public int getTaxaAmostragem() {
+        return taxaAmostragem;
+    }
+
+    public int getBitsPorAmostra() {
+        return bitsPorAmostra;
+    }
+
+    public long getInicioDados() {
+        return inicioDados;
+    }
+
+    public long getTamanhoDados() {
+        return tamanhoDados;
+    }
+
+    public int bytesPorQuadro() {
+        return canais * bitsPorAmostra / 8;
+    }
+
+    public long quadros() {
+        return tamanhoDados / bytesPorQuadro();
+    }
+
+    /**
+     * Lê uma amostra normalizada para [-1, 1]; o buffer deve estar em little-endian
+     */
+    public float amostra(ByteBuffer buffer, int indice) {
+        if (formato == FORMATO_FLOAT) {
+            return Math.max(-1f, Math.min(1f, buffer.getFloat(indice)));
+        }
+        switch (bitsPorAmostra) {
+            case 8:
+                // PCM de 8 bits é sem sinal
+                return ((buffer.get(indice) & 0xFF) - 128) / 128f;
+            case 16:
+                return buffer.getShort(indice) / 32768f;
+            case 24:
+                int valor = (buffer.get(indice) & 0xFF) | ((buffer.get(indice + 1) & 0xFF) << 8)
+                        | (buffer.get(indice + 2) << 16);
+                return valor / 8388608f;
+            default:
+                return buffer.getInt(indice) / 2147483648f;
+        }
+    }
+
+    /**
+     * Cabeçalho canônico de 44 bytes com o mesmo formato de amostra e o tamanho de dados informado
+     */
+    public byte[] canonico(long tamanhoDados) {
+        ByteBuffer saida = ByteBuffer.allocate(TAMANHO_CANONICO).order(ByteOrder.LITTLE_ENDIAN);
+        saida.put(new byte[]{'R', 'I', 'F', 'F'}).putInt((int) (36 + tamanhoDados))
+                .put(new byte[]{'W', 'A', 'V', 'E'})
+                .put(new byte[]{'f', 'm', 't', ' '}).putInt(16)
+                .putShort((short) formato)
+                .putShort((short) canais)
+                .putInt(taxaAmostragem)
+                .putInt(taxaAmostragem * bytesPorQuadro())
+                .putShort((short) bytesPorQuadro())
+                .putShort((short) bitsPorAmostra)
+                .put(new byte[]{'d', 'a', 't', 'a'}).putInt((int) tamanhoDados);
+        return saida.array();
+    }
+
+    private static boolean igual(ByteBuffer buffer, int posicao, String assinatura) {
+        if (posicao + assinatura.length() > buffer.limit()) {
+            return false;
+        }
+        for (int i = 0; i < assinatura.length(); i++) {
+            if (buffer.get(posicao + i) != assinatura.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
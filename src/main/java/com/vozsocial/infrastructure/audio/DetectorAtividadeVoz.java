@@ -0,0 +1,272 @@
+package com.vozsocial.infrastructure.audio;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Detecção de atividade de voz em WAV PCM: percorre as amostras uma única vez em quadros
+ * curtos, medindo energia e taxa de cruzamentos por zero, e classifica os quadros contra
+ * um limiar adaptado ao ruído de fundo da própria gravação
+ */
+@Component
+public class DetectorAtividadeVoz {
+
+    private static final int TAMANHO_PREFIXO = 64 * 1024;
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final double PERCENTIL_RUIDO = 0.1;
+    private static final double SILENCIO_DB = -120;
+    // Fricativas ("s", "f") têm pouca energia e muitos cruzamentos por zero
+    private static final double TOLERANCIA_FRICATIVA_DB = 6;
+    private static final double CRUZAMENTOS_FRICATIVA = 0.3;
+
+    @Value("${storage.audio.vad.quadro-ms:20}")
+    private int quadroMs;
+
+    @Value("${storage.audio.vad.limiar-minimo-db:-50}")
+    private double limiarMinimoDb;
+
+    @Value("${storage.audio.vad.margem-ruido-db:12}")
+    private double margemRuidoDb;
+
+    @Value("${storage.audio.vad.fala-minima-ms:60}")
+    private int falaMinimaMs;
+
+    @Value("${storage.audio.vad.preenchimento-ms:150}")
+    private int preenchimentoMs;
+
+    @Value("${storage.audio.vad.pausa-minima-ms:300}")
+    private int pausaMinimaMs;
+
+    /**
+     * Detecta as regiões com fala de um WAV lido do início; vazio quando o conteúdo não é WAV suportado
+     */
+    public Optional<AtividadeVoz> analisar(InputStream conteudo, long tamanhoTotal) throws IOException {
+        byte[] prefixo = new byte[TAMANHO_PREFIXO];
+        int lidosPrefixo = conteudo.readNBytes(prefixo, 0, prefixo.length);
+        Optional<CabecalhoWav> cabecalho = CabecalhoWav.ler(prefixo, lidosPrefixo, tamanhoTotal);
+        if (cabecalho.isEmpty() || cabecalho.get().quadros() == 0) {
+            return Optional.empty();
+        }
+
+        CabecalhoWav wav = cabecalho.get();
+        int amostrasPorQuadro = Math.max(1, wav.getTaxaAmostragem() * quadroMs / 1000);
+        int bytesPorQuadroAnalise = amostrasPorQuadro * wav.bytesPorQuadro();
+        int quantidadeQuadros = (int) ((wav.quadros() + amostrasPorQuadro - 1) / amostrasPorQuadro);
+        float[] energiasDb = new float[quantidadeQuadros];
+        float[] cruzamentos = new float[quantidadeQuadros];
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(TAMANHO_BUFFER - TAMANHO_BUFFER % bytesPorQuadroAnalise,
+                bytesPorQuadroAnalise)).order(ByteOrder.LITTLE_ENDIAN);
+        InputStream dados = new SequenceInputStream(
+                new ByteArrayInputStream(prefixo, (int) Math.min(wav.getInicioDados(), lidosPrefixo),
+                        Math.max(0, lidosPrefixo - (int) wav.getInicioDados())),
+                conteudo);
+
+        long restantes = wav.getTamanhoDados();
+        int quadro = 0;
+        while (restantes > 0 && quadro < quantidadeQuadros) {
+            int pedir = (int) Math.min(buffer.capacity(), restantes);
+            int lidos = dados.readNBytes(buffer.array(), 0, pedir);
+            if (lidos <= 0) {
+                break;
+            }
+            restantes -= lidos;
+            int completos = lidos - lidos % wav.bytesPorQuadro();
+
+            for (int inicio = 0; inicio < completos && quadro < quantidadeQuadros; inicio += bytesPorQuadroAnalise) {
+                int fim = Math.min(inicio + bytesPorQuadroAnalise, completos);
+                medirQuadro(wav, buffer, inicio, fim, energiasDb, cruzamentos, quadro++);
+            }
+        }
+
+        return Optional.of(new AtividadeVoz(wav, regioes(energiasDb, cruzamentos, quadro)));
+    }
+
+    /**
+     * Lê apenas o cabeçalho de um WAV a partir do início do conteúdo
+     */
+    public Optional<CabecalhoWav> lerCabecalho(InputStream conteudo, long tamanhoTotal) throws IOException {
+        byte[] prefixo = new byte[TAMANHO_PREFIXO];
+        int lidos = conteudo.readNBytes(prefixo, 0, prefixo.length);
+        return CabecalhoWav.ler(prefixo, lidos, tamanhoTotal);
+    }
+
+    /**
+     * Tamanho do WAV que contém apenas as regiões informadas, com cabeçalho canônico
+     */
+    public long tamanhoCompactado(CabecalhoWav cabecalho, List<RegiaoFala> regioes) {
+        long total = 0;
+        for (long[] trecho : trechos(cabecalho, regioes)) {
+            total += trecho[1] - trecho[0];
+        }
+        return CabecalhoWav.TAMANHO_CANONICO + total;
+    }
+
+    /**
+     * Monta, em stream, um WAV apenas com as regiões informadas a partir do conteúdo original lido do início
+     */
+    public InputStream compactar(InputStream original, CabecalhoWav cabecalho, List<RegiaoFala> regioes) {
+        List<long[]> trechos = trechos(cabecalho, regioes);
+        long tamanhoDados = tamanhoCompactado(cabecalho, regioes) - CabecalhoWav.TAMANHO_CANONICO;
+        return new SequenceInputStream(new ByteArrayInputStream(cabecalho.canonico(tamanhoDados)),
+                new EntradaTrechos(original, trechos));
+    }
+
+    /**
+     * Converte as regiões em intervalos de bytes absolutos, alinhados ao quadro de amostras
+     */
+    private List<long[]> trechos(CabecalhoWav cabecalho, List<RegiaoFala> regioes) {
+        List<long[]> trechos = new ArrayList<>();
+        long quadros = cabecalho.quadros();
+        long anterior = 0;
+        for (RegiaoFala regiao : regioes) {
+            long inicio = Math.max(anterior, Math.min(quadros, regiao.getInicioMs() * cabecalho.getTaxaAmostragem() / 1000));
+            long fim = Math.min(quadros, (regiao.getFimMs() * cabecalho.getTaxaAmostragem() + 999) / 1000);
+            if (fim > inicio) {
+                trechos.add(new long[]{
+                        cabecalho.getInicioDados() + inicio * cabecalho.bytesPorQuadro(),
+                        cabecalho.getInicioDados() + fim * cabecalho.bytesPorQuadro()});
+                anterior = fim;
+            }
+        }
+        return trechos;
+    }
+
+    private void medirQuadro(CabecalhoWav wav, ByteBuffer buffer, int inicio, int fim,
+                             float[] energiasDb, float[] cruzamentos, int quadro) {
+        int bytesAmostra = wav.getBitsPorAmostra() / 8;
+        int canais = wav.getCanais();
+        double soma = 0;
+        int trocas = 0;
+        int amostras = 0;
+        float anterior = 0;
+
+        for (int base = inicio; base < fim; base += wav.bytesPorQuadro()) {
+            float mistura = 0;
+            for (int c = 0; c < canais; c++) {
+                mistura += wav.amostra(buffer, base + c * bytesAmostra);
+            }
+            mistura /= canais;
+
+            soma += mistura * mistura;
+            if (amostras > 0 && (mistura >= 0) != (anterior >= 0)) {
+                trocas++;
+            }
+            anterior = mistura;
+            amostras++;
+        }
+
+        double media = amostras > 0 ? soma / amostras : 0;
+        energiasDb[quadro] = (float) (media > 0 ? Math.max(SILENCIO_DB, 10 * Math.log10(media)) : SILENCIO_DB);
+        cruzamentos[quadro] = amostras > 1 ? (float) trocas / (amostras - 1) : 0f;
+    }
+
+    /**
+     * Classifica os quadros, descarta rajadas curtas, estende as bordas e une pausas curtas
+     */
+    private List<RegiaoFala> regioes(float[] energiasDb, float[] cruzamentos, int quantidade) {
+        List<RegiaoFala> regioes = new ArrayList<>();
+        if (quantidade == 0) {
+            return regioes;
+        }
+
+        float[] ordenadas = Arrays.copyOf(energiasDb, quantidade);
+        Arrays.sort(ordenadas);
+        double ruidoDb = ordenadas[(int) (quantidade * PERCENTIL_RUIDO)];
+        double limiarDb = Math.max(limiarMinimoDb, ruidoDb + margemRuidoDb);
+
+        long duracaoTotalMs = (long) quantidade * quadroMs;
+        int inicio = -1;
+        for (int i = 0; i <= quantidade; i++) {
+            boolean fala = i < quantidade && (energiasDb[i] > limiarDb
+                    || (energiasDb[i] > limiarDb - TOLERANCIA_FRICATIVA_DB && cruzamentos[i] > CRUZAMENTOS_FRICATIVA));
+            if (fala && inicio < 0) {
+                inicio = i;
+            } else if (!fala && inicio >= 0) {
+                long inicioMs = (long) inicio * quadroMs;
+                long fimMs = (long) i * quadroMs;
+                if (fimMs - inicioMs >= falaMinimaMs) {
+                    acrescentar(regioes, Math.max(0, inicioMs - preenchimentoMs),
+                            Math.min(duracaoTotalMs, fimMs + preenchimentoMs));
+                }
+                inicio = -1;
+            }
+        }
+        return regioes;
+    }
+
+    private void acrescentar(List<RegiaoFala> regioes, long inicioMs, long fimMs) {
+        if (!regioes.isEmpty()) {
+            RegiaoFala ultima = regioes.get(regioes.size() - 1);
+            if (inicioMs - ultima.getFimMs() < pausaMinimaMs) {
+                ultima.setFimMs(Math.max(ultima.getFimMs(), fimMs));
+                return;
+            }
+        }
+        regioes.add(new RegiaoFala(inicioMs, fimMs));
+    }
+
+    /**
+     * Entrega apenas os intervalos de bytes informados, descartando o restante do stream original
+     */
+    private static class EntradaTrechos extends InputStream {
+
+        private final InputStream original;
+        private final List<long[]> trechos;
+        private int indice;
+        private long posicao;
+
+        EntradaTrechos(InputStream original, List<long[]> trechos) {
+            this.original = original;
+            this.trechos = trechos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] um = new byte[1];
+            return read(um, 0, 1) == -1 ? -1 : um[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int deslocamento, int quantidade) throws IOException {
+            if (quantidade == 0) {
+                return 0;
+            }
+            while (indice < trechos.size() && posicao >= trechos.get(indice)[1]) {
+                indice++;
+            }
+            if (indice == trechos.size()) {
+                return -1;
+            }
+
+            long[] trecho = trechos.get(indice);
+            if (posicao < trecho[0]) {
+                original.skipNBytes(trecho[0] - posicao);
+                posicao = trecho[0];
+            }
+
+            int lidos = original.read(destino, deslocamento, (int) Math.min(quantidade, trecho[1] - posicao));
+            if (lidos < 0) {
+                throw new IOException("Conteúdo truncado ao compactar as regiões de fala");
+            }
+            posicao += lidos;
+            return lidos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            original.close();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Gera a forma de onda de um áudio em uma passada sobre as amostras PCM e a serializa
+ * em um sidecar binário compacto ("VZWF", versão, taxa, amostras por pico, picos e pares min/max)
+ */
+@Component
+@Slf4j
+public class GeradorWaveform {
+
+    private static final byte[] ASSINATURA = {'V', 'Z', 'W', 'F'};
+    private static final byte VERSAO = 1;
+    private static final int TAMANHO_CABECALHO = 15;
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final int MAXIMO_CHUNKS = 64;
+    private static final int FORMATO_PCM = 1;
+    private static final int FORMATO_FLOAT = 3;
+    private static final int FORMATO_EXTENSIVEL = 0xFFFE;
+    private static final long TAMANHO_INDEFINIDO = 0xFFFFFFFFL;
+
+    @Value("${storage.audio.waveform.picos:200}")
+    private int quantidadePicos;
+
+    /**
+     * Calcula os picos do áudio; vazio para formatos que exigiriam um decodificador
+     */
+    public Optional<Waveform> gerar(Path arquivo, FormatoAudio formato) {
+        if (formato != FormatoAudio.WAV) {
+            return Optional.empty();
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return gerarWav(canal);
+        } catch (IOException e) {
+            log.warn("Não foi possível gerar a forma de onda de {}: {}", arquivo.getFileName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Serializa a forma de onda no formato do sidecar
+     */
+    public byte[] codificar(Waveform waveform) {
+        int picos = waveform.quantidadePicos();
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_CABECALHO + picos * 2);
+        buffer.put(ASSINATURA)
+                .put(VERSAO)
+                .putInt(waveform.getTaxaAmostragem())
+                .putInt(waveform.getAmostrasPorPico())
+                .putShort((short) picos);
+        for (int i = 0; i < picos; i++) {
+            buffer.put(waveform.getMinimos()[i]).put(waveform.getMaximos()[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Lê um sidecar gerado por {@link #codificar(Waveform)}
+     */
+    public Waveform decodificar(byte[] dados) {
+        if (dados.length < TAMANHO_CABECALHO
+                || !Arrays.equals(dados, 0, ASSINATURA.length, ASSINATURA, 0, ASSINATURA.length)
+                || dados[ASSINATURA.length] != VERSAO) {
+            throw new IllegalArgumentException("Sidecar de forma de onda inválido");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(dados, ASSINATURA.length + 1, dados.length - ASSINATURA.length - 1);
+
+        int taxaAmostragem = buffer.getInt();
+        int amostrasPorPico = buffer.getInt();
+        int picos = buffer.getShort() & 0xFFFF;
+        if (buffer.remaining() < picos * 2) {
+            throw new IllegalArgumentException("Sidecar de forma de onda inválido");
+        }
+
+        byte[] minimos = new byte[picos];
+        byte[] maximos = new byte[picos];
+        for (int i = 0; i < picos; i++) {
+            minimos[i] = buffer.get();
+            maximos[i] = buffer.get();
+        }
+        return new Waveform(taxaAmostragem, amostrasPorPico, minimos, maximos);
+    }
+
+    private Optional<Waveform> gerarWav(FileChannel canal) throws IOException {
+        LeitorPosicional leitor = new LeitorPosicional(canal, ByteBuffer.allocate(1024));
+        if (!leitor.igual(0, "RIFF") || !leitor.igual(8, "WAVE")) {
+            return Optional.empty();
+        }
+
+        int formatoAudio = 0;
+        int canais = 0;
+        int taxaAmostragem = 0;
+        int alinhamentoBloco = 0;
+        int bitsPorAmostra = 0;
+        long inicioAmostras = -1;
+        long tamanhoAmostras = 0;
+
+        long posicao = 12;
+        for (int i = 0; i < MAXIMO_CHUNKS && posicao + 8 <= leitor.tamanhoArquivo(); i++) {
+            long tamanhoChunk = leitor.u32LE(posicao + 4);
+            long inicioDados = posicao + 8;
+
+            if (leitor.igual(posicao, "fmt ")) {
+                formatoAudio = leitor.u16LE(inicioDados);
+                canais = leitor.u16LE(inicioDados + 2);
+                taxaAmostragem = (int) leitor.u32LE(inicioDados + 4);
+                alinhamentoBloco = leitor.u16LE(inicioDados + 12);
+                bitsPorAmostra = leitor.u16LE(inicioDados + 14);
+                if (formatoAudio == FORMATO_EXTENSIVEL && tamanhoChunk >= 26) {
+                    // Os dois primeiros bytes do GUID do subformato repetem o código do formato
+                    formatoAudio = leitor.u16LE(inicioDados + 24);
+                }
+            } else if (leitor.igual(posicao, "data")) {
+                long disponivel = leitor.tamanhoArquivo() - inicioDados;
+                inicioAmostras = inicioDados;
+                tamanhoAmostras = tamanhoChunk == 0 || tamanhoChunk == TAMANHO_INDEFINIDO || tamanhoChunk > disponivel
+                        ? disponivel : tamanhoChunk;
+                break;
+            }
+
+            posicao = inicioDados + tamanhoChunk + (tamanhoChunk & 1);
+        }
+
+        boolean suportado = (formatoAudio == FORMATO_PCM && bitsPorAmostra >= 8 && bitsPorAmostra <= 32
+                && bitsPorAmostra % 8 == 0) || (formatoAudio == FORMATO_FLOAT && bitsPorAmostra == 32);
+        if (!suportado || inicioAmostras < 0 || canais == 0 || alinhamentoBloco != canais * bitsPorAmostra / 8) {
+            return Optional.empty();
+        }
+
+        long quadros = tamanhoAmostras / alinhamentoBloco;
+        if (quadros == 0) {
+            return Optional.empty();
+        }
+        int picos = (int) Math.min(quantidadePicos, quadros);
+        int quadrosPorPico = (int) ((quadros + picos - 1) / picos);
+
+        return Optional.of(lerPicos(canal, inicioAmostras, quadros, canais, bitsPorAmostra,
+                formatoAudio == FORMATO_FLOAT, taxaAmostragem, quadrosPorPico, picos));
+    }
+
+    /**
+     * Percorre as amostras uma única vez acumulando mínimo e máximo de cada janela, em todos os canais
+     */
+    private Waveform lerPicos(FileChannel canal, long inicio, long quadros, int canais, int bits, boolean pontoFlutuante,
+                              int taxaAmostragem, int quadrosPorPico, int picos) throws IOException {
+        byte[] minimos = new byte[picos];
+        byte[] maximos = new byte[picos];
+        int bytesAmostra = bits / 8;
+        int alinhamento = bytesAmostra * canais;
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BUFFER - TAMANHO_BUFFER % alinhamento)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        float minimo = Float.MAX_VALUE;
+        float maximo = -Float.MAX_VALUE;
+        int pico = 0;
+        int quadroNoPico = 0;
+        long posicao = inicio;
+        long restantes = quadros * alinhamento;
+
+        while (restantes > 0 && pico < picos) {
+            buffer.clear();
+            if (buffer.capacity() > restantes) {
+                buffer.limit((int) restantes);
+            }
+            while (buffer.hasRemaining()) {
+                if (canal.read(buffer, posicao + buffer.position()) <= 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            int lidos = buffer.remaining() - buffer.remaining() % alinhamento;
+            if (lidos == 0) {
+                break;
+            }
+            posicao += lidos;
+            restantes -= lidos;
+
+            for (int base = 0; base < lidos; base += alinhamento) {
+                for (int c = 0; c < canais; c++) {
+                    float amostra = amostra(buffer, base + c * bytesAmostra, bits, pontoFlutuante);
+                    if (amostra < minimo) {
+                        minimo = amostra;
+                    }
+                    if (amostra > maximo) {
+                        maximo = amostra;
+                    }
+                }
+
+                if (++quadroNoPico == quadrosPorPico) {
+                    minimos[pico] = paraByte(minimo);
+                    maximos[pico] = paraByte(maximo);
+                    pico++;
+                    quadroNoPico = 0;
+                    minimo = Float.MAX_VALUE;
+                    maximo = -Float.MAX_VALUE;
+                    if (pico == picos) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (quadroNoPico > 0 && pico < picos) {
+            minimos[pico] = paraByte(minimo);
+            maximos[pico] = paraByte(maximo);
+            pico++;
+        }
+
+        return new Waveform(taxaAmostragem, quadrosPorPico,
+                Arrays.copyOf(minimos, pico), Arrays.copyOf(maximos, pico));
+    }
+
+    /**
+     * Lê uma amostra normalizada para [-1, 1]
+     */
+    private float amostra(ByteBuffer buffer, int indice, int bits, boolean pontoFlutuante) {
+        if (pontoFlutuante) {
+            return Math.max(-1f, Math.min(1f, buffer.getFloat(indice)));
+        }
+        switch (bits) {
+            case 8:
+                // PCM de 8 bits é sem sinal
+                return ((buffer.get(indice) & 0xFF) - 128) / 128f;
+            case 16:
+                return buffer.getShort(indice) / 32768f;
+            case 24:
+                int valor = (buffer.get(indice) & 0xFF) | ((buffer.get(indice + 1) & 0xFF) << 8)
+                        | (buffer.get(indice + 2) << 16);
+                return valor / 8388608f;
+            default:
+                return buffer.getInt(indice) / 2147483648f;
+        }
+    }
+
+    private byte paraByte(float valor) {
+        return (byte) Math.max(-128, Math.min(127, Math.round(valor * 127)));
+    }
+}
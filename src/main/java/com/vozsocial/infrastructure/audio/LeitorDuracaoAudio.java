@@ -0,0 +1,58 @@
+package com.vozsocial.infrastructure.audio;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * Obtém a duração exata de arquivos de áudio a partir dos cabeçalhos do contêiner,
+ * sem decodificar o áudio, delegando ao analisador do formato detectado
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeitorDuracaoAudio {
+
+    private static final int TAMANHO_BUFFER = 8 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(TAMANHO_BUFFER));
+
+    private final List<AnalisadorDuracao> analisadores;
+
+    /**
+     * Lê a duração em segundos, ou vazio se o formato não for suportado ou o cabeçalho estiver incompleto
+     */
+    public Optional<BigDecimal> lerDuracao(Path arquivo, FormatoAudio formato) {
+        Optional<AnalisadorDuracao> analisador = analisadores.stream()
+                .filter(candidato -> candidato.suporta(formato))
+                .findFirst();
+
+        if (analisador.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            OptionalDouble duracao = analisador.get().calcularDuracao(new LeitorPosicional(canal, BUFFER.get()));
+            if (duracao.isEmpty() || !Double.isFinite(duracao.getAsDouble()) || duracao.getAsDouble() < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(BigDecimal.valueOf(duracao.getAsDouble()).setScale(2, RoundingMode.HALF_UP));
+        } catch (IOException e) {
+            log.warn("Não foi possível ler a duração do áudio {}: {}", arquivo.getFileName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.vozsocial.infrastructure.audio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Leitura posicional de um arquivo através de uma janela em buffer reutilizado,
+ * para analisar cabeçalhos sem carregar o arquivo em memória
+ */
+public class LeitorPosicional {
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final long tamanhoArquivo;
+    private long inicioJanela = -1;
+    private int tamanhoJanela;
+
+    public LeitorPosicional(FileChannel canal, ByteBuffer buffer) throws IOException {
+        this.canal = canal;
+        this.buffer = buffer;
+        this.tamanhoArquivo = canal.size();
+    }
+
+    public long tamanhoArquivo() {
+        return tamanhoArquivo;
+    }
+
+    public int u8(long posicao) throws IOException {
+        garantir(posicao, 1);
+        return buffer.get(indice(posicao)) & 0xFF;
+    }
+
+    public int u16BE(long posicao) throws IOException {
+        garantir(posicao, 2);
+        int i = indice(posicao);
+        return ((buffer.get(i) & 0xFF) << 8) | (buffer.get(i + 1) & 0xFF);
+    }
+
+    public int u16LE(long posicao) throws IOException {
+        garantir(posicao, 2);
+        int i = indice(posicao);
+        return (buffer.get(i) & 0xFF) | ((buffer.get(i + 1) & 0xFF) << 8);
+    }
+
+    public long u32BE(long posicao) throws IOException {
+        return uintBE(posicao, 4);
+    }
+
+    public long u32LE(long posicao) throws IOException {
+        garantir(posicao, 4);
+        int i = indice(posicao);
+        return (buffer.get(i) & 0xFFL)
+                | ((buffer.get(i + 1) & 0xFFL) << 8)
+                | ((buffer.get(i + 2) & 0xFFL) << 16)
+                | ((buffer.get(i + 3) & 0xFFL) << 24);
+    }
+
+    /**
+     * Lê um inteiro sem sinal big-endian de até 8 bytes
+     */
+    public long uintBE(long posicao, int tamanho) throws IOException {
+        garantir(posicao, tamanho);
+        int i = indice(posicao);
+        long valor = 0;
+        for (int j = 0; j < tamanho; j++) {
+            valor = (valor << 8) | (buffer.get(i + j) & 0xFFL);
+        }
+        return valor;
+    }
+
+    /**
+     * Lê um float IEEE 754 big-endian de 4 ou 8 bytes
+     */
+    public double floatBE(long posicao, int tamanho) throws IOException {
+        long bits = uintBE(posicao, tamanho);
+        return tamanho == 4 ? Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Compara os bytes na posição com um literal ASCII
+     */
+    public boolean igual(long posicao, String literal) throws IOException {
+        if (posicao < 0 || posicao + literal.length() > tamanhoArquivo) {
+            return false;
+        }
+        garantir(posicao, literal.length());
+        int i = indice(posicao);
+        for (int j = 0; j < literal.length(); j++) {
+            if (buffer.get(i + j) != (byte) literal.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indice(long posicao) {
+        return (int) (posicao - inicioJanela);
+    }
+
+    /**
+     * Garante que a janela contém [posicao, posicao + quantidade), recarregando se necessário
+     */
+    private void garantir(long posicao, int quantidade) throws IOException {
+        if (posicao < 0 || posicao + quantidade > tamanhoArquivo) {
+            throw new EOFException("Leitura além do fim do arquivo");
+        }
+        if (inicioJanela >= 0 && posicao >= inicioJanela && posicao + quantidade <= inicioJanela + tamanhoJanela) {
+            return;
+        }
+
+        buffer.clear();
+        long lidosTotal = 0;
+        while (buffer.hasRemaining() && posicao + lidosTotal < tamanhoArquivo) {
+            int lidos = canal.read(buffer, posicao + lidosTotal);
+            if (lidos <= 0) {
+                break;
+            }
+            lidosTotal += lidos;
+        }
+        inicioJanela = posicao;
+        tamanhoJanela = (int) lidosTotal;
+
+        if (tamanhoJanela < quantidade) {
+            throw new EOFException("Leitura além do fim do arquivo");
+        }
+    }
+}
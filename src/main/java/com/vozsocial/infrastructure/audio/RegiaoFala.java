@@ -0,0 +1,62 @@
+package com.vozsocial.infrastructure.audio;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trecho com fala detectada, em milissegundos a partir do início do áudio
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegiaoFala {
+
+    private long inicioMs;
+    private long fimMs;
+
+    /**
+     * Serializa as regiões no formato compacto persistido em arquivos_audio ("inicio-fim,...")
+     */
+    public static String formatar(List<RegiaoFala> regioes) {
+        StringBuilder texto = new StringBuilder();
+        for (RegiaoFala regiao : regioes) {
+            if (texto.length() > 0) {
+                texto.append(',');
+            }
+            texto.append(regiao.getInicioMs()).append('-').append(regiao.getFimMs());
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Lê regiões gravadas por {@link #formatar(List)}; trechos malformados são ignorados
+     */
+    public static List<RegiaoFala> ler(String texto) {
+        List<RegiaoFala> regioes = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return regioes;
+        }
+        for (String trecho : texto.split(",")) {
+            int separador = trecho.indexOf('-');
+            if (separador <= 0) {
+                continue;
+            }
+            try {
+                long inicio = Long.parseLong(trecho.substring(0, separador).trim());
+                long fim = Long.parseLong(trecho.substring(separador + 1).trim());
+                if (fim > inicio) {
+                    regioes.add(new RegiaoFala(inicio, fim));
+                }
+            } catch (NumberFormatException e) {
+                // Trecho ignorado
+            }
+        }
+        return regioes;
+    }
+}
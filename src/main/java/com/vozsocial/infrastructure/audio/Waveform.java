@@ -0,0 +1,25 @@
+package com.vozsocial.infrastructure.audio;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Picos mínimo/máximo de um áudio, reduzidos a 8 bits por pico para desenho da forma de onda
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Waveform {
+
+    private int taxaAmostragem;
+    private int amostrasPorPico;
+    private byte[] minimos;
+    private byte[] maximos;
+
+    public int quantidadePicos() {
+        return minimos.length;
+    }
+}
@@ -0,0 +1,92 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+import com.vozsocial.infrastructure.audio.CabecalhoWav;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Optional;
+
+/**
+ * Visão sobre as amostras de um WAV PCM (8 a 32 bits) ou de ponto flutuante de 32 bits
+ * já em memória, com leitura em blocos por canal e escrita de WAV PCM de 16 bits
+ */
+class AudioWav {
+
+    private static final int FORMATO_PCM = 1;
+    static final int TAMANHO_CABECALHO = CabecalhoWav.TAMANHO_CANONICO;
+
+    private final ByteBuffer dados;
+    private final CabecalhoWav cabecalho;
+
+    private AudioWav(ByteBuffer dados, CabecalhoWav cabecalho) {
+        this.dados = dados;
+        this.cabecalho = cabecalho;
+    }
+
+    /**
+     * Interpreta os chunks RIFF; vazio quando o conteúdo não é um WAV suportado
+     */
+    static Optional<AudioWav> ler(byte[] conteudo) {
+        return CabecalhoWav.ler(conteudo, conteudo.length, conteudo.length)
+                .map(cabecalho -> new AudioWav(ByteBuffer.wrap(conteudo).order(ByteOrder.LITTLE_ENDIAN), cabecalho));
+    }
+
+    int taxaAmostragem() {
+        return cabecalho.getTaxaAmostragem();
+    }
+
+    int canais() {
+        return cabecalho.getCanais();
+    }
+
+    int quadros() {
+        return (int) cabecalho.quadros();
+    }
+
+    /**
+     * Separa os canais de {@code quantidade} quadros a partir de {@code quadroInicial}, normalizados para [-1, 1]
+     */
+    void lerBloco(int quadroInicial, int quantidade, float[][] destino) {
+        int canais = cabecalho.getCanais();
+        int bytesAmostra = cabecalho.getBitsPorAmostra() / 8;
+        int indice = (int) cabecalho.getInicioDados() + quadroInicial * canais * bytesAmostra;
+        for (int q = 0; q < quantidade; q++) {
+            for (int c = 0; c < canais; c++) {
+                destino[c][q] = cabecalho.amostra(dados, indice);
+                indice += bytesAmostra;
+            }
+        }
+    }
+
+    /**
+     * Cria o buffer de saída em PCM de 16 bits já com o cabeçalho preenchido
+     */
+    static ByteBuffer criarSaida(int taxaAmostragem, int canais, int quadros) {
+        int tamanhoDados = quadros * canais * 2;
+        ByteBuffer saida = ByteBuffer.allocate(TAMANHO_CABECALHO + tamanhoDados).order(ByteOrder.LITTLE_ENDIAN);
+        saida.put(new byte[]{'R', 'I', 'F', 'F'}).putInt(36 + tamanhoDados)
+                .put(new byte[]{'W', 'A', 'V', 'E'})
+                .put(new byte[]{'f', 'm', 't', ' '}).putInt(16)
+                .putShort((short) FORMATO_PCM)
+                .putShort((short) canais)
+                .putInt(taxaAmostragem)
+                .putInt(taxaAmostragem * canais * 2)
+                .putShort((short) (canais * 2))
+                .putShort((short) 16)
+                .put(new byte[]{'d', 'a', 't', 'a'}).putInt(tamanhoDados);
+        return saida;
+    }
+
+    /**
+     * Intercala os canais de {@code quantidade} quadros no buffer de saída, com saturação em 16 bits
+     */
+    static void escreverBloco(ByteBuffer saida, float[][] origem, int canais, int quantidade) {
+        for (int q = 0; q < quantidade; q++) {
+            for (int c = 0; c < canais; c++) {
+                float valor = origem[c][q];
+                int amostra = Math.round((valor > 1f ? 1f : valor < -1f ? -1f : valor) * 32767f);
+                saida.putShort((short) amostra);
+            }
+        }
+    }
+}
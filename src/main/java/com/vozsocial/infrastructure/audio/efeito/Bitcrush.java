@@ -0,0 +1,31 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+/**
+ * Reduz a resolução do sinal: quantiza a amplitude em poucos bits e segura cada amostra
+ * pelo período de uma taxa de amostragem menor, gerando o aliasing característico de voz digital antiga
+ */
+public class Bitcrush implements EfeitoVoz {
+
+    private final float niveis;
+    private final float passo;
+    private float fase;
+    private float retida;
+
+    public Bitcrush(int taxaAmostragem, int bits, int taxaAlvoHz) {
+        this.niveis = 1 << (Math.max(1, Math.min(bits, 24)) - 1);
+        this.passo = Math.min(1f, (float) taxaAlvoHz / taxaAmostragem);
+        this.fase = 1f;
+    }
+
+    @Override
+    public void processar(float[] bloco, int quantidade) {
+        for (int n = 0; n < quantidade; n++) {
+            fase += passo;
+            if (fase >= 1f) {
+                fase -= 1f;
+                retida = Math.round(bloco[n] * niveis) / niveis;
+            }
+            bloco[n] = retida;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+/**
+ * Aplica uma sequência de efeitos ao mesmo bloco, na ordem informada
+ */
+public class CadeiaEfeitos implements EfeitoVoz {
+
+    private final EfeitoVoz[] efeitos;
+
+    public CadeiaEfeitos(EfeitoVoz... efeitos) {
+        this.efeitos = efeitos.clone();
+    }
+
+    @Override
+    public void processar(float[] bloco, int quantidade) {
+        for (EfeitoVoz efeito : efeitos) {
+            efeito.processar(bloco, quantidade);
+        }
+    }
+
+    @Override
+    public int latencia() {
+        int total = 0;
+        for (EfeitoVoz efeito : efeitos) {
+            total += efeito.latencia();
+        }
+        return total;
+    }
+}
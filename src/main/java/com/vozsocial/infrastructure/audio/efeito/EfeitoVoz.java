@@ -0,0 +1,20 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+/**
+ * Efeito de voz aplicado em blocos de amostras normalizadas em [-1, 1] de um único canal.
+ * As implementações guardam estado entre blocos e processam no próprio vetor, sem alocar por amostra
+ */
+public interface EfeitoVoz {
+
+    /**
+     * Processa {@code quantidade} amostras do bloco a partir do início, substituindo-as pelo resultado
+     */
+    void processar(float[] bloco, int quantidade);
+
+    /**
+     * Atraso, em amostras, entre a entrada e a saída correspondente
+     */
+    default int latencia() {
+        return 0;
+    }
+}
@@ -0,0 +1,122 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+/**
+ * FFT de sinais reais de tamanho N calculada com uma FFT complexa radix-2 de N/2 pontos,
+ * sobre vetores reutilizados; tabelas de rotação e de inversão de bits são calculadas
+ * uma única vez por instância
+ */
+class Fft {
+
+    private final int tamanho;
+    private final int metade;
+    private final float[] cosenos;
+    private final float[] senos;
+    private final int[] invertidos;
+    private final float[] real;
+    private final float[] imaginario;
+
+    Fft(int tamanho) {
+        if (tamanho < 4 || Integer.bitCount(tamanho) != 1) {
+            throw new IllegalArgumentException("Tamanho da FFT deve ser potência de 2: " + tamanho);
+        }
+        this.tamanho = tamanho;
+        this.metade = tamanho / 2;
+
+        // W_N^k para k em [0, N/2]; a FFT de N/2 pontos usa os índices pares
+        this.cosenos = new float[metade + 1];
+        this.senos = new float[metade + 1];
+        for (int k = 0; k <= metade; k++) {
+            double angulo = -2 * Math.PI * k / tamanho;
+            cosenos[k] = (float) Math.cos(angulo);
+            senos[k] = (float) Math.sin(angulo);
+        }
+
+        int bits = Integer.numberOfTrailingZeros(metade);
+        this.invertidos = new int[metade];
+        for (int i = 0; i < metade; i++) {
+            invertidos[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+        this.real = new float[metade];
+        this.imaginario = new float[metade];
+    }
+
+    /**
+     * Calcula o módulo dos bins 0 a N/2 do espectro de {@code amostras}
+     */
+    void modulos(float[] amostras, float[] modulos) {
+        for (int m = 0; m < metade; m++) {
+            real[m] = amostras[2 * m];
+            imaginario[m] = amostras[2 * m + 1];
+        }
+        transformar(false);
+
+        modulos[0] = Math.abs(real[0] + imaginario[0]);
+        modulos[metade] = Math.abs(real[0] - imaginario[0]);
+        for (int k = 1; k < metade; k++) {
+            int j = metade - k;
+            // Separa os espectros das amostras pares (par) e ímpares (impar) do sinal empacotado
+            float parReal = 0.5f * (real[k] + real[j]);
+            float parImag = 0.5f * (imaginario[k] - imaginario[j]);
+            float imparReal = 0.5f * (imaginario[k] + imaginario[j]);
+            float imparImag = -0.5f * (real[k] - real[j]);
+            float xr = parReal + cosenos[k] * imparReal - senos[k] * imparImag;
+            float xi = parImag + cosenos[k] * imparImag + senos[k] * imparReal;
+            modulos[k] = (float) Math.sqrt(xr * xr + xi * xi);
+        }
+    }
+
+    /**
+     * Inversa de um espectro real e simétrico dado pelos bins 0 a N/2; o resultado
+     * não é dividido por N
+     */
+    void inversaReal(float[] espectro, float[] amostras) {
+        for (int k = 0; k < metade; k++) {
+            int j = metade - k;
+            float par = espectro[k] + espectro[j];
+            float diferenca = espectro[k] - espectro[j];
+            // Ímpar = diferença * W_N^-k; Z = par + i * ímpar
+            float imparReal = diferenca * cosenos[k];
+            float imparImag = -diferenca * senos[k];
+            real[k] = par - imparImag;
+            imaginario[k] = imparReal;
+        }
+        transformar(true);
+
+        for (int m = 0; m < metade; m++) {
+            amostras[2 * m] = real[m];
+            amostras[2 * m + 1] = imaginario[m];
+        }
+    }
+
+    private void transformar(boolean inversa) {
+        for (int i = 0; i < metade; i++) {
+            int j = invertidos[i];
+            if (j > i) {
+                float t = real[i];
+                real[i] = real[j];
+                real[j] = t;
+                t = imaginario[i];
+                imaginario[i] = imaginario[j];
+                imaginario[j] = t;
+            }
+        }
+
+        float sinal = inversa ? -1f : 1f;
+        for (int largura = 1; largura < metade; largura <<= 1) {
+            int passoTabela = tamanho / (largura << 1);
+            for (int k = 0; k < largura; k++) {
+                float wr = cosenos[k * passoTabela];
+                float wi = sinal * senos[k * passoTabela];
+                for (int a = k; a < metade; a += largura << 1) {
+                    int b = a + largura;
+                    float tr = real[b] * wr - imaginario[b] * wi;
+                    float ti = real[b] * wi + imaginario[b] * wr;
+                    real[b] = real[a] - tr;
+                    imaginario[b] = imaginario[a] - ti;
+                    real[a] += tr;
+                    imaginario[a] += ti;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+/**
+ * Modulação em anel: multiplica o sinal por uma portadora senoidal de baixa frequência,
+ * o que dá o timbre metálico da voz robótica. A portadora é um fasor girado a cada amostra,
+ * evitando calcular seno por amostra
+ */
+public class ModulacaoAnel implements EfeitoVoz {
+
+    private final float cosPasso;
+    private final float senPasso;
+    private final float profundidade;
+    private float real = 1f;
+    private float imaginario = 0f;
+
+    /**
+     * @param profundidade 1 para modulação em anel pura; valores menores preservam parte do sinal original
+     */
+    public ModulacaoAnel(int taxaAmostragem, float frequenciaHz, float profundidade) {
+        double passo = 2 * Math.PI * frequenciaHz / taxaAmostragem;
+        this.cosPasso = (float) Math.cos(passo);
+        this.senPasso = (float) Math.sin(passo);
+        this.profundidade = profundidade;
+    }
+
+    @Override
+    public void processar(float[] bloco, int quantidade) {
+        float r = real;
+        float i = imaginario;
+        float seco = 1f - profundidade;
+        for (int n = 0; n < quantidade; n++) {
+            bloco[n] *= seco + profundidade * i;
+            float proximoReal = r * cosPasso - i * senPasso;
+            i = r * senPasso + i * cosPasso;
+            r = proximoReal;
+        }
+
+        // Renormaliza uma vez por bloco para que o erro de arredondamento não altere a amplitude
+        float modulo = (float) Math.sqrt(r * r + i * i);
+        real = r / modulo;
+        imaginario = i / modulo;
+    }
+}
@@ -0,0 +1,176 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+import com.vozsocial.domain.enums.TipoFiltroVoz;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Aplica os filtros de voz localmente, sem chamada externa: o WAV é decodificado em blocos
+ * de amostras, cada canal passa pela cadeia de efeitos do filtro e o resultado é devolvido
+ * como WAV PCM de 16 bits. Novos filtros registram em {@link #registrarFiltros()} uma
+ * fábrica de cadeia por taxa de amostragem
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MotorEfeitosVoz {
+
+    private static final int TAMANHO_BLOCO = 1024;
+    private static final String PREFIXO_WAV = "data:audio/wav;base64,";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${audio.efeitos.robotico.frequencia-tom-hz:110}")
+    private float frequenciaTomHz;
+
+    @Value("${audio.efeitos.robotico.frequencia-modulacao-hz:50}")
+    private float frequenciaModulacaoHz;
+
+    @Value("${audio.efeitos.robotico.profundidade-modulacao:0.5}")
+    private float profundidadeModulacao;
+
+    @Value("${audio.efeitos.robotico.bits:8}")
+    private int bits;
+
+    @Value("${audio.efeitos.robotico.taxa-reduzida-hz:11025}")
+    private int taxaReduzidaHz;
+
+    private final Map<TipoFiltroVoz, IntFunction<EfeitoVoz>> filtros = new EnumMap<>(TipoFiltroVoz.class);
+
+    @PostConstruct
+    public void registrarFiltros() {
+        filtros.put(TipoFiltroVoz.ROBOTICO, taxa -> new CadeiaEfeitos(
+                new QuantizacaoTom(taxa, frequenciaTomHz),
+                new ModulacaoAnel(taxa, frequenciaModulacaoHz, profundidadeModulacao),
+                new Bitcrush(taxa, bits, taxaReduzidaHz)));
+    }
+
+    /**
+     * Indica se o filtro possui cadeia de efeitos; o natural não transforma o áudio
+     */
+    public boolean possuiFiltro(TipoFiltroVoz filtro) {
+        return filtro != null && filtros.containsKey(filtro);
+    }
+
+    /**
+     * Aplica o filtro ao áudio em data URI. Filtros sem cadeia, como o natural, e áudios
+     * que não são WAV PCM são devolvidos sem alteração
+     */
+    public String aplicar(TipoFiltroVoz filtro, String audioDataUri) {
+        if (!possuiFiltro(filtro)) {
+            return audioDataUri;
+        }
+
+        String base64 = audioDataUri.contains(",")
+                ? audioDataUri.substring(audioDataUri.indexOf(',') + 1) : audioDataUri;
+        return renderizar(filtro, Base64.getMimeDecoder().decode(base64.getBytes(StandardCharsets.US_ASCII)))
+                .map(resultado -> PREFIXO_WAV + Base64.getEncoder().encodeToString(resultado))
+                .orElseGet(() -> {
+                    log.warn("Filtro {} requer áudio WAV PCM; áudio devolvido sem transformação", filtro);
+                    return audioDataUri;
+                });
+    }
+
+    /**
+     * Renderiza o filtro sobre o conteúdo de um arquivo de áudio, devolvendo um WAV PCM de 16 bits;
+     * vazio quando o filtro não tem cadeia ou o conteúdo não é WAV PCM
+     */
+    public Optional<byte[]> renderizar(TipoFiltroVoz filtro, byte[] conteudo) {
+        if (!possuiFiltro(filtro)) {
+            return Optional.empty();
+        }
+
+        Optional<AudioWav> wav = AudioWav.ler(conteudo);
+        if (wav.isEmpty()) {
+            contar(filtro, "nao_suportado");
+            return Optional.empty();
+        }
+
+        AudioWav audio = wav.get();
+        long inicio = System.nanoTime();
+        byte[] resultado = processar(audio, filtros.get(filtro));
+        long duracaoNanos = System.nanoTime() - inicio;
+
+        Timer.builder("vozsocial.audio.efeitos")
+                .description("Tempo de processamento dos filtros de voz")
+                .tag("filtro", filtro.name())
+                .register(meterRegistry)
+                .record(duracaoNanos, TimeUnit.NANOSECONDS);
+        if (duracaoNanos > 0) {
+            DistributionSummary.builder("vozsocial.audio.efeitos.tempo.real")
+                    .description("Segundos de áudio processados por segundo de CPU")
+                    .tag("filtro", filtro.name())
+                    .register(meterRegistry)
+                    .record(audio.quadros() * 1e9 / audio.taxaAmostragem() / duracaoNanos);
+        }
+        contar(filtro, "aplicado");
+
+        return Optional.of(resultado);
+    }
+
+    /**
+     * Percorre o áudio em blocos reutilizados; zeros ao final empurram para fora as
+     * amostras retidas pela latência da cadeia, e a saída correspondente é descartada no início
+     */
+    byte[] processar(AudioWav audio, IntFunction<EfeitoVoz> fabrica) {
+        int canais = audio.canais();
+        int quadros = audio.quadros();
+        EfeitoVoz[] cadeias = new EfeitoVoz[canais];
+        for (int c = 0; c < canais; c++) {
+            cadeias[c] = fabrica.apply(audio.taxaAmostragem());
+        }
+        int latencia = cadeias[0].latencia();
+
+        float[][] bloco = new float[canais][TAMANHO_BLOCO];
+        ByteBuffer saida = AudioWav.criarSaida(audio.taxaAmostragem(), canais, quadros);
+
+        long total = (long) quadros + latencia;
+        for (long posicao = 0; posicao < total; posicao += TAMANHO_BLOCO) {
+            int quantidade = (int) Math.min(TAMANHO_BLOCO, total - posicao);
+            int lidos = (int) Math.max(0, Math.min(quantidade, quadros - posicao));
+            if (lidos > 0) {
+                audio.lerBloco((int) posicao, lidos, bloco);
+            }
+            for (int c = 0; c < canais; c++) {
+                Arrays.fill(bloco[c], lidos, quantidade, 0f);
+                cadeias[c].processar(bloco[c], quantidade);
+            }
+
+            int pular = (int) Math.max(0, Math.min(quantidade, latencia - posicao));
+            if (pular < quantidade) {
+                if (pular > 0) {
+                    for (int c = 0; c < canais; c++) {
+                        System.arraycopy(bloco[c], pular, bloco[c], 0, quantidade - pular);
+                    }
+                }
+                AudioWav.escreverBloco(saida, bloco, canais, quantidade - pular);
+            }
+        }
+        return saida.array();
+    }
+
+    private void contar(TipoFiltroVoz filtro, String resultado) {
+        Counter.builder("vozsocial.audio.efeitos.aplicacoes")
+                .tag("filtro", filtro.name())
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,85 @@
+package com.vozsocial.infrastructure.audio.efeito;
+
+import java.util.Arrays;
+
+/**
+ * Quantiza o tom da voz em uma única frequência fixa: cada quadro da STFT tem a fase
+ * zerada, preservando apenas o envelope espectral, e os quadros são sobrepostos a cada
+ * período da frequência desejada. O resultado mantém as palavras inteligíveis com a
+ * entonação monótona da voz robótica
+ */
+public class QuantizacaoTom implements EfeitoVoz {
+
+    private static final int SOBREPOSICAO_MINIMA = 2;
+    private static final int TAMANHO_MINIMO = 256;
+
+    private final Fft fft;
+    private final int tamanho;
+    private final int salto;
+    private final float[] janela;
+    private final float[] entrada;
+    private final float[] acumulador;
+    private final float[] quadro;
+    private final float[] modulos;
+    private final float ganho;
+    private int contador;
+
+    public QuantizacaoTom(int taxaAmostragem, float frequenciaHz) {
+        this.salto = Math.max(1, Math.round(taxaAmostragem / frequenciaHz));
+        this.tamanho = Math.max(TAMANHO_MINIMO, Integer.highestOneBit(SOBREPOSICAO_MINIMA * salto - 1) << 1);
+        this.fft = new Fft(tamanho);
+        this.janela = new float[tamanho];
+        for (int n = 0; n < tamanho; n++) {
+            janela[n] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * n / tamanho));
+        }
+        this.entrada = new float[tamanho];
+        this.acumulador = new float[tamanho];
+        this.quadro = new float[tamanho];
+        this.modulos = new float[tamanho / 2 + 1];
+
+        // Janela de Hann na análise e na síntese: a soma dos quadrados sobrepostos vale 3N/(8H);
+        // o fator 1/N completa a FFT inversa
+        this.ganho = 1f / (3f * tamanho / (8f * salto)) / tamanho;
+    }
+
+    @Override
+    public void processar(float[] bloco, int quantidade) {
+        int base = tamanho - salto;
+        for (int n = 0; n < quantidade; n++) {
+            entrada[base + contador] = bloco[n];
+            bloco[n] = acumulador[contador];
+            if (++contador == salto) {
+                contador = 0;
+                sintetizarQuadro();
+            }
+        }
+    }
+
+    /**
+     * O quadro de saída fica completo depois de {@code tamanho} amostras
+     */
+    @Override
+    public int latencia() {
+        return tamanho;
+    }
+
+    private void sintetizarQuadro() {
+        for (int n = 0; n < tamanho; n++) {
+            quadro[n] = entrada[n] * janela[n];
+        }
+        fft.modulos(quadro, modulos);
+        fft.inversaReal(modulos, quadro);
+
+        // As amostras já emitidas saem do acumulador antes de somar o novo quadro
+        System.arraycopy(acumulador, salto, acumulador, 0, tamanho - salto);
+        Arrays.fill(acumulador, tamanho - salto, tamanho, 0f);
+
+        // Com fase zero o pulso fica na origem; o deslocamento de meio quadro o centraliza na janela
+        int meio = tamanho / 2;
+        for (int n = 0; n < tamanho; n++) {
+            acumulador[n] += quadro[(n + meio) & (tamanho - 1)] * janela[n] * ganho;
+        }
+
+        System.arraycopy(entrada, salto, entrada, 0, tamanho - salto);
+    }
+}
@@ -0,0 +1,194 @@
+package com.vozsocial.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache de transcrições em dois níveis: LRU limitado em memória e Redis compartilhado
+ * entre instâncias. Requisições simultâneas para a mesma chave aguardam uma única
+ * chamada ao Google AI (single-flight). Falhas do Redis não impedem a transcrição
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheTranscricao {
+
+    private static final String PREFIXO_REDIS = "vozsocial:transcricao:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${transcricao.cache.maximo-entradas:10000}")
+    private int maximoEntradas;
+
+    @Value("${transcricao.cache.redis.habilitado:true}")
+    private boolean redisHabilitado;
+
+    @Value("${transcricao.cache.redis.validade-horas:720}")
+    private long validadeHoras;
+
+    private final Map<String, String> memoria = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> maisAntiga) {
+            return size() > maximoEntradas;
+        }
+    };
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> emAndamento = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna a transcrição em cache ou a carrega uma única vez, mesmo com chamadas concorrentes
+     */
+    public String obter(String chave, Supplier<String> carregar) {
+        return aguardar(obterAsync(chave, () -> {
+            try {
+                return CompletableFuture.completedFuture(carregar.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    /**
+     * Versão assíncrona de {@link #obter}: a carga devolve um futuro e nenhuma thread
+     * fica bloqueada aguardando a origem
+     */
+    public CompletableFuture<String> obterAsync(String chave, Supplier<CompletableFuture<String>> carregar) {
+        String local = buscarEmMemoria(chave);
+        if (local != null) {
+            contar("memoria");
+            return CompletableFuture.completedFuture(local);
+        }
+
+        CompletableFuture<String> novo = new CompletableFuture<>();
+        CompletableFuture<String> existente = emAndamento.putIfAbsent(chave, novo);
+        if (existente != null) {
+            contar("compartilhada");
+            return existente;
+        }
+
+        String remoto = buscarNoRedis(chave);
+        if (remoto != null) {
+            contar("redis");
+            gravarEmMemoria(chave, remoto);
+            emAndamento.remove(chave, novo);
+            novo.complete(remoto);
+            return novo;
+        }
+
+        contar("origem");
+        CompletableFuture<String> carga;
+        try {
+            carga = carregar.get();
+        } catch (RuntimeException e) {
+            carga = CompletableFuture.failedFuture(e);
+        }
+
+        // A gravação no Redis é bloqueante e não deve ocupar a thread de I/O que completou a carga
+        carga.whenCompleteAsync((valor, erro) -> {
+            if (erro == null) {
+                gravarNoRedis(chave, valor);
+                gravarEmMemoria(chave, valor);
+            }
+            emAndamento.remove(chave, novo);
+            if (erro == null) {
+                novo.complete(valor);
+            } else {
+                novo.completeExceptionally(erro instanceof CompletionException && erro.getCause() != null
+                        ? erro.getCause() : erro);
+            }
+        });
+        return novo;
+    }
+
+    /**
+     * Consulta a transcrição em cache sem carregá-la, como no início de uma transcrição em stream
+     */
+    public Optional<String> buscar(String chave) {
+        String local = buscarEmMemoria(chave);
+        if (local != null) {
+            contar("memoria");
+            return Optional.of(local);
+        }
+
+        String remoto = buscarNoRedis(chave);
+        if (remoto != null) {
+            contar("redis");
+            gravarEmMemoria(chave, remoto);
+        }
+        return Optional.ofNullable(remoto);
+    }
+
+    /**
+     * Grava uma transcrição obtida fora de {@link #obterAsync}; o Redis é atualizado em
+     * segundo plano, pois o chamador pode ser uma thread de I/O
+     */
+    public void gravar(String chave, String valor) {
+        contar("origem");
+        gravarEmMemoria(chave, valor);
+        CompletableFuture.runAsync(() -> gravarNoRedis(chave, valor));
+    }
+
+    private synchronized String buscarEmMemoria(String chave) {
+        return memoria.get(chave);
+    }
+
+    private synchronized void gravarEmMemoria(String chave, String valor) {
+        memoria.put(chave, valor);
+    }
+
+    private String buscarNoRedis(String chave) {
+        if (!redisHabilitado) {
+            return null;
+        }
+        try {
+            return redisTemplate.opsForValue().get(PREFIXO_REDIS + chave);
+        } catch (RuntimeException e) {
+            log.warn("Cache de transcrição no Redis indisponível: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void gravarNoRedis(String chave, String valor) {
+        if (!redisHabilitado) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(PREFIXO_REDIS + chave, valor, Duration.ofHours(validadeHoras));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível gravar a transcrição no Redis: {}", e.getMessage());
+        }
+    }
+
+    private String aguardar(CompletableFuture<String> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void contar(String origem) {
+        Counter.builder("vozsocial.transcricao.cache")
+                .tag("origem", origem)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,12 @@
+package com.vozsocial.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita a execução de tarefas agendadas em background
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
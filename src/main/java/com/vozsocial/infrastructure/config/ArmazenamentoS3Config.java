@@ -0,0 +1,70 @@
+package com.vozsocial.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Configuração do cliente S3 usado pelo motor de armazenamento remoto; o endpoint
+ * pode apontar para qualquer serviço compatível, como o MinIO do docker-compose
+ */
+@Configuration
+@ConditionalOnProperty(name = "storage.audio.engine", havingValue = "s3")
+public class ArmazenamentoS3Config {
+
+    @Value("${storage.audio.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${storage.audio.s3.regiao:us-east-1}")
+    private String regiao;
+
+    @Value("${storage.audio.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${storage.audio.s3.chave-acesso:}")
+    private String chaveAcesso;
+
+    @Value("${storage.audio.s3.chave-secreta:}")
+    private String chaveSecreta;
+
+    @Value("${storage.audio.s3.maximo-conexoes:64}")
+    private int maximoConexoes;
+
+    @Bean(destroyMethod = "close")
+    public S3Client s3Client() {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(regiao))
+                .forcePathStyle(pathStyle)
+                .credentialsProvider(credenciais())
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maximoConexoes)
+                        .connectionTimeout(Duration.ofSeconds(5)));
+
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Usa as chaves configuradas quando informadas; caso contrário, a cadeia padrão da AWS
+     */
+    private AwsCredentialsProvider credenciais() {
+        if (chaveAcesso.isBlank()) {
+            return DefaultCredentialsProvider.create();
+        }
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(chaveAcesso, chaveSecreta));
+    }
+}
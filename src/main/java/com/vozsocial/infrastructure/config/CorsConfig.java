@@ -22,7 +22,7 @@ public class CorsConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         
         // Permite todos os métodos HTTP
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         
         // Permite todos os headers
         configuration.setAllowedHeaders(Arrays.asList("*"));
@@ -31,7 +31,9 @@ public class CorsConfig {
         configuration.setAllowCredentials(true);
         
         // Expõe headers de resposta
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Content-Length",
+                "Content-Range", "Accept-Ranges", "ETag", "Last-Modified", "Retry-After",
+                "Location", "Upload-Offset", "Upload-Length"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,60 @@
+package com.vozsocial.infrastructure.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuração do cliente HTTP do Google AI: conexões reutilizadas em pool,
+ * HTTP/2 quando o servidor negocia via TLS e timeouts de conexão e de resposta
+ */
+@Configuration
+public class GoogleAIClienteConfig {
+
+    @Value("${google.ai.api.base-url}")
+    private String baseUrl;
+
+    @Value("${google.ai.cliente.conexoes-maximas:64}")
+    private int conexoesMaximas;
+
+    @Value("${google.ai.cliente.timeout-conexao-ms:2000}")
+    private int timeoutConexaoMs;
+
+    @Value("${google.ai.cliente.espera-conexao-ms:1000}")
+    private long esperaConexaoMs;
+
+    @Value("${google.ai.cliente.timeout-resposta-ms:30000}")
+    private long timeoutRespostaMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider googleAIConexoes() {
+        return ConnectionProvider.builder("google-ai")
+                .maxConnections(conexoesMaximas)
+                .pendingAcquireTimeout(Duration.ofMillis(esperaConexaoMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+    }
+
+    @Bean
+    public WebClient googleAIWebClient(ConnectionProvider googleAIConexoes) {
+        HttpClient httpClient = HttpClient.create(googleAIConexoes)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutConexaoMs)
+                .responseTimeout(Duration.ofMillis(timeoutRespostaMs))
+                .compress(true);
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
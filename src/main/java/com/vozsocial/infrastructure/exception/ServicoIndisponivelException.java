@@ -0,0 +1,24 @@
+package com.vozsocial.infrastructure.exception;
+
+/**
+ * Exceção lançada quando uma dependência externa recusa a chamada de imediato,
+ * por disjuntor aberto, limite de chamadas simultâneas ou prazo esgotado
+ */
+public class ServicoIndisponivelException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public ServicoIndisponivelException(String mensagem, long retryAfterSegundos) {
+        super(mensagem);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public ServicoIndisponivelException(String mensagem, long retryAfterSegundos, Throwable causa) {
+        super(mensagem, causa);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+}
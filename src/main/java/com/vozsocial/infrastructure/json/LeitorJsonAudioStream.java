@@ -0,0 +1,213 @@
+package com.vozsocial.infrastructure.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Lê requisições JSON planas contendo um campo data URI de áudio sem materializar
+ * o campo em memória: os demais campos passam pelo Jackson e o conteúdo base64
+ * é decodificado incrementalmente e entregue ao consumidor como stream
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeitorJsonAudioStream {
+
+    private static final int TAMANHO_MAXIMO_CABECALHO = 128;
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Lê o corpo JSON, entregando os bytes decodificados do campo de áudio ao consumidor
+     *
+     * @param consumidor recebe o tipo MIME do data URI e o stream com os bytes de áudio decodificados
+     * @param descarte libera o resultado do consumidor quando o restante do JSON não pode ser lido
+     */
+    public <T, R> LeituraAudioStream<T, R> ler(InputStream corpo, Class<T> tipo, String campoAudio,
+                                               BiFunction<String, InputStream, R> consumidor,
+                                               Consumer<R> descarte) {
+        ObjectNode campos = objectMapper.createObjectNode();
+        String tipoMime = null;
+        R resultadoAudio = null;
+        boolean concluida = false;
+
+        try {
+            InputStream entrada = new BufferedInputStream(corpo, TAMANHO_BUFFER);
+            JsonParser parser = criarParser(entrada);
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Corpo da requisição deve ser um objeto JSON");
+            }
+
+            while (parser != null) {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.END_OBJECT || token == null) {
+                    parser.close();
+                    break;
+                }
+
+                String nomeCampo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+
+                if (!campoAudio.equals(nomeCampo) || valor != JsonToken.VALUE_STRING) {
+                    campos.set(nomeCampo, parser.readValueAsTree());
+                    continue;
+                }
+
+                // O parser parou logo após as aspas de abertura: assume a leitura do restante em modo bruto
+                ByteArrayOutputStream bufferizado = new ByteArrayOutputStream();
+                parser.releaseBuffered(bufferizado);
+                parser.close();
+
+                InputStream bruto = new SequenceInputStream(
+                        new ByteArrayInputStream(bufferizado.toByteArray()), entrada);
+
+                tipoMime = lerCabecalhoDataUri(bruto);
+                ValorStringJsonInputStream valorBase64 = new ValorStringJsonInputStream(bruto);
+                resultadoAudio = consumidor.apply(tipoMime, Base64.getDecoder().wrap(valorBase64));
+                valorBase64.consumirRestante();
+
+                parser = continuarAposValor(bruto);
+            }
+
+            T requisicao = objectMapper.treeToValue(campos, tipo);
+            concluida = true;
+            return new LeituraAudioStream<>(requisicao, tipoMime, resultadoAudio);
+        } catch (IOException e) {
+            log.warn("Erro ao ler requisição JSON de áudio: {}", e.getMessage());
+            throw new IllegalArgumentException("JSON da requisição inválido");
+        } finally {
+            // O campo de áudio já foi gravado quando o erro ocorre nos campos seguintes
+            if (!concluida && resultadoAudio != null) {
+                descarte.accept(resultadoAudio);
+            }
+        }
+    }
+
+    /**
+     * Lê o prefixo "data:audio/...;base64," e devolve o tipo MIME
+     */
+    private String lerCabecalhoDataUri(InputStream bruto) throws IOException {
+        StringBuilder cabecalho = new StringBuilder();
+        int c;
+        while ((c = bruto.read()) != ',') {
+            if (c == -1 || c == '"' || cabecalho.length() >= TAMANHO_MAXIMO_CABECALHO) {
+                throw new IllegalArgumentException("Formato de dados inválido");
+            }
+            cabecalho.append((char) c);
+        }
+
+        String valor = cabecalho.toString();
+        if (!valor.startsWith("data:audio/") || !valor.endsWith(";base64")) {
+            throw new IllegalArgumentException("Formato de dados inválido");
+        }
+        return valor.substring(5, valor.indexOf(';'));
+    }
+
+    /**
+     * Retoma o parse do objeto após o valor bruto, ou retorna null se o objeto terminou
+     */
+    private JsonParser continuarAposValor(InputStream bruto) throws IOException {
+        int c = bruto.read();
+        while (c != -1 && Character.isWhitespace(c)) {
+            c = bruto.read();
+        }
+
+        if (c == '}') {
+            return null;
+        }
+        if (c != ',') {
+            throw new IllegalArgumentException("JSON da requisição inválido");
+        }
+
+        // Reabre o objeto para que o Jackson leia os campos restantes normalmente
+        JsonParser parser = criarParser(new SequenceInputStream(
+                new ByteArrayInputStream("{".getBytes(StandardCharsets.US_ASCII)), bruto));
+        parser.nextToken();
+        return parser;
+    }
+
+    private JsonParser criarParser(InputStream entrada) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(entrada);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return parser;
+    }
+
+    /**
+     * Expõe o conteúdo de uma string JSON como stream, terminando nas aspas de fechamento
+     */
+    private static class ValorStringJsonInputStream extends InputStream {
+
+        private final InputStream origem;
+        private boolean finalizado;
+
+        ValorStringJsonInputStream(InputStream origem) {
+            this.origem = origem;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (finalizado) {
+                return -1;
+            }
+
+            int c = origem.read();
+            if (c == -1) {
+                throw new IllegalArgumentException("JSON da requisição inválido");
+            }
+            if (c == '"') {
+                finalizado = true;
+                return -1;
+            }
+            if (c == '\\') {
+                // Base64 só pode conter o escape "\/"
+                int escapado = origem.read();
+                if (escapado != '/') {
+                    throw new IllegalArgumentException("Formato de dados inválido");
+                }
+                return '/';
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+            if (tamanho == 0) {
+                return 0;
+            }
+
+            int lidos = 0;
+            while (lidos < tamanho) {
+                int c = read();
+                if (c == -1) {
+                    break;
+                }
+                destino[inicio + lidos++] = (byte) c;
+            }
+            return lidos == 0 ? -1 : lidos;
+        }
+
+        void consumirRestante() throws IOException {
+            while (read() != -1) {
+                // descarta até as aspas de fechamento
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.vozsocial.infrastructure.json;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado da leitura de uma requisição JSON com áudio em stream
+ */
+@Data
+@AllArgsConstructor
+public class LeituraAudioStream<T, R> {
+
+    private T requisicao;
+    private String tipoMime;
+    private R audio;
+}
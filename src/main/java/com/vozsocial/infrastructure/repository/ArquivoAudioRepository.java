@@ -1,12 +1,15 @@
 package com.vozsocial.infrastructure.repository;
 
 import com.vozsocial.domain.entity.ArquivoAudio;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -43,4 +46,58 @@ public interface ArquivoAudioRepository extends JpaRepository<ArquivoAudio, Long
      */
     @Query("SELECT a FROM ArquivoAudio a WHERE a.duracaoSegundos <= :duracaoMaxima")
     List<ArquivoAudio> buscarPorDuracaoMaxima(@Param("duracaoMaxima") java.math.BigDecimal duracaoMaxima);
+
+    /**
+     * Busca arquivos de áudio com ID maior que o informado, em ordem de ID (paginação por keyset)
+     */
+    @Query("SELECT a FROM ArquivoAudio a WHERE a.id > :ultimoId ORDER BY a.id")
+    List<ArquivoAudio> buscarAPartirDoId(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    /**
+     * Busca IDs no intervalo (ultimoId, idFinal] em ordem de ID (paginação por keyset),
+     * opcionalmente apenas dos arquivos ainda sem transcrição
+     */
+    @Query("SELECT a.id FROM ArquivoAudio a WHERE a.id > :ultimoId AND a.id <= :idFinal " +
+           "AND (:apenasSemTranscricao = false OR a.transcricao IS NULL OR a.transcricao = '') ORDER BY a.id")
+    List<Long> buscarIdsAPartirDoId(@Param("ultimoId") Long ultimoId, @Param("idFinal") Long idFinal,
+                                    @Param("apenasSemTranscricao") boolean apenasSemTranscricao, Pageable pageable);
+
+    /**
+     * Conta os arquivos no intervalo (ultimoId, idFinal], opcionalmente apenas os sem transcrição
+     */
+    @Query("SELECT COUNT(a) FROM ArquivoAudio a WHERE a.id > :ultimoId AND a.id <= :idFinal " +
+           "AND (:apenasSemTranscricao = false OR a.transcricao IS NULL OR a.transcricao = '')")
+    long contarAPartirDoId(@Param("ultimoId") Long ultimoId, @Param("idFinal") Long idFinal,
+                           @Param("apenasSemTranscricao") boolean apenasSemTranscricao);
+
+    /**
+     * Busca o maior ID de arquivo de áudio
+     */
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM ArquivoAudio a")
+    Long buscarMaiorId();
+
+    /**
+     * Grava a transcrição sem carregar a entidade
+     */
+    @Modifying
+    @Query("UPDATE ArquivoAudio a SET a.transcricao = :transcricao WHERE a.id = :id")
+    int atualizarTranscricao(@Param("id") Long id, @Param("transcricao") String transcricao);
+
+    /**
+     * Atualiza o caminho físico de todos os arquivos que apontam para o mesmo conteúdo
+     */
+    @Modifying
+    @Query("UPDATE ArquivoAudio a SET a.caminhoArquivo = :caminhoNovo WHERE a.caminhoArquivo = :caminhoAntigo")
+    int atualizarCaminho(@Param("caminhoAntigo") String caminhoAntigo, @Param("caminhoNovo") String caminhoNovo);
+
+    /**
+     * Verifica se algum arquivo de áudio aponta para o caminho físico
+     */
+    boolean existsByCaminhoArquivo(String caminhoArquivo);
+
+    /**
+     * Filtra, dentre os caminhos informados, os que ainda são referenciados
+     */
+    @Query("SELECT DISTINCT a.caminhoArquivo FROM ArquivoAudio a WHERE a.caminhoArquivo IN :caminhos")
+    List<String> buscarCaminhosReferenciados(@Param("caminhos") Collection<String> caminhos);
 }
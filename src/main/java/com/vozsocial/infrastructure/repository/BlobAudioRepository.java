@@ -0,0 +1,92 @@
+package com.vozsocial.infrastructure.repository;
+
+import com.vozsocial.domain.entity.BlobAudio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório para operações de persistência da entidade BlobAudio
+ */
+@Repository
+public interface BlobAudioRepository extends JpaRepository<BlobAudio, String> {
+
+    /**
+     * Registra uma referência ao conteúdo de forma atômica.
+     * Retorna 1 quando o blob foi criado e 2 quando já existia
+     */
+    @Modifying
+    @Query(value = "INSERT INTO blobs_audio (hash_conteudo, caminho_arquivo, tamanho_arquivo, referencias) " +
+                   "VALUES (:hash, :caminho, :tamanho, 1) " +
+                   "ON DUPLICATE KEY UPDATE referencias = referencias + 1", nativeQuery = true)
+    int registrarReferencia(@Param("hash") String hash, 
+                            @Param("caminho") String caminho, 
+                            @Param("tamanho") Long tamanho);
+
+    /**
+     * Busca o caminho físico do blob
+     */
+    @Query("SELECT b.caminhoArquivo FROM BlobAudio b WHERE b.hashConteudo = :hash")
+    String buscarCaminhoPorHash(@Param("hash") String hash);
+
+    /**
+     * Decrementa a contagem de referências do blob
+     */
+    @Modifying
+    @Query(value = "UPDATE blobs_audio SET referencias = referencias - 1 WHERE hash_conteudo = :hash", 
+           nativeQuery = true)
+    int liberarReferencia(@Param("hash") String hash);
+
+    /**
+     * Remove o blob caso não possua mais referências
+     */
+    @Modifying
+    @Query(value = "DELETE FROM blobs_audio WHERE hash_conteudo = :hash AND referencias <= 0", 
+           nativeQuery = true)
+    int removerSemReferencias(@Param("hash") String hash);
+
+    /**
+     * Atualiza o caminho físico do blob
+     */
+    @Modifying
+    @Query("UPDATE BlobAudio b SET b.caminhoArquivo = :caminhoNovo WHERE b.caminhoArquivo = :caminhoAntigo")
+    int atualizarCaminho(@Param("caminhoAntigo") String caminhoAntigo, @Param("caminhoNovo") String caminhoNovo);
+
+    /**
+     * Define o caminho físico do blob após a publicação do conteúdo
+     */
+    @Modifying
+    @Query("UPDATE BlobAudio b SET b.caminhoArquivo = :caminho WHERE b.hashConteudo = :hash")
+    int atualizarCaminhoPorHash(@Param("hash") String hash, @Param("caminho") String caminho);
+
+    /**
+     * Busca os blobs cujo caminho começa com o prefixo informado
+     */
+    @Query("SELECT b FROM BlobAudio b WHERE b.caminhoArquivo LIKE CONCAT(:prefixo, '%')")
+    List<BlobAudio> buscarPorPrefixoCaminho(@Param("prefixo") String prefixo);
+
+    /**
+     * Bloqueia o hash até o fim da transação, inclusive quando o blob não existe (gap lock),
+     * impedindo que um upload do mesmo conteúdo o registre enquanto o arquivo é removido
+     */
+    @Query(value = "SELECT caminho_arquivo FROM blobs_audio WHERE hash_conteudo = :hash FOR UPDATE", 
+           nativeQuery = true)
+    Optional<String> bloquearPorHash(@Param("hash") String hash);
+
+    /**
+     * Verifica se algum blob aponta para o caminho físico
+     */
+    boolean existsByCaminhoArquivo(String caminhoArquivo);
+
+    /**
+     * Filtra, dentre os caminhos informados, os que ainda são referenciados
+     */
+    @Query("SELECT b.caminhoArquivo FROM BlobAudio b WHERE b.caminhoArquivo IN :caminhos")
+    List<String> buscarCaminhosReferenciados(@Param("caminhos") Collection<String> caminhos);
+}
@@ -0,0 +1,73 @@
+package com.vozsocial.infrastructure.repository;
+
+import com.vozsocial.domain.entity.ExecucaoRetranscricao;
+import com.vozsocial.domain.enums.StatusExecucaoRetranscricao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório para operações de persistência da entidade ExecucaoRetranscricao
+ */
+@Repository
+public interface ExecucaoRetranscricaoRepository extends JpaRepository<ExecucaoRetranscricao, Long> {
+
+    /**
+     * Busca a execução mais recente
+     */
+    Optional<ExecucaoRetranscricao> findFirstByOrderByIdDesc();
+
+    /**
+     * Busca execuções ainda não encerradas
+     */
+    List<ExecucaoRetranscricao> findByStatusIn(Collection<StatusExecucaoRetranscricao> status);
+
+    /**
+     * Busca execuções em andamento sem instância responsável, inclusive as deixadas por uma
+     * instância que caiu antes de renovar a reserva
+     */
+    @Query("SELECT e.id FROM ExecucaoRetranscricao e " +
+           "WHERE e.status = com.vozsocial.domain.enums.StatusExecucaoRetranscricao.EM_ANDAMENTO " +
+           "AND (e.reservadoAte IS NULL OR e.reservadoAte < :agora) ORDER BY e.id")
+    List<Long> buscarSemReserva(@Param("agora") LocalDateTime agora);
+
+    /**
+     * Reserva a execução para esta instância; devolve 0 quando outra chegou antes
+     */
+    @Modifying
+    @Query("UPDATE ExecucaoRetranscricao e SET e.reservadoPor = :instancia, e.reservadoAte = :reservadoAte " +
+           "WHERE e.id = :id AND e.status = com.vozsocial.domain.enums.StatusExecucaoRetranscricao.EM_ANDAMENTO " +
+           "AND (e.reservadoAte IS NULL OR e.reservadoAte < :agora)")
+    int reservar(@Param("id") Long id, @Param("instancia") String instancia, @Param("agora") LocalDateTime agora,
+                 @Param("reservadoAte") LocalDateTime reservadoAte);
+
+    /**
+     * Estende a reserva enquanto ela ainda pertence à instância; devolve 0 quando outra a assumiu
+     */
+    @Modifying
+    @Query("UPDATE ExecucaoRetranscricao e SET e.reservadoAte = :reservadoAte " +
+           "WHERE e.id = :id AND e.reservadoPor = :instancia")
+    int renovarReserva(@Param("id") Long id, @Param("instancia") String instancia,
+                       @Param("reservadoAte") LocalDateTime reservadoAte);
+
+    /**
+     * Avança o checkpoint apenas se a instância ainda detém a reserva e o novo ID estiver à
+     * frente do atual; devolve 0 quando o lote deve ser descartado
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ExecucaoRetranscricao e SET e.ultimoId = :ultimoId, " +
+           "e.processados = e.processados + :processados, e.falhas = e.falhas + :falhas, " +
+           "e.ultimoErro = COALESCE(:ultimoErro, e.ultimoErro), e.reservadoAte = :reservadoAte " +
+           "WHERE e.id = :id AND e.reservadoPor = :instancia AND e.ultimoId < :ultimoId")
+    int avancarCheckpoint(@Param("id") Long id, @Param("instancia") String instancia,
+                          @Param("ultimoId") Long ultimoId, @Param("processados") long processados,
+                          @Param("falhas") long falhas, @Param("ultimoErro") String ultimoErro,
+                          @Param("reservadoAte") LocalDateTime reservadoAte);
+}
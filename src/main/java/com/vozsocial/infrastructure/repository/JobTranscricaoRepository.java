@@ -0,0 +1,50 @@
+package com.vozsocial.infrastructure.repository;
+
+import com.vozsocial.domain.entity.JobTranscricao;
+import com.vozsocial.domain.enums.StatusJobTranscricao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório para operações de persistência da entidade JobTranscricao
+ */
+@Repository
+public interface JobTranscricaoRepository extends JpaRepository<JobTranscricao, Long> {
+
+    /**
+     * Bloqueia jobs prontos para execução, pulando os já bloqueados por outros workers
+     */
+    @Query(value = "SELECT id FROM jobs_transcricao " +
+                   "WHERE status = 'PENDENTE' AND proxima_tentativa_em <= :agora " +
+                   "ORDER BY proxima_tentativa_em LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> bloquearProntos(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+
+    /**
+     * Reserva os jobs bloqueados até o fim do prazo, contando mais uma tentativa
+     */
+    @Modifying
+    @Query("UPDATE JobTranscricao j SET j.status = com.vozsocial.domain.enums.StatusJobTranscricao.PROCESSANDO, " +
+           "j.reservadoAte = :reservadoAte, j.tentativas = j.tentativas + 1 WHERE j.id IN :ids")
+    int reservar(@Param("ids") Collection<Long> ids, @Param("reservadoAte") LocalDateTime reservadoAte);
+
+    /**
+     * Devolve à fila os jobs cuja reserva expirou, deixados por workers interrompidos
+     */
+    @Modifying
+    @Query("UPDATE JobTranscricao j SET j.status = com.vozsocial.domain.enums.StatusJobTranscricao.PENDENTE, " +
+           "j.reservadoAte = NULL WHERE j.status = com.vozsocial.domain.enums.StatusJobTranscricao.PROCESSANDO AND j.reservadoAte < :agora")
+    int liberarReservasExpiradas(@Param("agora") LocalDateTime agora);
+
+    /**
+     * Conta jobs por status
+     */
+    long countByStatus(StatusJobTranscricao status);
+}
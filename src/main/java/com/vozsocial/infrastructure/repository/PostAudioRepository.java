@@ -1,6 +1,7 @@
 package com.vozsocial.infrastructure.repository;
 
 import com.vozsocial.domain.entity.PostAudio;
+import com.vozsocial.domain.enums.TipoFiltroVoz;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +29,40 @@ public interface PostAudioRepository extends JpaRepository<PostAudio, Long> {
      */
     Page<PostAudio> findByUsuarioIdOrderByCriadoEmDesc(Long usuarioId, Pageable pageable);
 
+    /**
+     * Busca a primeira página do feed por keyset, na ordem (criado_em, id) servida por idx_criado_em
+     */
+    @Query(value = "SELECT * FROM posts_audio ORDER BY criado_em DESC, id DESC LIMIT :limite",
+           nativeQuery = true)
+    List<PostAudio> buscarFeed(@Param("limite") int limite);
+
+    /**
+     * Busca a página do feed seguinte ao post (criadoEm, id) do cursor, sem OFFSET nem contagem
+     */
+    @Query(value = "SELECT * FROM posts_audio WHERE (criado_em, id) < (:criadoEm, :id) " +
+                   "ORDER BY criado_em DESC, id DESC LIMIT :limite",
+           nativeQuery = true)
+    List<PostAudio> buscarFeedAntesDe(@Param("criadoEm") LocalDateTime criadoEm, @Param("id") Long id,
+                                      @Param("limite") int limite);
+
+    /**
+     * Busca a primeira página dos posts do usuário por keyset, servida por idx_usuario_criado
+     */
+    @Query(value = "SELECT * FROM posts_audio WHERE usuario_id = :usuarioId " +
+                   "ORDER BY criado_em DESC, id DESC LIMIT :limite",
+           nativeQuery = true)
+    List<PostAudio> buscarDoUsuario(@Param("usuarioId") Long usuarioId, @Param("limite") int limite);
+
+    /**
+     * Busca a página dos posts do usuário seguinte ao post (criadoEm, id) do cursor
+     */
+    @Query(value = "SELECT * FROM posts_audio WHERE usuario_id = :usuarioId AND (criado_em, id) < (:criadoEm, :id) " +
+                   "ORDER BY criado_em DESC, id DESC LIMIT :limite",
+           nativeQuery = true)
+    List<PostAudio> buscarDoUsuarioAntesDe(@Param("usuarioId") Long usuarioId,
+                                           @Param("criadoEm") LocalDateTime criadoEm, @Param("id") Long id,
+                                           @Param("limite") int limite);
+
     /**
      * Busca posts processados
      */
@@ -37,6 +73,21 @@ public interface PostAudioRepository extends JpaRepository<PostAudio, Long> {
      */
     List<PostAudio> findByProcessadoFalseOrderByCriadoEmAsc();
 
+    /**
+     * Busca posts não processados que ainda não entraram na fila de transcrição
+     */
+    @Query("SELECT p.id FROM PostAudio p WHERE p.processado = false " +
+           "AND NOT EXISTS (SELECT j.id FROM JobTranscricao j WHERE j.postId = p.id) ORDER BY p.criadoEm ASC")
+    List<Long> buscarIdsNaoProcessadosSemJob(Pageable pageable);
+
+    /**
+     * Busca posts com filtro de voz cujo arquivo ainda não tem a variante registrada
+     */
+    @Query("SELECT p FROM PostAudio p WHERE p.tipoFiltroVoz IN :filtros " +
+           "AND NOT EXISTS (SELECT v.id FROM VarianteAudio v " +
+           "WHERE v.arquivoAudio = p.arquivoAudio AND v.tipoFiltroVoz = p.tipoFiltroVoz) ORDER BY p.criadoEm ASC")
+    List<PostAudio> buscarSemVariante(@Param("filtros") Collection<TipoFiltroVoz> filtros, Pageable pageable);
+
     /**
      * Busca posts por período
      */
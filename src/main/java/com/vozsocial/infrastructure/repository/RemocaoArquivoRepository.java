@@ -0,0 +1,36 @@
+package com.vozsocial.infrastructure.repository;
+
+import com.vozsocial.domain.entity.RemocaoArquivo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositório para operações de persistência da entidade RemocaoArquivo
+ */
+@Repository
+public interface RemocaoArquivoRepository extends JpaRepository<RemocaoArquivo, Long> {
+
+    /**
+     * Busca as remoções pendentes em ordem de registro
+     */
+    @Query("SELECT r FROM RemocaoArquivo r WHERE r.tentativas < :maximoTentativas ORDER BY r.id")
+    List<RemocaoArquivo> buscarPendentes(@Param("maximoTentativas") int maximoTentativas, Pageable pageable);
+
+    /**
+     * Verifica se o caminho já aguarda remoção
+     */
+    boolean existsByCaminhoArquivo(String caminhoArquivo);
+
+    /**
+     * Registra mais uma tentativa de remoção com falha
+     */
+    @Modifying
+    @Query("UPDATE RemocaoArquivo r SET r.tentativas = r.tentativas + 1 WHERE r.id = :id")
+    int registrarFalha(@Param("id") Long id);
+}
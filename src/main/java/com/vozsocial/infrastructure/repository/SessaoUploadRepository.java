@@ -0,0 +1,38 @@
+package com.vozsocial.infrastructure.repository;
+
+import com.vozsocial.domain.entity.SessaoUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório para operações de persistência da entidade SessaoUpload
+ */
+@Repository
+public interface SessaoUploadRepository extends JpaRepository<SessaoUpload, String> {
+
+    /**
+     * Avança o deslocamento apenas se ele ainda for o esperado, renovando a expiração
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SessaoUpload s SET s.deslocamento = :novoDeslocamento, s.expiraEm = :expiraEm " +
+           "WHERE s.id = :id AND s.deslocamento = :deslocamentoAtual")
+    int avancarDeslocamento(@Param("id") String id,
+                            @Param("deslocamentoAtual") Long deslocamentoAtual,
+                            @Param("novoDeslocamento") Long novoDeslocamento,
+                            @Param("expiraEm") LocalDateTime expiraEm);
+
+    /**
+     * Busca sessões expiradas
+     */
+    @Query("SELECT s FROM SessaoUpload s WHERE s.expiraEm < :agora ORDER BY s.expiraEm")
+    List<SessaoUpload> buscarExpiradas(@Param("agora") LocalDateTime agora, Pageable pageable);
+}
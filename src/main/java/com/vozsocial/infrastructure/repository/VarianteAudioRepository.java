@@ -0,0 +1,52 @@
+package com.vozsocial.infrastructure.repository;
+
+import com.vozsocial.domain.entity.VarianteAudio;
+import com.vozsocial.domain.enums.StatusVarianteAudio;
+import com.vozsocial.domain.enums.TipoFiltroVoz;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório para operações de persistência da entidade VarianteAudio
+ */
+@Repository
+public interface VarianteAudioRepository extends JpaRepository<VarianteAudio, Long> {
+
+    /**
+     * Bloqueia as próximas variantes prontas para renderização, pulando as já bloqueadas por outros workers
+     */
+    @Query(value = "SELECT id FROM variantes_audio " +
+                   "WHERE status = 'PENDENTE' AND proxima_tentativa_em <= :agora " +
+                   "ORDER BY proxima_tentativa_em LIMIT :limite FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Long> bloquearProntas(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+
+    /**
+     * Busca as variantes de um arquivo de áudio
+     */
+    List<VarianteAudio> findByArquivoAudioId(Long arquivoAudioId);
+
+    /**
+     * Busca a variante de um arquivo para o filtro informado
+     */
+    Optional<VarianteAudio> findByArquivoAudioIdAndTipoFiltroVoz(Long arquivoAudioId, TipoFiltroVoz tipoFiltroVoz);
+
+    /**
+     * Atualiza o caminho físico das variantes que apontam para o mesmo conteúdo
+     */
+    @Modifying
+    @Query("UPDATE VarianteAudio v SET v.caminhoArquivo = :caminhoNovo WHERE v.caminhoArquivo = :caminhoAntigo")
+    int atualizarCaminho(@Param("caminhoAntigo") String caminhoAntigo, @Param("caminhoNovo") String caminhoNovo);
+
+    /**
+     * Conta variantes por status
+     */
+    long countByStatus(StatusVarianteAudio status);
+}
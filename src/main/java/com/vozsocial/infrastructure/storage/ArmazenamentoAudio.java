@@ -0,0 +1,115 @@
+package com.vozsocial.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Motor de armazenamento dos conteúdos de áudio. O localizador devolvido na publicação
+ * é o valor persistido em caminho_arquivo e identifica o conteúdo para as demais operações
+ */
+public interface ArmazenamentoAudio {
+
+    /**
+     * Localizador registrado no banco antes da publicação do conteúdo
+     */
+    String localizadorPrevisto(String hash, String extensao);
+
+    /**
+     * Publica o arquivo gravado e a forma de onda opcional, devolvendo o localizador definitivo
+     */
+    String publicar(ArquivoGravado arquivoGravado, String extensao, byte[] waveform);
+
+    /**
+     * Verifica se o conteúdo do localizador está disponível
+     */
+    boolean existe(String localizador);
+
+    /**
+     * Localiza o trecho em disco local que contém o conteúdo; vazio para motores remotos ou em memória
+     */
+    Optional<RegiaoArmazenada> localizar(String localizador);
+
+    /**
+     * Indica se o localizador aponta para um arquivo individual no volume local
+     */
+    boolean armazenadoEmArquivoLocal(String localizador);
+
+    /**
+     * Lê a forma de onda associada ao conteúdo, se houver
+     */
+    Optional<byte[]> lerWaveform(String localizador);
+
+    /**
+     * Remove o conteúdo já sem referências no banco
+     */
+    void remover(String localizador) throws IOException;
+
+    /**
+     * Tamanho do conteúdo armazenado
+     */
+    default Optional<Long> tamanho(String localizador) {
+        return localizar(localizador).map(RegiaoArmazenada::getTamanho);
+    }
+
+    /**
+     * Copia um intervalo do conteúdo para o canal de destino, sem cópia para o heap quando em disco
+     */
+    default void transferir(String localizador, long inicio, long quantidade,
+                            WritableByteChannel destino) throws IOException {
+        RegiaoArmazenada regiao = localizar(localizador)
+                .orElseThrow(() -> new IOException("Conteúdo não encontrado: " + localizador));
+
+        try (FileChannel canal = FileChannel.open(regiao.getArquivo(), StandardOpenOption.READ)) {
+            long transferidos = 0;
+            while (transferidos < quantidade) {
+                long enviados = canal.transferTo(regiao.getPosicao() + inicio + transferidos,
+                        quantidade - transferidos, destino);
+                if (enviados <= 0) {
+                    throw new IOException("Transferência interrompida após " + transferidos + " bytes");
+                }
+                transferidos += enviados;
+            }
+        }
+    }
+
+    /**
+     * Lê o conteúdo completo com leituras posicionais sobre o trecho localizado
+     */
+    default byte[] ler(String localizador) throws IOException {
+        RegiaoArmazenada regiao = localizar(localizador)
+                .orElseThrow(() -> new IOException("Conteúdo não encontrado: " + localizador));
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(regiao.getTamanho()));
+        try (FileChannel canal = FileChannel.open(regiao.getArquivo(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (canal.read(buffer, regiao.getPosicao() + buffer.position()) < 0) {
+                    throw new IOException("Conteúdo truncado: " + localizador);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Abre o conteúdo para leitura sequencial, sem carregá-lo inteiro na memória
+     */
+    default InputStream abrir(String localizador) throws IOException {
+        RegiaoArmazenada regiao = localizar(localizador)
+                .orElseThrow(() -> new IOException("Conteúdo não encontrado: " + localizador));
+
+        FileChannel canal = FileChannel.open(regiao.getArquivo(), StandardOpenOption.READ);
+        try {
+            canal.position(regiao.getPosicao());
+            return new EntradaLimitada(Channels.newInputStream(canal), regiao.getTamanho());
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.vozsocial.infrastructure.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Motor de armazenamento com um arquivo por conteúdo, distribuído por prefixo de hash,
+ * e a forma de onda em um sidecar ao lado do áudio
+ */
+@Component
+@ConditionalOnProperty(name = "storage.audio.engine", havingValue = "arquivos", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ArmazenamentoAudioArquivos implements ArmazenamentoAudio {
+
+    protected final LayoutArmazenamentoAudio layoutArmazenamento;
+    protected final GravadorStreamAudio gravadorStreamAudio;
+
+    @Override
+    public String localizadorPrevisto(String hash, String extensao) {
+        return layoutArmazenamento.resolver(hash, extensao).toString();
+    }
+
+    @Override
+    public String publicar(ArquivoGravado arquivoGravado, String extensao, byte[] waveform) {
+        Path destino = layoutArmazenamento.resolver(arquivoGravado.getHashSha256(), extensao);
+        gravadorStreamAudio.confirmar(arquivoGravado, destino);
+
+        if (waveform != null) {
+            gravarWaveform(destino, waveform);
+        }
+        return destino.toString();
+    }
+
+    @Override
+    public boolean existe(String localizador) {
+        return Files.exists(Paths.get(localizador));
+    }
+
+    @Override
+    public Optional<RegiaoArmazenada> localizar(String localizador) {
+        Path caminho = Paths.get(localizador);
+        try {
+            return Optional.of(new RegiaoArmazenada(caminho, 0, Files.size(caminho)));
+        } catch (IOException e) {
+            log.warn("Conteúdo físico indisponível: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean armazenadoEmArquivoLocal(String localizador) {
+        return true;
+    }
+
+    @Override
+    public Optional<byte[]> lerWaveform(String localizador) {
+        Path sidecar = layoutArmazenamento.resolverWaveform(Paths.get(localizador));
+        try {
+            return Optional.of(Files.readAllBytes(sidecar));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Erro ao ler forma de onda: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void remover(String localizador) throws IOException {
+        Path arquivo = Paths.get(localizador);
+        Files.deleteIfExists(arquivo);
+        Files.deleteIfExists(layoutArmazenamento.resolverWaveform(arquivo));
+        log.debug("Arquivo físico removido: {}", localizador);
+    }
+
+    private void gravarWaveform(Path arquivoAudio, byte[] waveform) {
+        try {
+            Path temporario = Files.createTempFile(layoutArmazenamento.diretorioTemporario(), "waveform", ".part");
+            Files.write(temporario, waveform);
+            Files.move(temporario, layoutArmazenamento.resolverWaveform(arquivoAudio), 
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Erro ao gravar forma de onda: {}", e.getMessage());
+        }
+    }
+}
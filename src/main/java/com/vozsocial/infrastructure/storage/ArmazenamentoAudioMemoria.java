@@ -0,0 +1,151 @@
+package com.vozsocial.infrastructure.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Motor de armazenamento em memória, para desenvolvimento e testes: os conteúdos não
+ * sobrevivem a um reinício. Localizadores que não são de memória seguem sendo tratados
+ * como arquivos individuais
+ */
+@Component
+@ConditionalOnProperty(name = "storage.audio.engine", havingValue = "memoria")
+@Slf4j
+public class ArmazenamentoAudioMemoria extends ArmazenamentoAudioArquivos {
+
+    public static final String PREFIXO = "memoria:";
+
+    private final Map<String, byte[]> conteudos = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> waveforms = new ConcurrentHashMap<>();
+
+    public ArmazenamentoAudioMemoria(LayoutArmazenamentoAudio layoutArmazenamento,
+                                     GravadorStreamAudio gravadorStreamAudio) {
+        super(layoutArmazenamento, gravadorStreamAudio);
+    }
+
+    @Override
+    public String localizadorPrevisto(String hash, String extensao) {
+        return PREFIXO + hash + extensao;
+    }
+
+    @Override
+    public String publicar(ArquivoGravado arquivoGravado, String extensao, byte[] waveform) {
+        String localizador = localizadorPrevisto(arquivoGravado.getHashSha256(), extensao);
+
+        try {
+            conteudos.put(localizador, Files.readAllBytes(arquivoGravado.getCaminhoTemporario()));
+            if (waveform != null) {
+                waveforms.put(localizador, waveform);
+            }
+            return localizador;
+        } catch (IOException e) {
+            log.error("Erro ao carregar conteúdo em memória: {}", e.getMessage());
+            throw new RuntimeException("Erro ao salvar arquivo");
+        } finally {
+            gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+        }
+    }
+
+    @Override
+    public boolean existe(String localizador) {
+        if (!ehLocalizadorMemoria(localizador)) {
+            return super.existe(localizador);
+        }
+        return conteudos.containsKey(localizador);
+    }
+
+    @Override
+    public Optional<RegiaoArmazenada> localizar(String localizador) {
+        if (!ehLocalizadorMemoria(localizador)) {
+            return super.localizar(localizador);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean armazenadoEmArquivoLocal(String localizador) {
+        return !ehLocalizadorMemoria(localizador);
+    }
+
+    @Override
+    public Optional<Long> tamanho(String localizador) {
+        if (!ehLocalizadorMemoria(localizador)) {
+            return super.tamanho(localizador);
+        }
+        return Optional.ofNullable(conteudos.get(localizador)).map(dados -> (long) dados.length);
+    }
+
+    @Override
+    public void transferir(String localizador, long inicio, long quantidade,
+                           WritableByteChannel destino) throws IOException {
+        if (!ehLocalizadorMemoria(localizador)) {
+            super.transferir(localizador, inicio, quantidade, destino);
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(buscar(localizador), Math.toIntExact(inicio), Math.toIntExact(quantidade));
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    @Override
+    public byte[] ler(String localizador) throws IOException {
+        if (!ehLocalizadorMemoria(localizador)) {
+            return super.ler(localizador);
+        }
+        return buscar(localizador).clone();
+    }
+
+    @Override
+    public InputStream abrir(String localizador) throws IOException {
+        if (!ehLocalizadorMemoria(localizador)) {
+            return super.abrir(localizador);
+        }
+        return new ByteArrayInputStream(buscar(localizador));
+    }
+
+    @Override
+    public Optional<byte[]> lerWaveform(String localizador) {
+        if (!ehLocalizadorMemoria(localizador)) {
+            return super.lerWaveform(localizador);
+        }
+        return Optional.ofNullable(waveforms.get(localizador));
+    }
+
+    @Override
+    public void remover(String localizador) throws IOException {
+        if (!ehLocalizadorMemoria(localizador)) {
+            super.remover(localizador);
+            return;
+        }
+        conteudos.remove(localizador);
+        waveforms.remove(localizador);
+    }
+
+    /**
+     * Indica se o localizador aponta para um conteúdo mantido em memória
+     */
+    public static boolean ehLocalizadorMemoria(String localizador) {
+        return localizador != null && localizador.startsWith(PREFIXO);
+    }
+
+    private byte[] buscar(String localizador) throws IOException {
+        byte[] dados = conteudos.get(localizador);
+        if (dados == null) {
+            throw new IOException("Conteúdo não encontrado: " + localizador);
+        }
+        return dados;
+    }
+}
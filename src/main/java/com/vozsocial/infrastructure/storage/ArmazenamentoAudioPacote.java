@@ -0,0 +1,390 @@
+package com.vozsocial.infrastructure.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Motor de armazenamento que acrescenta os clipes em grandes segmentos append-only.
+ * O localizador ("pacote:segmento:posição:tamanho") funciona como índice do conteúdo;
+ * cada registro também carrega um cabeçalho próprio, o que permite recuperar o fim válido
+ * do segmento ativo após uma queda. Exclusões são recuperadas pela compactação em background.
+ * Localizadores que não são de pacote (arquivos anteriores à troca de motor) seguem sendo
+ * tratados como arquivos individuais
+ */
+@Component
+@ConditionalOnProperty(name = "storage.audio.engine", havingValue = "pacote")
+@Slf4j
+public class ArmazenamentoAudioPacote extends ArmazenamentoAudioArquivos {
+
+    public static final String PREFIXO = "pacote:";
+
+    private static final String LOCALIZADOR_PENDENTE = PREFIXO + "pendente";
+    private static final Pattern NOME_SEGMENTO = Pattern.compile("segmento-(\\d{6})\\.pack");
+    private static final byte[] ASSINATURA = {'V', 'Z', 'P', 'K'};
+    // Assinatura, tamanho do áudio, tamanho da forma de onda e hash SHA-256
+    private static final int TAMANHO_CABECALHO = 4 + 4 + 4 + 32;
+
+    @Value("${storage.audio.pacote.tamanho-segmento-mb:256}")
+    private long tamanhoSegmentoMb;
+
+    private final ReentrantLock escrita = new ReentrantLock();
+    private FileChannel segmentoAtivo;
+    private int numeroAtivo;
+    private long posicaoAtiva;
+
+    public ArmazenamentoAudioPacote(LayoutArmazenamentoAudio layoutArmazenamento,
+                                    GravadorStreamAudio gravadorStreamAudio) {
+        super(layoutArmazenamento, gravadorStreamAudio);
+    }
+
+    /**
+     * Abre o segmento mais recente, descartando um registro incompleto deixado no final
+     */
+    @PostConstruct
+    public void abrir() throws IOException {
+        Files.createDirectories(layoutArmazenamento.diretorioPacotes());
+
+        List<Integer> segmentos = listarSegmentos();
+        numeroAtivo = segmentos.isEmpty() ? 1 : segmentos.get(segmentos.size() - 1);
+        segmentoAtivo = abrirParaEscrita(numeroAtivo);
+        posicaoAtiva = recuperarFimValido(segmentoAtivo);
+
+        log.info("Storage em pacotes aberto. Segmento ativo: {}, posição: {}", numeroAtivo, posicaoAtiva);
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        escrita.lock();
+        try {
+            segmentoAtivo.close();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    @Override
+    public String localizadorPrevisto(String hash, String extensao) {
+        // O destino só é conhecido na escrita; o blob fica bloqueado pela transação até lá
+        return LOCALIZADOR_PENDENTE;
+    }
+
+    @Override
+    public String publicar(ArquivoGravado arquivoGravado, String extensao, byte[] waveform) {
+        byte[] dadosWaveform = waveform != null ? waveform : new byte[0];
+        ByteBuffer cabecalho = cabecalho(arquivoGravado.getTamanho(), dadosWaveform.length,
+                arquivoGravado.getHashSha256());
+
+        try (FileChannel origem = FileChannel.open(arquivoGravado.getCaminhoTemporario(), StandardOpenOption.READ)) {
+            return acrescentar(cabecalho, origem, 0, arquivoGravado.getTamanho(), ByteBuffer.wrap(dadosWaveform));
+        } catch (IOException e) {
+            log.error("Erro ao gravar conteúdo no pacote: {}", e.getMessage());
+            throw new RuntimeException("Erro ao salvar arquivo");
+        } finally {
+            gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+        }
+    }
+
+    @Override
+    public boolean existe(String localizador) {
+        if (!ehLocalizadorPacote(localizador)) {
+            return super.existe(localizador);
+        }
+        if (LOCALIZADOR_PENDENTE.equals(localizador)) {
+            return false;
+        }
+
+        Localizador local = Localizador.de(localizador);
+        try {
+            return Files.size(caminhoSegmento(local.segmento())) >= local.posicao() + local.tamanho();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<RegiaoArmazenada> localizar(String localizador) {
+        if (!ehLocalizadorPacote(localizador)) {
+            return super.localizar(localizador);
+        }
+        if (!existe(localizador)) {
+            log.warn("Conteúdo não encontrado no pacote: {}", localizador);
+            return Optional.empty();
+        }
+
+        Localizador local = Localizador.de(localizador);
+        return Optional.of(new RegiaoArmazenada(caminhoSegmento(local.segmento()), local.posicao(), local.tamanho()));
+    }
+
+    @Override
+    public boolean armazenadoEmArquivoLocal(String localizador) {
+        return !ehLocalizadorPacote(localizador);
+    }
+
+    @Override
+    public Optional<byte[]> lerWaveform(String localizador) {
+        if (!ehLocalizadorPacote(localizador)) {
+            return super.lerWaveform(localizador);
+        }
+        if (LOCALIZADOR_PENDENTE.equals(localizador)) {
+            return Optional.empty();
+        }
+
+        Localizador local = Localizador.de(localizador);
+        try (FileChannel canal = FileChannel.open(caminhoSegmento(local.segmento()), StandardOpenOption.READ)) {
+            int tamanhoWaveform = lerCabecalho(canal, local.posicao() - TAMANHO_CABECALHO).getInt(8);
+            if (tamanhoWaveform == 0) {
+                return Optional.empty();
+            }
+
+            ByteBuffer waveform = ByteBuffer.allocate(tamanhoWaveform);
+            lerCompleto(canal, waveform, local.posicao() + local.tamanho());
+            return Optional.of(waveform.array());
+        } catch (IOException e) {
+            log.warn("Erro ao ler forma de onda do pacote: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void remover(String localizador) throws IOException {
+        if (!ehLocalizadorPacote(localizador)) {
+            super.remover(localizador);
+            return;
+        }
+        // O espaço do registro é recuperado quando o segmento for compactado
+        log.debug("Registro liberado para compactação: {}", localizador);
+    }
+
+    /**
+     * Indica se o localizador aponta para um registro em pacote
+     */
+    public static boolean ehLocalizadorPacote(String localizador) {
+        return localizador != null && localizador.startsWith(PREFIXO);
+    }
+
+    /**
+     * Prefixo comum aos localizadores de um segmento
+     */
+    public String prefixoSegmento(int segmento) {
+        return PREFIXO + segmento + ":";
+    }
+
+    /**
+     * Segmentos que já não recebem escritas e podem ser compactados
+     */
+    public List<Integer> listarSegmentosSelados() throws IOException {
+        List<Integer> segmentos = listarSegmentos();
+        segmentos.removeIf(segmento -> segmento >= numeroAtivo);
+        return segmentos;
+    }
+
+    public long tamanhoSegmento(int segmento) throws IOException {
+        return Files.size(caminhoSegmento(segmento));
+    }
+
+    /**
+     * Tamanho ocupado pelo registro no segmento, incluindo cabeçalho e forma de onda
+     */
+    public long tamanhoRegistro(String localizador) throws IOException {
+        Localizador local = Localizador.de(localizador);
+        try (FileChannel canal = FileChannel.open(caminhoSegmento(local.segmento()), StandardOpenOption.READ)) {
+            int tamanhoWaveform = lerCabecalho(canal, local.posicao() - TAMANHO_CABECALHO).getInt(8);
+            return TAMANHO_CABECALHO + local.tamanho() + tamanhoWaveform;
+        }
+    }
+
+    /**
+     * Copia o registro para o segmento ativo e devolve o novo localizador
+     */
+    public String copiar(String localizador) throws IOException {
+        Localizador local = Localizador.de(localizador);
+        try (FileChannel origem = FileChannel.open(caminhoSegmento(local.segmento()), StandardOpenOption.READ)) {
+            ByteBuffer cabecalho = lerCabecalho(origem, local.posicao() - TAMANHO_CABECALHO);
+            int tamanhoWaveform = cabecalho.getInt(8);
+
+            ByteBuffer waveform = ByteBuffer.allocate(tamanhoWaveform);
+            lerCompleto(origem, waveform, local.posicao() + local.tamanho());
+            waveform.flip();
+
+            return acrescentar(cabecalho, origem, local.posicao(), local.tamanho(), waveform);
+        }
+    }
+
+    /**
+     * Apaga um segmento selado cujos registros vivos já foram copiados
+     */
+    public void removerSegmento(int segmento) throws IOException {
+        if (segmento >= numeroAtivo) {
+            throw new IllegalArgumentException("Segmento ativo não pode ser removido");
+        }
+        Files.deleteIfExists(caminhoSegmento(segmento));
+        log.info("Segmento {} removido após compactação", segmento);
+    }
+
+    /**
+     * Acrescenta um registro ao segmento ativo com um único fsync ao final
+     */
+    private String acrescentar(ByteBuffer cabecalho, FileChannel origem, long posicaoOrigem,
+                               long tamanhoAudio, ByteBuffer waveform) throws IOException {
+        long tamanhoRegistro = TAMANHO_CABECALHO + tamanhoAudio + waveform.remaining();
+
+        escrita.lock();
+        try {
+            if (posicaoAtiva > 0 && posicaoAtiva + tamanhoRegistro > tamanhoSegmentoMb * 1024 * 1024) {
+                rotacionar();
+            }
+
+            long inicio = posicaoAtiva;
+            try {
+                escreverCompleto(segmentoAtivo, cabecalho, inicio);
+
+                long inicioAudio = inicio + TAMANHO_CABECALHO;
+                long copiados = 0;
+                while (copiados < tamanhoAudio) {
+                    long transferidos = origem.transferTo(posicaoOrigem + copiados, tamanhoAudio - copiados,
+                            segmentoAtivo.position(inicioAudio + copiados));
+                    if (transferidos <= 0) {
+                        throw new IOException("Origem terminou antes do esperado");
+                    }
+                    copiados += transferidos;
+                }
+
+                escreverCompleto(segmentoAtivo, waveform, inicioAudio + tamanhoAudio);
+                segmentoAtivo.force(false);
+            } catch (IOException e) {
+                // Mantém o segmento terminando no último registro completo
+                segmentoAtivo.truncate(inicio);
+                throw e;
+            }
+
+            posicaoAtiva = inicio + tamanhoRegistro;
+            return prefixoSegmento(numeroAtivo) + (inicio + TAMANHO_CABECALHO) + ":" + tamanhoAudio;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private void rotacionar() throws IOException {
+        segmentoAtivo.force(true);
+        segmentoAtivo.close();
+
+        numeroAtivo++;
+        segmentoAtivo = abrirParaEscrita(numeroAtivo);
+        posicaoAtiva = 0;
+        log.info("Novo segmento de pacote iniciado: {}", numeroAtivo);
+    }
+
+    /**
+     * Percorre os cabeçalhos do segmento e trunca bytes após o último registro completo
+     */
+    private long recuperarFimValido(FileChannel canal) throws IOException {
+        long tamanho = canal.size();
+        long posicao = 0;
+        while (posicao + TAMANHO_CABECALHO <= tamanho) {
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            lerCompleto(canal, cabecalho, posicao);
+            if (!Arrays.equals(cabecalho.array(), 0, ASSINATURA.length, ASSINATURA, 0, ASSINATURA.length)) {
+                break;
+            }
+
+            long fim = posicao + TAMANHO_CABECALHO + Integer.toUnsignedLong(cabecalho.getInt(4))
+                    + Integer.toUnsignedLong(cabecalho.getInt(8));
+            if (fim > tamanho) {
+                break;
+            }
+            posicao = fim;
+        }
+
+        if (posicao < tamanho) {
+            log.warn("Descartando {} bytes incompletos no fim do segmento {}", tamanho - posicao, numeroAtivo);
+            canal.truncate(posicao);
+        }
+        return posicao;
+    }
+
+    private ByteBuffer cabecalho(long tamanhoAudio, int tamanhoWaveform, String hash) {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        cabecalho.put(ASSINATURA)
+                .putInt(Math.toIntExact(tamanhoAudio))
+                .putInt(tamanhoWaveform)
+                .put(HexFormat.of().parseHex(hash));
+        return cabecalho.flip();
+    }
+
+    private ByteBuffer lerCabecalho(FileChannel canal, long posicao) throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        lerCompleto(canal, cabecalho, posicao);
+        if (!Arrays.equals(cabecalho.array(), 0, ASSINATURA.length, ASSINATURA, 0, ASSINATURA.length)) {
+            throw new IOException("Registro de pacote inválido na posição " + posicao);
+        }
+        return cabecalho.flip();
+    }
+
+    private void lerCompleto(FileChannel canal, ByteBuffer destino, long posicao) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicao + destino.position()) < 0) {
+                throw new IOException("Fim inesperado do segmento");
+            }
+        }
+    }
+
+    private void escreverCompleto(FileChannel canal, ByteBuffer origem, long posicao) throws IOException {
+        while (origem.hasRemaining()) {
+            canal.write(origem, posicao + origem.position());
+        }
+    }
+
+    private FileChannel abrirParaEscrita(int segmento) throws IOException {
+        return FileChannel.open(caminhoSegmento(segmento),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private List<Integer> listarSegmentos() throws IOException {
+        List<Integer> segmentos = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(layoutArmazenamento.diretorioPacotes())) {
+            arquivos.forEach(arquivo -> {
+                Matcher matcher = NOME_SEGMENTO.matcher(arquivo.getFileName().toString());
+                if (matcher.matches()) {
+                    segmentos.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        segmentos.sort(null);
+        return segmentos;
+    }
+
+    private Path caminhoSegmento(int segmento) {
+        return layoutArmazenamento.diretorioPacotes().resolve(String.format("segmento-%06d.pack", segmento));
+    }
+
+    private record Localizador(int segmento, long posicao, long tamanho) {
+
+        static Localizador de(String localizador) {
+            String[] partes = localizador.substring(PREFIXO.length()).split(":");
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Localizador de pacote inválido: " + localizador);
+            }
+            return new Localizador(Integer.parseInt(partes[0]), Long.parseLong(partes[1]), Long.parseLong(partes[2]));
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.vozsocial.infrastructure.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Motor de armazenamento em um bucket compatível com S3. Conteúdos maiores que uma parte
+ * são enviados com multipart upload e lidos com GETs por intervalo, ambos em paralelo.
+ * Localizadores que não são do bucket (arquivos anteriores à troca de motor) seguem sendo
+ * tratados como arquivos individuais
+ */
+@Component
+@ConditionalOnProperty(name = "storage.audio.engine", havingValue = "s3")
+@Slf4j
+public class ArmazenamentoAudioS3 extends ArmazenamentoAudioArquivos {
+
+    public static final String PREFIXO = "s3:";
+
+    private static final String EXTENSAO_WAVEFORM = ".peaks";
+    private static final long BYTES_POR_MB = 1024L * 1024;
+
+    private final S3Client s3Client;
+
+    @Value("${storage.audio.s3.bucket:vozsocial-audio}")
+    private String bucket;
+
+    @Value("${storage.audio.s3.prefixo-chave:audio/}")
+    private String prefixoChave;
+
+    @Value("${storage.audio.s3.tamanho-parte-mb:8}")
+    private long tamanhoParteMb;
+
+    @Value("${storage.audio.s3.transferencias-paralelas:4}")
+    private int transferenciasParalelas;
+
+    @Value("${storage.audio.s3.criar-bucket:false}")
+    private boolean criarBucket;
+
+    private ExecutorService transferencias;
+
+    public ArmazenamentoAudioS3(LayoutArmazenamentoAudio layoutArmazenamento,
+                                GravadorStreamAudio gravadorStreamAudio,
+                                S3Client s3Client) {
+        super(layoutArmazenamento, gravadorStreamAudio);
+        this.s3Client = s3Client;
+    }
+
+    /**
+     * Cria o pool das transferências em partes e, se configurado, o bucket
+     */
+    @PostConstruct
+    public void iniciar() {
+        transferencias = Executors.newFixedThreadPool(transferenciasParalelas);
+
+        if (criarBucket) {
+            try {
+                s3Client.headBucket(b -> b.bucket(bucket));
+            } catch (NoSuchBucketException e) {
+                s3Client.createBucket(b -> b.bucket(bucket));
+                log.info("Bucket de áudio criado: {}", bucket);
+            }
+        }
+
+        log.info("Storage S3 configurado. Bucket: {}, partes de {} MB", bucket, tamanhoParteMb);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        transferencias.shutdown();
+    }
+
+    @Override
+    public String localizadorPrevisto(String hash, String extensao) {
+        return PREFIXO + chave(hash, extensao);
+    }
+
+    @Override
+    public String publicar(ArquivoGravado arquivoGravado, String extensao, byte[] waveform) {
+        String chave = chave(arquivoGravado.getHashSha256(), extensao);
+
+        try {
+            enviar(chave, arquivoGravado);
+
+            if (waveform != null) {
+                try {
+                    s3Client.putObject(b -> b.bucket(bucket).key(chave + EXTENSAO_WAVEFORM)
+                            .contentType("application/octet-stream"), RequestBody.fromBytes(waveform));
+                } catch (SdkException e) {
+                    log.warn("Erro ao gravar forma de onda no bucket: {}", e.getMessage());
+                }
+            }
+            return PREFIXO + chave;
+        } catch (IOException | SdkException e) {
+            log.error("Erro ao enviar conteúdo ao bucket: {}", e.getMessage());
+            throw new RuntimeException("Erro ao salvar arquivo");
+        } finally {
+            gravadorStreamAudio.descartar(arquivoGravado.getCaminhoTemporario());
+        }
+    }
+
+    @Override
+    public boolean existe(String localizador) {
+        if (!ehLocalizadorS3(localizador)) {
+            return super.existe(localizador);
+        }
+        return tamanho(localizador).isPresent();
+    }
+
+    @Override
+    public Optional<RegiaoArmazenada> localizar(String localizador) {
+        if (!ehLocalizadorS3(localizador)) {
+            return super.localizar(localizador);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean armazenadoEmArquivoLocal(String localizador) {
+        return !ehLocalizadorS3(localizador);
+    }
+
+    @Override
+    public Optional<Long> tamanho(String localizador) {
+        if (!ehLocalizadorS3(localizador)) {
+            return super.tamanho(localizador);
+        }
+
+        try {
+            return Optional.of(s3Client.headObject(b -> b.bucket(bucket).key(chaveDe(localizador))).contentLength());
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() != 404) {
+                log.warn("Erro ao consultar conteúdo no bucket: {}", e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void transferir(String localizador, long inicio, long quantidade,
+                           WritableByteChannel destino) throws IOException {
+        if (!ehLocalizadorS3(localizador)) {
+            super.transferir(localizador, inicio, quantidade, destino);
+            return;
+        }
+        if (quantidade <= 0) {
+            return;
+        }
+
+        try (ResponseInputStream<GetObjectResponse> entrada = abrirIntervalo(chaveDe(localizador), inicio, quantidade)) {
+            entrada.transferTo(Channels.newOutputStream(destino));
+        } catch (SdkException e) {
+            throw new IOException("Erro ao ler conteúdo do bucket: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lê o conteúdo completo; acima de uma parte, os intervalos são baixados em paralelo
+     */
+    @Override
+    public byte[] ler(String localizador) throws IOException {
+        if (!ehLocalizadorS3(localizador)) {
+            return super.ler(localizador);
+        }
+
+        String chave = chaveDe(localizador);
+        long tamanho = tamanho(localizador)
+                .orElseThrow(() -> new IOException("Conteúdo não encontrado: " + localizador));
+        byte[] dados = new byte[Math.toIntExact(tamanho)];
+        long tamanhoParte = tamanhoParteMb * BYTES_POR_MB;
+
+        List<Future<Void>> partes = new ArrayList<>();
+        for (long inicio = 0; inicio < tamanho; inicio += tamanhoParte) {
+            int posicao = (int) inicio;
+            int quantidade = (int) Math.min(tamanhoParte, tamanho - inicio);
+            partes.add(transferencias.submit(() -> {
+                lerIntervalo(chave, dados, posicao, quantidade);
+                return null;
+            }));
+        }
+        aguardar(partes);
+        return dados;
+    }
+
+    @Override
+    public InputStream abrir(String localizador) throws IOException {
+        if (!ehLocalizadorS3(localizador)) {
+            return super.abrir(localizador);
+        }
+
+        try {
+            return s3Client.getObject(b -> b.bucket(bucket).key(chaveDe(localizador)));
+        } catch (NoSuchKeyException e) {
+            throw new IOException("Conteúdo não encontrado: " + localizador, e);
+        } catch (SdkException e) {
+            throw new IOException("Erro ao ler conteúdo do bucket: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<byte[]> lerWaveform(String localizador) {
+        if (!ehLocalizadorS3(localizador)) {
+            return super.lerWaveform(localizador);
+        }
+
+        try {
+            return Optional.of(s3Client.getObjectAsBytes(b -> b.bucket(bucket)
+                    .key(chaveDe(localizador) + EXTENSAO_WAVEFORM)).asByteArray());
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (SdkException e) {
+            log.warn("Erro ao ler forma de onda do bucket: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void remover(String localizador) throws IOException {
+        if (!ehLocalizadorS3(localizador)) {
+            super.remover(localizador);
+            return;
+        }
+
+        String chave = chaveDe(localizador);
+        try {
+            s3Client.deleteObjects(b -> b.bucket(bucket).delete(d -> d.objects(
+                    ObjectIdentifier.builder().key(chave).build(),
+                    ObjectIdentifier.builder().key(chave + EXTENSAO_WAVEFORM).build())));
+            log.debug("Objeto removido do bucket: {}", chave);
+        } catch (SdkException e) {
+            throw new IOException("Erro ao remover objeto do bucket: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indica se o localizador aponta para um objeto no bucket
+     */
+    public static boolean ehLocalizadorS3(String localizador) {
+        return localizador != null && localizador.startsWith(PREFIXO);
+    }
+
+    /**
+     * Envia o arquivo em um único PUT ou, acima de uma parte, em multipart upload paralelo
+     */
+    private void enviar(String chave, ArquivoGravado arquivoGravado) throws IOException {
+        Path arquivo = arquivoGravado.getCaminhoTemporario();
+        String tipoMime = arquivoGravado.getFormato().getTipoMime();
+        long tamanho = arquivoGravado.getTamanho();
+        long tamanhoParte = tamanhoParteMb * BYTES_POR_MB;
+
+        if (tamanho <= tamanhoParte) {
+            s3Client.putObject(b -> b.bucket(bucket).key(chave).contentType(tipoMime), RequestBody.fromFile(arquivo));
+            return;
+        }
+
+        String uploadId = s3Client.createMultipartUpload(b -> b.bucket(bucket).key(chave).contentType(tipoMime))
+                .uploadId();
+        try {
+            List<Future<CompletedPart>> envios = new ArrayList<>();
+            int numeroParte = 1;
+            for (long inicio = 0; inicio < tamanho; inicio += tamanhoParte, numeroParte++) {
+                int numero = numeroParte;
+                long posicao = inicio;
+                int quantidade = (int) Math.min(tamanhoParte, tamanho - inicio);
+                envios.add(transferencias.submit(() -> enviarParte(chave, uploadId, numero, arquivo, posicao, quantidade)));
+            }
+
+            List<CompletedPart> partes = aguardar(envios);
+            s3Client.completeMultipartUpload(b -> b.bucket(bucket).key(chave).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(partes)));
+        } catch (IOException | SdkException e) {
+            try {
+                s3Client.abortMultipartUpload(b -> b.bucket(bucket).key(chave).uploadId(uploadId));
+            } catch (SdkException erroAbortar) {
+                log.warn("Erro ao abortar multipart upload {}: {}", uploadId, erroAbortar.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Envia uma parte lida com leitura posicional, mantida em memória para permitir novas tentativas do SDK
+     */
+    private CompletedPart enviarParte(String chave, String uploadId, int numero, Path arquivo,
+                                      long posicao, int quantidade) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(quantidade);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (canal.read(buffer, posicao + buffer.position()) < 0) {
+                    throw new IOException("Arquivo temporário truncado");
+                }
+            }
+        }
+        byte[] dados = buffer.array();
+
+        String etag = s3Client.uploadPart(b -> b.bucket(bucket).key(chave).uploadId(uploadId).partNumber(numero),
+                RequestBody.fromContentProvider(() -> new ByteArrayInputStream(dados), quantidade,
+                        "application/octet-stream")).eTag();
+        return CompletedPart.builder().partNumber(numero).eTag(etag).build();
+    }
+
+    private void lerIntervalo(String chave, byte[] dados, int posicao, int quantidade) throws IOException {
+        try (InputStream entrada = abrirIntervalo(chave, posicao, quantidade)) {
+            int lidos = entrada.readNBytes(dados, posicao, quantidade);
+            if (lidos < quantidade) {
+                throw new IOException("Conteúdo truncado no bucket: " + chave);
+            }
+        }
+    }
+
+    private ResponseInputStream<GetObjectResponse> abrirIntervalo(String chave, long inicio, long quantidade) {
+        return s3Client.getObject(b -> b.bucket(bucket).key(chave)
+                .range("bytes=" + inicio + "-" + (inicio + quantidade - 1)));
+    }
+
+    private <T> List<T> aguardar(List<Future<T>> tarefas) throws IOException {
+        List<T> resultados = new ArrayList<>(tarefas.size());
+        try {
+            for (Future<T> tarefa : tarefas) {
+                resultados.add(tarefa.get());
+            }
+            return resultados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tarefas.forEach(tarefa -> tarefa.cancel(true));
+            throw new IOException("Transferência interrompida", e);
+        } catch (ExecutionException e) {
+            tarefas.forEach(tarefa -> tarefa.cancel(true));
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException erroIO) {
+                throw erroIO;
+            }
+            if (causa instanceof UncheckedIOException erroIO) {
+                throw erroIO.getCause();
+            }
+            throw new IOException("Erro na transferência em partes: " + causa.getMessage(), causa);
+        }
+    }
+
+    /**
+     * Chave do objeto com os mesmos prefixos de hash do layout local, distribuindo a carga do bucket
+     */
+    private String chave(String hash, String extensao) {
+        return prefixoChave + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extensao;
+    }
+
+    private String chaveDe(String localizador) {
+        return localizador.substring(PREFIXO.length());
+    }
+}
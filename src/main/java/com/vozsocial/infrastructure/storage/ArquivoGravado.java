@@ -0,0 +1,26 @@
+package com.vozsocial.infrastructure.storage;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * Resultado da gravação de um stream de áudio em arquivo temporário
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArquivoGravado {
+
+    private Path caminhoTemporario;
+    private long tamanho;
+    private String hashSha256;
+    private FormatoAudio formato;
+    // Regiões com fala no formato de RegiaoFala.formatar; nulo quando não detectadas
+    private String regioesFala;
+}
@@ -0,0 +1,60 @@
+package com.vozsocial.infrastructure.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Entrada que termina após um número fixo de bytes, para ler um registro
+ * dentro de um arquivo maior, como os segmentos do storage em pacotes
+ */
+class EntradaLimitada extends FilterInputStream {
+
+    private long restantes;
+
+    EntradaLimitada(InputStream entrada, long limite) {
+        super(entrada);
+        this.restantes = limite;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (restantes <= 0) {
+            return -1;
+        }
+        int lido = super.read();
+        if (lido >= 0) {
+            restantes--;
+        }
+        return lido;
+    }
+
+    @Override
+    public int read(byte[] destino, int deslocamento, int quantidade) throws IOException {
+        if (restantes <= 0) {
+            return -1;
+        }
+        int lidos = super.read(destino, deslocamento, (int) Math.min(quantidade, restantes));
+        if (lidos > 0) {
+            restantes -= lidos;
+        }
+        return lidos;
+    }
+
+    @Override
+    public long skip(long quantidade) throws IOException {
+        long pulados = super.skip(Math.min(quantidade, restantes));
+        restantes -= pulados;
+        return pulados;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(super.available(), restantes);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.vozsocial.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Origem de um conteúdo de áudio aberta apenas no momento do envio
+ */
+@FunctionalInterface
+public interface FonteAudio {
+
+    InputStream abrir() throws IOException;
+}
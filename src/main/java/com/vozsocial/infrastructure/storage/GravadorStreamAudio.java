@@ -0,0 +1,279 @@
+package com.vozsocial.infrastructure.storage;
+
+import com.vozsocial.domain.enums.FormatoAudio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Grava streams de áudio em disco em uma única passada, calculando tamanho,
+ * hash SHA-256 e formato enquanto os bytes são escritos
+ */
+@Component
+@Slf4j
+public class GravadorStreamAudio {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final int TAMANHO_CABECALHO = 16;
+
+    /**
+     * Grava o stream em um arquivo temporário dentro do diretório informado
+     */
+    public ArquivoGravado gravar(InputStream origem, Path diretorioTemporario, long limiteBytes) {
+        criarDiretorio(diretorioTemporario);
+        Path temporario = diretorioTemporario.resolve(UUID.randomUUID() + ".part");
+
+        MessageDigest digest = criarDigest();
+        byte[] cabecalho = new byte[TAMANHO_CABECALHO];
+        int bytesCabecalho = 0;
+        long total = 0;
+
+        try (ReadableByteChannel entrada = Channels.newChannel(origem);
+             FileChannel saida = FileChannel.open(temporario,
+                     StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+            while (entrada.read(buffer) != -1) {
+                buffer.flip();
+                int lidos = buffer.remaining();
+                if (lidos == 0) {
+                    buffer.clear();
+                    continue;
+                }
+
+                total += lidos;
+                if (total > limiteBytes) {
+                    throw new IllegalArgumentException("Arquivo muito grande. Máximo 50MB");
+                }
+
+                if (bytesCabecalho < TAMANHO_CABECALHO) {
+                    int copiar = Math.min(TAMANHO_CABECALHO - bytesCabecalho, lidos);
+                    buffer.duplicate().get(cabecalho, bytesCabecalho, copiar);
+                    bytesCabecalho += copiar;
+                }
+
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    saida.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IllegalArgumentException e) {
+            descartar(temporario);
+            throw e;
+        } catch (IOException e) {
+            descartar(temporario);
+            log.error("Erro ao gravar stream de áudio: {}", e.getMessage());
+            throw new RuntimeException("Erro ao salvar arquivo");
+        }
+
+        return ArquivoGravado.builder()
+                .caminhoTemporario(temporario)
+                .tamanho(total)
+                .hashSha256(HexFormat.of().formatHex(digest.digest()))
+                .formato(FormatoAudio.detectar(cabecalho, bytesCabecalho))
+                .build();
+    }
+
+    /**
+     * Acrescenta o stream ao arquivo a partir do deslocamento informado, descartando bytes
+     * de partes anteriores não confirmadas; se o cliente desconectar, mantém o que já foi recebido
+     */
+    public long anexar(InputStream origem, Path arquivo, long deslocamento, long limiteBytes) {
+        long gravados = 0;
+
+        try (FileChannel saida = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (saida.size() < deslocamento) {
+                throw new IllegalStateException("Dados da sessão de upload incompletos no storage");
+            }
+            saida.truncate(deslocamento);
+            saida.position(deslocamento);
+
+            ReadableByteChannel entrada = Channels.newChannel(origem);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+            while (ler(entrada, buffer) != -1) {
+                buffer.flip();
+                gravados += buffer.remaining();
+                if (gravados > limiteBytes) {
+                    saida.truncate(deslocamento);
+                    throw new IllegalArgumentException("Parte excede o tamanho declarado do upload");
+                }
+                while (buffer.hasRemaining()) {
+                    saida.write(buffer);
+                }
+                buffer.clear();
+            }
+            saida.force(false);
+            return gravados;
+        } catch (IOException e) {
+            log.error("Erro ao anexar parte do upload: {}", e.getMessage());
+            throw new RuntimeException("Erro ao salvar arquivo");
+        }
+    }
+
+    /**
+     * Calcula hash e formato de um arquivo já gravado, limitado ao tamanho confirmado
+     */
+    public ArquivoGravado analisar(Path arquivo, long tamanho) {
+        MessageDigest digest = criarDigest();
+        byte[] cabecalho = new byte[TAMANHO_CABECALHO];
+        int bytesCabecalho = 0;
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (canal.size() < tamanho) {
+                throw new IllegalArgumentException("Dados da sessão de upload incompletos");
+            }
+            canal.truncate(tamanho);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+            long posicao = 0;
+            while (posicao < tamanho) {
+                buffer.clear();
+                int lidos = canal.read(buffer, posicao);
+                if (lidos <= 0) {
+                    break;
+                }
+                buffer.flip();
+                if (bytesCabecalho < TAMANHO_CABECALHO) {
+                    int copiar = Math.min(TAMANHO_CABECALHO - bytesCabecalho, lidos);
+                    buffer.duplicate().get(cabecalho, bytesCabecalho, copiar);
+                    bytesCabecalho += copiar;
+                }
+                digest.update(buffer);
+                posicao += lidos;
+            }
+        } catch (IOException e) {
+            log.error("Erro ao ler arquivo da sessão de upload: {}", e.getMessage());
+            throw new RuntimeException("Erro ao ler arquivo");
+        }
+
+        return ArquivoGravado.builder()
+                .caminhoTemporario(arquivo)
+                .tamanho(tamanho)
+                .hashSha256(HexFormat.of().formatHex(digest.digest()))
+                .formato(FormatoAudio.detectar(cabecalho, bytesCabecalho))
+                .build();
+    }
+
+    /**
+     * Cria no diretório temporário um hard link para o arquivo já analisado, ou uma cópia quando
+     * o volume não suporta links, para que o processamento possa consumi-lo sem apagar o original
+     */
+    public ArquivoGravado vincularTemporario(ArquivoGravado arquivoGravado, Path diretorioTemporario) {
+        criarDiretorio(diretorioTemporario);
+        Path temporario = diretorioTemporario.resolve(UUID.randomUUID() + ".part");
+
+        try {
+            try {
+                Files.createLink(temporario, arquivoGravado.getCaminhoTemporario());
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(arquivoGravado.getCaminhoTemporario(), temporario);
+            }
+        } catch (IOException e) {
+            descartar(temporario);
+            log.error("Erro ao vincular arquivo temporário: {}", e.getMessage());
+            throw new RuntimeException("Erro ao ler arquivo");
+        }
+
+        return ArquivoGravado.builder()
+                .caminhoTemporario(temporario)
+                .tamanho(arquivoGravado.getTamanho())
+                .hashSha256(arquivoGravado.getHashSha256())
+                .formato(arquivoGravado.getFormato())
+                .regioesFala(arquivoGravado.getRegioesFala())
+                .build();
+    }
+
+    /**
+     * Publica o arquivo temporário no destino final através de rename atômico; o conteúdo é
+     * levado ao disco antes do rename, para que uma queda logo depois não deixe o caminho
+     * publicado apontando para um arquivo truncado
+     */
+    public Path confirmar(ArquivoGravado arquivoGravado, Path destino) {
+        criarDiretorio(destino.getParent());
+
+        try {
+            try (FileChannel canal = FileChannel.open(arquivoGravado.getCaminhoTemporario(), StandardOpenOption.WRITE)) {
+                canal.force(true);
+            }
+            try {
+                Files.move(arquivoGravado.getCaminhoTemporario(), destino, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(arquivoGravado.getCaminhoTemporario(), destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+            sincronizarDiretorio(destino.getParent());
+            return destino;
+        } catch (IOException e) {
+            descartar(arquivoGravado.getCaminhoTemporario());
+            log.error("Erro ao confirmar arquivo de áudio: {}", e.getMessage());
+            throw new RuntimeException("Erro ao salvar arquivo");
+        }
+    }
+
+    /**
+     * Remove o arquivo temporário, ignorando falhas
+     */
+    public void descartar(Path temporario) {
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException e) {
+            log.warn("Erro ao remover arquivo temporário: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lê do cliente tratando a queda da conexão como fim da parte
+     */
+    private int ler(ReadableByteChannel entrada, ByteBuffer buffer) {
+        try {
+            return entrada.read(buffer);
+        } catch (IOException e) {
+            log.debug("Conexão encerrada durante o envio da parte: {}", e.getMessage());
+            return buffer.position() > 0 ? buffer.position() : -1;
+        }
+    }
+
+    /**
+     * Persiste a entrada do diretório criada pelo rename; nem todo sistema permite abrir
+     * diretórios, e nesse caso a sincronização é omitida
+     */
+    private void sincronizarDiretorio(Path diretorio) {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("Sincronização do diretório {} indisponível: {}", diretorio, e.getMessage());
+        }
+    }
+
+    private void criarDiretorio(Path diretorio) {
+        try {
+            Files.createDirectories(diretorio);
+        } catch (IOException e) {
+            log.error("Erro ao criar diretório: {}", e.getMessage());
+            throw new RuntimeException("Erro ao criar diretório de storage");
+        }
+    }
+
+    private MessageDigest criarDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
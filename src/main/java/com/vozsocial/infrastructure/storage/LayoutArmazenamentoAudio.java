@@ -0,0 +1,95 @@
+package com.vozsocial.infrastructure.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Define a distribuição dos arquivos de áudio em subdiretórios por prefixo hexadecimal
+ * do hash (ex.: ab/cd/abcdef...webm), evitando diretórios com milhões de entradas
+ */
+@Component
+public class LayoutArmazenamentoAudio {
+
+    private static final int CARACTERES_POR_NIVEL = 2;
+    private static final String EXTENSAO_WAVEFORM = ".peaks";
+
+    @Value("${storage.audio.base-path}")
+    private String caminhoBaseStorage;
+
+    @Value("${storage.audio.fan-out.niveis:2}")
+    private int niveis;
+
+    /**
+     * Resolve o caminho de um conteúdo endereçado pelo hash
+     */
+    public Path resolver(String hash, String extensao) {
+        return diretorioDoPrefixo(hash).resolve(hash + extensao);
+    }
+
+    /**
+     * Resolve o caminho de um arquivo legado, sem hash de conteúdo, a partir do seu nome
+     */
+    public Path resolverLegado(String nomeArquivo) {
+        return diretorioDoPrefixo(hashDoNome(nomeArquivo)).resolve(nomeArquivo);
+    }
+
+    /**
+     * Resolve o sidecar de forma de onda, gravado ao lado do arquivo de áudio
+     */
+    public Path resolverWaveform(Path arquivoAudio) {
+        return arquivoAudio.resolveSibling(arquivoAudio.getFileName() + EXTENSAO_WAVEFORM);
+    }
+
+    /**
+     * Diretório base do storage
+     */
+    public Path diretorioBase() {
+        return Paths.get(caminhoBaseStorage);
+    }
+
+    /**
+     * Diretório de arquivos temporários, no mesmo volume para permitir rename atômico
+     */
+    public Path diretorioTemporario() {
+        return diretorioBase().resolve(".tmp");
+    }
+
+    /**
+     * Diretório dos arquivos de sessões de upload retomável, no mesmo volume do storage
+     */
+    public Path diretorioSessoes() {
+        return diretorioBase().resolve(".sessoes");
+    }
+
+    /**
+     * Diretório dos segmentos do motor de armazenamento em pacotes
+     */
+    public Path diretorioPacotes() {
+        return diretorioBase().resolve("pacotes");
+    }
+
+    private Path diretorioDoPrefixo(String hash) {
+        Path diretorio = diretorioBase();
+        for (int nivel = 0; nivel < niveis; nivel++) {
+            int inicio = nivel * CARACTERES_POR_NIVEL;
+            diretorio = diretorio.resolve(hash.substring(inicio, inicio + CARACTERES_POR_NIVEL));
+        }
+        return diretorio;
+    }
+
+    private String hashDoNome(String nomeArquivo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(nomeArquivo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
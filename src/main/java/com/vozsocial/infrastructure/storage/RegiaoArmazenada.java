@@ -0,0 +1,22 @@
+package com.vozsocial.infrastructure.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * Trecho de um arquivo em disco que contém um conteúdo de áudio armazenado
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegiaoArmazenada {
+
+    private Path arquivo;
+    private long posicao;
+    private long tamanho;
+}
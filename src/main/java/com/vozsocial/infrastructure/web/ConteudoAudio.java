@@ -0,0 +1,27 @@
+package com.vozsocial.infrastructure.web;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * Descreve a região de arquivo que contém um áudio a ser entregue via HTTP; sem arquivo local,
+ * o conteúdo é lido do motor de armazenamento pelo localizador
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteudoAudio {
+
+    private String localizador;
+    private Path arquivo;
+    private long posicaoInicial;
+    private long tamanho;
+    private String tipoMime;
+    private String etag;
+    private long ultimaModificacao;
+}
@@ -0,0 +1,215 @@
+package com.vozsocial.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vozsocial.infrastructure.exception.ErrorResponse;
+import com.vozsocial.infrastructure.storage.LayoutArmazenamentoAudio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controle de admissão dos endpoints de upload e criação de posts: limita requisições
+ * e bytes em andamento e recusa escritas quando o volume de storage está quase cheio,
+ * respondendo 503 com Retry-After em vez de deixar a carga esgotar heap, threads e disco
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ControleAdmissaoUploadFilter extends OncePerRequestFilter {
+
+    private static final List<String> CAMINHOS_CONTROLADOS = List.of(
+            "/audio/upload/**", "/audio/upload-base64/**", "/audio/stream", "/audio/sessoes-upload/**",
+            "/posts/com-*/**");
+    // Concluem uploads já recebidos sem enviar o áudio de novo; recusá-los prenderia o espaço já ocupado
+    private static final List<String> CAMINHOS_FINALIZACAO = List.of(
+            "/audio/sessoes-upload/*/finalizar", "/posts/com-sessao-upload/**");
+    // Só os métodos que enviam o áudio no corpo; DELETE cancela sessões e libera espaço
+    private static final List<HttpMethod> METODOS_CONTROLADOS = List.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH);
+    private static final long BYTES_POR_MB = 1024L * 1024;
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper;
+    private final LayoutArmazenamentoAudio layoutArmazenamento;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.audio.admissao.habilitada:true}")
+    private boolean habilitado;
+
+    @Value("${storage.audio.admissao.maximo-requisicoes:16}")
+    private int maximoRequisicoes;
+
+    @Value("${storage.audio.admissao.maximo-bytes-mb:256}")
+    private long maximoBytesMb;
+
+    @Value("${storage.audio.admissao.bytes-tamanho-desconhecido-mb:50}")
+    private long tamanhoDesconhecidoMb;
+
+    @Value("${storage.audio.admissao.espera-maxima-ms:200}")
+    private long esperaMaximaMs;
+
+    @Value("${storage.audio.admissao.espaco-livre-minimo-mb:1024}")
+    private long espacoLivreMinimoMb;
+
+    @Value("${storage.audio.admissao.retry-after-segundos:5}")
+    private int retryAfterSegundos;
+
+    private Semaphore requisicoes;
+    private final AtomicLong bytesEmAndamento = new AtomicLong();
+    private final AtomicInteger aguardando = new AtomicInteger();
+
+    /**
+     * Cria o orçamento de requisições e exporta o estado da fila como métricas
+     */
+    @PostConstruct
+    public void inicializar() {
+        requisicoes = new Semaphore(maximoRequisicoes, true);
+
+        Gauge.builder("vozsocial.upload.admissao.requisicoes.ativas",
+                        () -> maximoRequisicoes - requisicoes.availablePermits())
+                .description("Uploads admitidos em processamento")
+                .register(meterRegistry);
+        Gauge.builder("vozsocial.upload.admissao.requisicoes.aguardando", aguardando, AtomicInteger::get)
+                .description("Uploads aguardando uma vaga")
+                .register(meterRegistry);
+        Gauge.builder("vozsocial.upload.admissao.bytes.ativos", bytesEmAndamento, AtomicLong::get)
+                .description("Bytes reservados pelos uploads em processamento")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!habilitado || METODOS_CONTROLADOS.stream().noneMatch(metodo -> metodo.matches(request.getMethod()))) {
+            return true;
+        }
+
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return CAMINHOS_CONTROLADOS.stream().noneMatch(padrao -> matcher.match(padrao, caminho))
+                || CAMINHOS_FINALIZACAO.stream().anyMatch(padrao -> matcher.match(padrao, caminho));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (espacoLivreInsuficiente()) {
+            rejeitar(request, response, "disco", "Espaço em disco insuficiente para novos uploads");
+            return;
+        }
+
+        if (!adquirirVaga()) {
+            rejeitar(request, response, "requisicoes", "Limite de uploads simultâneos atingido");
+            return;
+        }
+
+        try {
+            long reserva = request.getContentLengthLong() >= 0
+                    ? request.getContentLengthLong() : tamanhoDesconhecidoMb * BYTES_POR_MB;
+            if (!reservarBytes(reserva)) {
+                rejeitar(request, response, "bytes", "Limite de bytes em processamento atingido");
+                return;
+            }
+
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                bytesEmAndamento.addAndGet(-reserva);
+            }
+        } finally {
+            requisicoes.release();
+        }
+    }
+
+    private boolean adquirirVaga() {
+        if (requisicoes.tryAcquire()) {
+            return true;
+        }
+
+        aguardando.incrementAndGet();
+        try {
+            return requisicoes.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            aguardando.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reserva os bytes da requisição; uma requisição sozinha é sempre admitida,
+     * mesmo que exceda o orçamento, para não bloquear uploads grandes indefinidamente
+     */
+    private boolean reservarBytes(long reserva) {
+        while (true) {
+            long atual = bytesEmAndamento.get();
+            if (atual > 0 && atual + reserva > maximoBytesMb * BYTES_POR_MB) {
+                return false;
+            }
+            if (bytesEmAndamento.compareAndSet(atual, atual + reserva)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean espacoLivreInsuficiente() {
+        try {
+            Path diretorio = layoutArmazenamento.diretorioBase();
+            if (!Files.exists(diretorio)) {
+                return false;
+            }
+            return Files.getFileStore(diretorio).getUsableSpace() < espacoLivreMinimoMb * BYTES_POR_MB;
+        } catch (IOException e) {
+            log.warn("Não foi possível verificar o espaço livre do storage: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void rejeitar(HttpServletRequest request, HttpServletResponse response,
+                          String motivo, String mensagem) throws IOException {
+        log.warn("Upload recusado pelo controle de admissão ({}): {}", motivo, request.getRequestURI());
+        Counter.builder("vozsocial.upload.admissao.rejeicoes")
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Serviço Indisponível")
+                .message(mensagem)
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,238 @@
+package com.vozsocial.infrastructure.web;
+
+import com.vozsocial.infrastructure.storage.ArmazenamentoAudio;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entrega arquivos de áudio via HTTP com suporte a Range (simples e múltiplo),
+ * requisições condicionais e transferência sem cópia para o espaço de usuário
+ * (sendfile do Tomcat quando disponível, FileChannel.transferTo caso contrário).
+ * Conteúdos fora do disco local são copiados do motor de armazenamento por intervalo
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntregaConteudoAudio {
+
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "public, max-age=86400";
+
+    private final ArmazenamentoAudio armazenamentoAudio;
+
+    /**
+     * Escreve o conteúdo na resposta respeitando os cabeçalhos Range, If-Range,
+     * If-None-Match e If-Modified-Since da requisição
+     */
+    public void entregar(ConteudoAudio conteudo, HttpServletRequest requisicao,
+                         HttpServletResponse resposta) throws IOException {
+        resposta.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        resposta.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        // Define ETag/Last-Modified e responde 304 quando o cliente já possui a versão atual
+        if (new ServletWebRequest(requisicao, resposta)
+                .checkNotModified(conteudo.getEtag(), conteudo.getUltimaModificacao())) {
+            return;
+        }
+
+        long tamanho = conteudo.getTamanho();
+        String cabecalhoRange = requisicao.getHeader(HttpHeaders.RANGE);
+
+        if (cabecalhoRange == null || !rangeAplicavel(conteudo, requisicao)) {
+            resposta.setStatus(HttpServletResponse.SC_OK);
+            resposta.setContentType(conteudo.getTipoMime());
+            resposta.setContentLengthLong(tamanho);
+            enviarIntervalo(conteudo, 0, tamanho, requisicao, resposta);
+            return;
+        }
+
+        List<long[]> intervalos;
+        try {
+            intervalos = calcularIntervalos(HttpRange.parseRanges(cabecalhoRange), tamanho);
+        } catch (IllegalArgumentException e) {
+            resposta.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            resposta.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+            return;
+        }
+
+        resposta.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        if (intervalos.size() == 1) {
+            long inicio = intervalos.get(0)[0];
+            long fim = intervalos.get(0)[1];
+
+            resposta.setContentType(conteudo.getTipoMime());
+            resposta.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+            resposta.setContentLengthLong(fim - inicio + 1);
+            enviarIntervalo(conteudo, inicio, fim - inicio + 1, requisicao, resposta);
+            return;
+        }
+
+        enviarMultiplosIntervalos(conteudo, intervalos, requisicao, resposta);
+    }
+
+    /**
+     * Verifica o If-Range: o Range só vale se o validador ainda corresponder ao conteúdo
+     */
+    private boolean rangeAplicavel(ConteudoAudio conteudo, HttpServletRequest requisicao) {
+        String ifRange = requisicao.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(conteudo.getEtag());
+        }
+
+        long dataIfRange = requisicao.getDateHeader(HttpHeaders.IF_RANGE);
+        return dataIfRange != -1 && conteudo.getUltimaModificacao() / 1000 <= dataIfRange / 1000;
+    }
+
+    /**
+     * Converte os ranges em pares [início, fim] inclusivos, ordenados e sem sobreposição
+     */
+    private List<long[]> calcularIntervalos(List<HttpRange> ranges, long tamanho) {
+        List<long[]> intervalos = new ArrayList<>();
+        for (HttpRange range : ranges) {
+            long inicio = range.getRangeStart(tamanho);
+            long fim = Math.min(range.getRangeEnd(tamanho), tamanho - 1);
+            // Ranges que começam após o fim do conteúdo são ignorados
+            if (inicio < tamanho && inicio <= fim) {
+                intervalos.add(new long[]{inicio, fim});
+            }
+        }
+        if (intervalos.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum range satisfatível");
+        }
+        intervalos.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        List<long[]> combinados = new ArrayList<>();
+        for (long[] intervalo : intervalos) {
+            long[] ultimo = combinados.isEmpty() ? null : combinados.get(combinados.size() - 1);
+            if (ultimo != null && intervalo[0] <= ultimo[1] + 1) {
+                ultimo[1] = Math.max(ultimo[1], intervalo[1]);
+            } else {
+                combinados.add(intervalo);
+            }
+        }
+        return combinados;
+    }
+
+    /**
+     * Envia um único intervalo, delegando ao sendfile do container quando suportado
+     */
+    private void enviarIntervalo(ConteudoAudio conteudo, long inicio, long quantidade,
+                                 HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        if ("HEAD".equals(requisicao.getMethod())) {
+            return;
+        }
+
+        long posicao = conteudo.getPosicaoInicial() + inicio;
+
+        if (conteudo.getArquivo() == null) {
+            OutputStream saida = resposta.getOutputStream();
+            armazenamentoAudio.transferir(conteudo.getLocalizador(), posicao, quantidade, Channels.newChannel(saida));
+            saida.flush();
+            return;
+        }
+
+        if (Boolean.TRUE.equals(requisicao.getAttribute(SENDFILE_SUPORTADO))) {
+            requisicao.setAttribute(SENDFILE_ARQUIVO, conteudo.getArquivo().toAbsolutePath().toString());
+            requisicao.setAttribute(SENDFILE_INICIO, posicao);
+            requisicao.setAttribute(SENDFILE_FIM, posicao + quantidade);
+            return;
+        }
+
+        OutputStream saida = resposta.getOutputStream();
+        try (FileChannel canal = FileChannel.open(conteudo.getArquivo(), StandardOpenOption.READ)) {
+            transferir(canal, posicao, quantidade, Channels.newChannel(saida));
+        }
+        saida.flush();
+    }
+
+    /**
+     * Envia vários intervalos como multipart/byteranges
+     */
+    private void enviarMultiplosIntervalos(ConteudoAudio conteudo, List<long[]> intervalos,
+                                           HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        String separador = UUID.randomUUID().toString().replace("-", "");
+        long tamanho = conteudo.getTamanho();
+
+        List<byte[]> cabecalhosPartes = new ArrayList<>();
+        long tamanhoTotal = 0;
+        for (long[] intervalo : intervalos) {
+            String cabecalhoParte = "\r\n--" + separador + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + conteudo.getTipoMime() + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + intervalo[0] + "-" + intervalo[1] + "/" + tamanho
+                    + "\r\n\r\n";
+            byte[] bytesCabecalho = cabecalhoParte.getBytes(StandardCharsets.US_ASCII);
+            cabecalhosPartes.add(bytesCabecalho);
+            tamanhoTotal += bytesCabecalho.length + (intervalo[1] - intervalo[0] + 1);
+        }
+        byte[] fechamento = ("\r\n--" + separador + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        tamanhoTotal += fechamento.length;
+
+        resposta.setContentType("multipart/byteranges; boundary=" + separador);
+        resposta.setContentLengthLong(tamanhoTotal);
+
+        if ("HEAD".equals(requisicao.getMethod())) {
+            return;
+        }
+
+        OutputStream saida = resposta.getOutputStream();
+        WritableByteChannel destino = Channels.newChannel(saida);
+        if (conteudo.getArquivo() == null) {
+            for (int i = 0; i < intervalos.size(); i++) {
+                long[] intervalo = intervalos.get(i);
+                saida.write(cabecalhosPartes.get(i));
+                armazenamentoAudio.transferir(conteudo.getLocalizador(), conteudo.getPosicaoInicial() + intervalo[0],
+                        intervalo[1] - intervalo[0] + 1, destino);
+            }
+        } else {
+            try (FileChannel canal = FileChannel.open(conteudo.getArquivo(), StandardOpenOption.READ)) {
+                for (int i = 0; i < intervalos.size(); i++) {
+                    long[] intervalo = intervalos.get(i);
+                    saida.write(cabecalhosPartes.get(i));
+                    transferir(canal, conteudo.getPosicaoInicial() + intervalo[0],
+                            intervalo[1] - intervalo[0] + 1, destino);
+                }
+            }
+        }
+        saida.write(fechamento);
+        saida.flush();
+    }
+
+    private void transferir(FileChannel canal, long posicao, long quantidade,
+                            WritableByteChannel destino) throws IOException {
+        long transferidos = 0;
+        while (transferidos < quantidade) {
+            long enviados = canal.transferTo(posicao + transferidos, quantidade - transferidos, destino);
+            if (enviados <= 0) {
+                log.warn("Transferência interrompida após {} de {} bytes", transferidos, quantidade);
+                break;
+            }
+            transferidos += enviados;
+        }
+    }
+}
@@ -1,24 +1,50 @@
 package com.vozsocial.presentation.controller;
 
 import com.vozsocial.application.dto.ArquivoAudioDto;
+import com.vozsocial.application.dto.SessaoUploadDto;
+import com.vozsocial.application.dto.VarianteAudioDto;
+import com.vozsocial.application.dto.WaveformDto;
 import com.vozsocial.application.dto.request.TranscricaoRequest;
 import com.vozsocial.application.dto.request.TransformacaoVozRequest;
 import com.vozsocial.application.dto.response.TranscricaoResponse;
+import com.vozsocial.application.dto.response.TrechoTranscricaoResponse;
 import com.vozsocial.application.dto.response.TransformacaoVozResponse;
+import com.vozsocial.domain.enums.TipoFiltroVoz;
 import com.vozsocial.domain.service.ArquivoAudioService;
 import com.vozsocial.domain.service.GoogleAIService;
+import com.vozsocial.domain.service.SessaoUploadService;
+import com.vozsocial.infrastructure.ai.PrioridadeChamada;
+import com.vozsocial.infrastructure.audio.efeito.MotorEfeitosVoz;
+import com.vozsocial.infrastructure.exception.ServicoIndisponivelException;
+import com.vozsocial.infrastructure.web.ConteudoAudio;
+import com.vozsocial.infrastructure.web.EntregaConteudoAudio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller responsável pelos endpoints relacionados ao processamento de áudio
@@ -28,11 +54,15 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 @Tag(name = "Áudio", description = "Operações relacionadas ao processamento de áudio")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {"Content-Range", "Accept-Ranges", "ETag", "Last-Modified",
+                                                  "Location", "Upload-Offset", "Upload-Length"})
 public class AudioController {
 
     private final ArquivoAudioService arquivoAudioService;
     private final GoogleAIService googleAIService;
+    private final EntregaConteudoAudio entregaConteudoAudio;
+    private final SessaoUploadService sessaoUploadService;
+    private final MotorEfeitosVoz motorEfeitosVoz;
 
     /**
      * Busca arquivo de áudio por ID
@@ -49,6 +79,76 @@ public class AudioController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Reproduz o conteúdo do arquivo de áudio
+     */
+    @GetMapping("/{id}/conteudo")
+    @Operation(summary = "Reproduzir áudio", 
+               description = "Entrega os bytes do áudio com suporte a Range, ETag e Last-Modified; " +
+                             "com filtro, entrega a variante pré-renderizada")
+    public void reproduzirConteudo(
+            @Parameter(description = "ID do arquivo de áudio") @PathVariable Long id,
+            @Parameter(description = "Filtro de voz da variante") @RequestParam(required = false) TipoFiltroVoz filtro,
+            HttpServletRequest requisicao,
+            HttpServletResponse resposta) throws IOException {
+        
+        log.debug("Requisição para reproduzir arquivo de áudio ID: {} - filtro: {}", id, filtro);
+        
+        Optional<ConteudoAudio> conteudo = arquivoAudioService.buscarConteudo(id, filtro);
+        if (conteudo.isEmpty()) {
+            resposta.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        
+        entregaConteudoAudio.entregar(conteudo.get(), requisicao, resposta);
+    }
+
+    /**
+     * Lista as variantes com filtro de voz do arquivo e sua situação
+     */
+    @GetMapping("/{id}/variantes")
+    @Operation(summary = "Variantes do áudio", 
+               description = "Lista as versões com filtro de voz renderizadas em background")
+    public ResponseEntity<List<VarianteAudioDto>> listarVariantes(
+            @Parameter(description = "ID do arquivo de áudio") @PathVariable Long id) {
+        
+        return ResponseEntity.ok(arquivoAudioService.listarVariantes(id));
+    }
+
+    /**
+     * Retorna o sidecar binário com os picos da forma de onda
+     */
+    @GetMapping(value = "/{id}/waveform", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Forma de onda do áudio", 
+               description = "Retorna os picos mínimo/máximo pré-calculados em formato binário compacto")
+    public ResponseEntity<byte[]> buscarWaveformBinario(
+            @Parameter(description = "ID do arquivo de áudio") @PathVariable Long id) {
+        
+        log.debug("Requisição para buscar forma de onda do arquivo ID: {}", id);
+        
+        return arquivoAudioService.buscarWaveformBinario(id)
+                .map(waveform -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                        .body(waveform))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retorna os picos da forma de onda em JSON
+     */
+    @GetMapping(value = "/{id}/waveform", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Forma de onda do áudio (JSON)", 
+               description = "Retorna os picos mínimo/máximo pré-calculados, codificados em base64")
+    public ResponseEntity<WaveformDto> buscarWaveform(
+            @Parameter(description = "ID do arquivo de áudio") @PathVariable Long id) {
+        
+        return arquivoAudioService.buscarWaveform(id)
+                .map(waveform -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                        .body(waveform))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Lista arquivos de áudio por usuário
      */
@@ -80,6 +180,25 @@ public class AudioController {
         return ResponseEntity.status(HttpStatus.CREATED).body(arquivoSalvo);
     }
 
+    /**
+     * Upload de áudio via stream do corpo da requisição
+     */
+    @PutMapping(value = "/stream", consumes = {"audio/webm", "audio/wav", "audio/mpeg", "audio/mp3", 
+                                               "application/octet-stream"})
+    @Operation(summary = "Upload de áudio via stream", 
+               description = "Grava o corpo bruto da requisição direto no storage, sem multipart")
+    public ResponseEntity<ArquivoAudioDto> uploadArquivoStream(
+            @Parameter(description = "ID do usuário") @RequestParam("usuarioId") Long usuarioId,
+            @Parameter(description = "Nome do arquivo") @RequestParam(value = "nomeArquivo", required = false) String nomeArquivo,
+            HttpServletRequest requisicao) throws IOException {
+        
+        log.info("Requisição para upload via stream do usuário: {}", usuarioId);
+        
+        ArquivoAudioDto arquivoSalvo = arquivoAudioService.processarUploadStream(
+            requisicao.getInputStream(), usuarioId, nomeArquivo);
+        return ResponseEntity.status(HttpStatus.CREATED).body(arquivoSalvo);
+    }
+
     /**
      * Upload de áudio via base64
      */
@@ -98,39 +217,196 @@ public class AudioController {
         return ResponseEntity.status(HttpStatus.CREATED).body(arquivoSalvo);
     }
 
+    /**
+     * Upload de áudio base64 em JSON com decodificação em stream
+     */
+    @PostMapping(value = "/upload-base64/stream", consumes = "application/json")
+    @Operation(summary = "Upload de áudio base64 via stream", 
+               description = "Recebe {usuarioId, nomeArquivo, audioDataUri} e decodifica o base64 direto para o storage")
+    public ResponseEntity<ArquivoAudioDto> uploadAudioBase64Stream(HttpServletRequest requisicao) throws IOException {
+        
+        log.info("Requisição para upload base64 via stream");
+        
+        ArquivoAudioDto arquivoSalvo = arquivoAudioService.processarUploadBase64Stream(requisicao.getInputStream());
+        return ResponseEntity.status(HttpStatus.CREATED).body(arquivoSalvo);
+    }
+
+    /**
+     * Abre uma sessão de upload retomável
+     */
+    @PostMapping("/sessoes-upload")
+    @Operation(summary = "Criar sessão de upload", 
+               description = "Abre um upload retomável; as partes são enviadas com PATCH a partir do Upload-Offset")
+    public ResponseEntity<SessaoUploadDto> criarSessaoUpload(
+            @Parameter(description = "ID do usuário") @RequestParam("usuarioId") Long usuarioId,
+            @Parameter(description = "Nome do arquivo") @RequestParam(value = "nomeArquivo", required = false) String nomeArquivo,
+            @Parameter(description = "Tamanho total do arquivo em bytes, se conhecido") 
+            @RequestHeader(value = "Upload-Length", required = false) Long tamanhoTotal) {
+        
+        log.info("Requisição para criar sessão de upload do usuário: {}", usuarioId);
+        
+        SessaoUploadDto sessao = sessaoUploadService.criar(usuarioId, nomeArquivo, tamanhoTotal);
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(sessao.getId()).toUri())
+                .header("Upload-Offset", "0")
+                .body(sessao);
+    }
+
+    /**
+     * Consulta o deslocamento confirmado de uma sessão de upload
+     */
+    @RequestMapping(value = "/sessoes-upload/{id}", method = RequestMethod.HEAD)
+    @Operation(summary = "Consultar sessão de upload", 
+               description = "Retorna em Upload-Offset quantos bytes já foram confirmados")
+    public ResponseEntity<Void> consultarSessaoUpload(
+            @Parameter(description = "ID da sessão de upload") @PathVariable String id) {
+        
+        return sessaoUploadService.buscar(id)
+                .map(sessao -> {
+                    ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                            .cacheControl(CacheControl.noStore())
+                            .header("Upload-Offset", String.valueOf(sessao.getDeslocamento()));
+                    if (sessao.getTamanhoTotal() != null) {
+                        resposta.header("Upload-Length", String.valueOf(sessao.getTamanhoTotal()));
+                    }
+                    return resposta.<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Envia uma parte do arquivo para a sessão de upload
+     */
+    @PatchMapping(value = "/sessoes-upload/{id}", consumes = {"application/offset+octet-stream", 
+                                                             "application/octet-stream"})
+    @Operation(summary = "Enviar parte do upload", 
+               description = "Acrescenta o corpo ao arquivo da sessão; Upload-Offset deve ser o último confirmado")
+    public ResponseEntity<Void> enviarParteUpload(
+            @Parameter(description = "ID da sessão de upload") @PathVariable String id,
+            @Parameter(description = "Deslocamento da parte") @RequestHeader("Upload-Offset") long deslocamento,
+            HttpServletRequest requisicao) throws IOException {
+        
+        if (sessaoUploadService.buscar(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        SessaoUploadDto sessao = sessaoUploadService.anexar(id, deslocamento, requisicao.getInputStream());
+        return ResponseEntity.noContent()
+                .header("Upload-Offset", String.valueOf(sessao.getDeslocamento()))
+                .build();
+    }
+
+    /**
+     * Conclui a sessão de upload, registrando o arquivo de áudio
+     */
+    @PostMapping("/sessoes-upload/{id}/finalizar")
+    @Operation(summary = "Finalizar sessão de upload", 
+               description = "Valida e publica o arquivo recebido, retornando o arquivo de áudio criado")
+    public ResponseEntity<ArquivoAudioDto> finalizarSessaoUpload(
+            @Parameter(description = "ID da sessão de upload") @PathVariable String id) {
+        
+        log.info("Requisição para finalizar sessão de upload: {}", id);
+        
+        if (sessaoUploadService.buscar(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        ArquivoAudioDto arquivoSalvo = sessaoUploadService.finalizar(id);
+        return ResponseEntity.status(HttpStatus.CREATED).body(arquivoSalvo);
+    }
+
+    /**
+     * Cancela uma sessão de upload
+     */
+    @DeleteMapping("/sessoes-upload/{id}")
+    @Operation(summary = "Cancelar sessão de upload", 
+               description = "Descarta a sessão e os bytes já recebidos")
+    public ResponseEntity<Void> cancelarSessaoUpload(
+            @Parameter(description = "ID da sessão de upload") @PathVariable String id) {
+        
+        log.info("Requisição para cancelar sessão de upload: {}", id);
+        
+        if (sessaoUploadService.buscar(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        sessaoUploadService.cancelar(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Transcreve um arquivo já armazenado, sem reenvio do áudio pelo cliente
+     */
+    @PostMapping("/{id}/transcrever")
+    @Operation(summary = "Transcrever arquivo armazenado", 
+               description = "Transcreve o áudio já enviado, lendo-o do storage, e grava a transcrição")
+    public CompletableFuture<ArquivoAudioDto> transcreverArquivo(
+            @Parameter(description = "ID do arquivo de áudio") @PathVariable Long id) {
+        
+        log.info("Requisição para transcrição do arquivo ID: {}", id);
+        return arquivoAudioService.transcreverArquivo(id);
+    }
+
+    /**
+     * Transcreve um arquivo armazenado em stream via Server-Sent Events
+     */
+    @PostMapping(value = "/{id}/transcrever/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Transcrever arquivo armazenado em stream", 
+               description = "Envia eventos 'parcial' com cada trecho gerado e 'concluida' com a transcrição "
+                       + "completa, já gravada no arquivo; falhas chegam como evento 'erro'")
+    public Flux<ServerSentEvent<Object>> transcreverArquivoEmStream(
+            @Parameter(description = "ID do arquivo de áudio") @PathVariable Long id) {
+        
+        log.info("Requisição para transcrição em stream do arquivo ID: {}", id);
+        return eventosTranscricao(arquivoAudioService.transcreverArquivoEmStream(id));
+    }
+
     /**
      * Transcreve áudio usando Google AI
      */
     @PostMapping("/transcrever")
     @Operation(summary = "Transcrever áudio", 
                description = "Transcreve áudio usando Google AI")
-    public ResponseEntity<TranscricaoResponse> transcreverAudio(
+    public CompletableFuture<ResponseEntity<TranscricaoResponse>> transcreverAudio(
             @Parameter(description = "Dados para transcrição") 
             @Valid @RequestBody TranscricaoRequest request) {
         
         log.info("Requisição para transcrição de áudio");
         
-        try {
-            String transcricao = googleAIService.transcreverAudio(request.getAudioDataUri());
-            
-            TranscricaoResponse response = TranscricaoResponse.builder()
-                    .transcricao(transcricao)
-                    .sucesso(true)
-                    .mensagem("Transcrição realizada com sucesso")
-                    .build();
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            log.error("Erro na transcrição: {}", e.getMessage());
-            
-            TranscricaoResponse response = TranscricaoResponse.builder()
-                    .sucesso(false)
-                    .mensagem("Erro na transcrição: " + e.getMessage())
-                    .build();
-            
-            return ResponseEntity.badRequest().body(response);
-        }
+        // A thread do servlet é liberada enquanto o Google AI responde
+        return googleAIService.transcreverAudioAsync(request.getAudioDataUri(), null, PrioridadeChamada.INTERATIVA)
+                .thenApply(transcricao -> ResponseEntity.ok(TranscricaoResponse.builder()
+                        .transcricao(transcricao)
+                        .sucesso(true)
+                        .mensagem("Transcrição realizada com sucesso")
+                        .build()))
+                .exceptionally(erro -> {
+                    Throwable causa = causaRaiz(erro);
+                    log.error("Erro na transcrição: {}", causa.getMessage());
+                    
+                    TranscricaoResponse response = TranscricaoResponse.builder()
+                            .sucesso(false)
+                            .mensagem("Erro na transcrição: " + causa.getMessage())
+                            .build();
+                    
+                    return respostaDeErro(causa, response);
+                });
+    }
+
+    /**
+     * Transcreve áudio em stream via Server-Sent Events
+     */
+    @PostMapping(value = "/transcrever/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Transcrever áudio em stream", 
+               description = "Envia eventos 'parcial' com cada trecho assim que o Google AI o gera e "
+                       + "'concluida' com a transcrição completa; falhas chegam como evento 'erro'")
+    public Flux<ServerSentEvent<Object>> transcreverAudioEmStream(
+            @Parameter(description = "Dados para transcrição") 
+            @Valid @RequestBody TranscricaoRequest request) {
+        
+        log.info("Requisição para transcrição de áudio em stream");
+        return eventosTranscricao(googleAIService.transcreverAudioEmStream(request.getAudioDataUri(),
+                PrioridadeChamada.INTERATIVA));
     }
 
     /**
@@ -139,51 +415,104 @@ public class AudioController {
     @PostMapping("/transformar-voz")
     @Operation(summary = "Transformar voz", 
                description = "Transforma voz aplicando filtros (natural/robótico)")
-    public ResponseEntity<TransformacaoVozResponse> transformarVoz(
+    public CompletableFuture<ResponseEntity<TransformacaoVozResponse>> transformarVoz(
             @Parameter(description = "Dados para transformação de voz") 
             @Valid @RequestBody TransformacaoVozRequest request) {
         
         log.info("Requisição para transformação de voz - tipo: {}", request.getTipoFiltro());
         
+        CompletableFuture<ResponseEntity<TransformacaoVozResponse>> resposta;
         try {
-            String audioTransformado;
             String transcricao = request.getTranscricao();
             
-            switch (request.getTipoFiltro()) {
-                case ROBOTICO:
-                    audioTransformado = googleAIService.transformarVozRobotica(
-                        request.getAudioDataUri(), transcricao);
-                    break;
-                case NATURAL:
-                default:
-                    audioTransformado = request.getAudioDataUri(); // Sem transformação
-                    break;
-            }
+            // Filtros aplicados localmente; o natural devolve o áudio sem transformação
+            String audioTransformado = motorEfeitosVoz.aplicar(request.getTipoFiltro(), request.getAudioDataUri());
             
             // Se não há transcrição, gera uma
-            if (transcricao == null || transcricao.trim().isEmpty()) {
-                transcricao = googleAIService.transcreverAudio(request.getAudioDataUri());
-            }
+            CompletableFuture<String> transcricaoFutura = transcricao == null || transcricao.trim().isEmpty()
+                    ? googleAIService.transcreverAudioAsync(request.getAudioDataUri(), null,
+                            PrioridadeChamada.INTERATIVA)
+                    : CompletableFuture.completedFuture(transcricao);
             
-            TransformacaoVozResponse response = TransformacaoVozResponse.builder()
-                    .audioTransformadoDataUri(audioTransformado)
-                    .transcricao(transcricao)
-                    .sucesso(true)
-                    .mensagem("Transformação realizada com sucesso")
-                    .build();
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            log.error("Erro na transformação de voz: {}", e.getMessage());
+            resposta = transcricaoFutura.thenApply(transcricaoFinal ->
+                    ResponseEntity.ok(TransformacaoVozResponse.builder()
+                            .audioTransformadoDataUri(audioTransformado)
+                            .transcricao(transcricaoFinal)
+                            .sucesso(true)
+                            .mensagem("Transformação realizada com sucesso")
+                            .build()));
+        } catch (RuntimeException e) {
+            resposta = CompletableFuture.failedFuture(e);
+        }
+        
+        return resposta.exceptionally(erro -> {
+            Throwable causa = causaRaiz(erro);
+            log.error("Erro na transformação de voz: {}", causa.getMessage());
             
             TransformacaoVozResponse response = TransformacaoVozResponse.builder()
                     .sucesso(false)
-                    .mensagem("Erro na transformação: " + e.getMessage())
+                    .mensagem("Erro na transformação: " + causa.getMessage())
                     .build();
             
-            return ResponseEntity.badRequest().body(response);
+            return respostaDeErro(causa, response);
+        });
+    }
+
+    /**
+     * Falhas rápidas do cliente do Google AI viram 503 com Retry-After; as demais mantêm o 400
+     */
+    private <T> ResponseEntity<T> respostaDeErro(Throwable causa, T corpo) {
+        if (causa instanceof ServicoIndisponivelException indisponivel) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(indisponivel.getRetryAfterSegundos()))
+                    .body(corpo);
         }
+        return ResponseEntity.badRequest().body(corpo);
+    }
+
+    /**
+     * Converte os trechos em eventos SSE; o status HTTP já foi enviado, então falhas viram
+     * um evento 'erro', com o Retry-After como intervalo de reconexão quando houver
+     */
+    private Flux<ServerSentEvent<Object>> eventosTranscricao(Flux<String> trechos) {
+        return Flux.defer(() -> {
+            StringBuilder completa = new StringBuilder();
+            return trechos
+                    .map(trecho -> {
+                        completa.append(trecho);
+                        return ServerSentEvent.<Object>builder(TrechoTranscricaoResponse.builder()
+                                        .texto(trecho)
+                                        .build())
+                                .event("parcial")
+                                .build();
+                    })
+                    .concatWith(Mono.fromSupplier(() -> ServerSentEvent.<Object>builder(TranscricaoResponse.builder()
+                                    .transcricao(completa.toString())
+                                    .sucesso(true)
+                                    .mensagem("Transcrição realizada com sucesso")
+                                    .build())
+                            .event("concluida")
+                            .build()))
+                    .onErrorResume(erro -> {
+                        Throwable causa = causaRaiz(erro);
+                        log.error("Erro na transcrição em stream: {}", causa.getMessage());
+                        
+                        ServerSentEvent.Builder<Object> evento = ServerSentEvent.<Object>builder(
+                                        TranscricaoResponse.builder()
+                                                .sucesso(false)
+                                                .mensagem("Erro na transcrição: " + causa.getMessage())
+                                                .build())
+                                .event("erro");
+                        if (causa instanceof ServicoIndisponivelException indisponivel) {
+                            evento.retry(Duration.ofSeconds(indisponivel.getRetryAfterSegundos()));
+                        }
+                        return Mono.just(evento.build());
+                    });
+        });
+    }
+
+    private Throwable causaRaiz(Throwable erro) {
+        return erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
     }
 
     /**
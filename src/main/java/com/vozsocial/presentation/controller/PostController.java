@@ -2,10 +2,12 @@ package com.vozsocial.presentation.controller;
 
 import com.vozsocial.application.dto.PostAudioDto;
 import com.vozsocial.application.dto.request.CriarPostRequest;
+import com.vozsocial.application.dto.response.PaginaCursorResponse;
 import com.vozsocial.domain.service.PostAudioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +19,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+
 /**
  * Controller responsável pelos endpoints relacionados aos posts de áudio
  */
@@ -48,38 +52,73 @@ public class PostController {
     /**
      * Busca feed principal de posts
      */
-    @GetMapping("/feed")
+    @GetMapping(value = "/feed", params = "!cursor")
     @Operation(summary = "Buscar feed de posts", description = "Retorna feed principal com posts mais recentes")
     public ResponseEntity<Page<PostAudioDto>> buscarFeed(
             @Parameter(description = "Número da página (0-based)") @RequestParam(defaultValue = "0") int pagina,
-            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho) {
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho,
+            @Parameter(description = "Inclui os picos da forma de onda de cada post") @RequestParam(defaultValue = "false") boolean incluirWaveform) {
         
         log.debug("Requisição para buscar feed - página: {}, tamanho: {}", pagina, tamanho);
         
         Pageable pageable = PageRequest.of(pagina, tamanho);
-        Page<PostAudioDto> feed = postAudioService.buscarFeed(pageable);
+        Page<PostAudioDto> feed = postAudioService.buscarFeed(pageable, incluirWaveform);
         
         return ResponseEntity.ok(feed);
     }
 
+    /**
+     * Busca feed principal de posts por cursor
+     */
+    @GetMapping(value = "/feed", params = "cursor")
+    @Operation(summary = "Buscar feed de posts por cursor", 
+               description = "Retorna o feed a partir do cursor da página anterior (vazio na primeira), sem contagem de posts")
+    public ResponseEntity<PaginaCursorResponse<PostAudioDto>> buscarFeedPorCursor(
+            @Parameter(description = "Cursor devolvido pela página anterior; vazio para a primeira página") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho,
+            @Parameter(description = "Inclui os picos da forma de onda de cada post") @RequestParam(defaultValue = "false") boolean incluirWaveform) {
+        
+        log.debug("Requisição para buscar feed por cursor - tamanho: {}", tamanho);
+        
+        return ResponseEntity.ok(postAudioService.buscarFeedPorCursor(cursor, tamanho, incluirWaveform));
+    }
+
     /**
      * Busca posts por usuário
      */
-    @GetMapping("/usuario/{usuarioId}")
+    @GetMapping(value = "/usuario/{usuarioId}", params = "!cursor")
     @Operation(summary = "Buscar posts por usuário", description = "Retorna posts de um usuário específico")
     public ResponseEntity<Page<PostAudioDto>> buscarPostsDoUsuario(
             @Parameter(description = "ID do usuário") @PathVariable Long usuarioId,
             @Parameter(description = "Número da página (0-based)") @RequestParam(defaultValue = "0") int pagina,
-            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho) {
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho,
+            @Parameter(description = "Inclui os picos da forma de onda de cada post") @RequestParam(defaultValue = "false") boolean incluirWaveform) {
         
         log.debug("Requisição para buscar posts do usuário: {}", usuarioId);
         
         Pageable pageable = PageRequest.of(pagina, tamanho);
-        Page<PostAudioDto> posts = postAudioService.buscarPostsDoUsuario(usuarioId, pageable);
+        Page<PostAudioDto> posts = postAudioService.buscarPostsDoUsuario(usuarioId, pageable, incluirWaveform);
         
         return ResponseEntity.ok(posts);
     }
 
+    /**
+     * Busca posts por usuário por cursor
+     */
+    @GetMapping(value = "/usuario/{usuarioId}", params = "cursor")
+    @Operation(summary = "Buscar posts por usuário por cursor", 
+               description = "Retorna posts de um usuário a partir do cursor da página anterior, sem contagem de posts")
+    public ResponseEntity<PaginaCursorResponse<PostAudioDto>> buscarPostsDoUsuarioPorCursor(
+            @Parameter(description = "ID do usuário") @PathVariable Long usuarioId,
+            @Parameter(description = "Cursor devolvido pela página anterior; vazio para a primeira página") @RequestParam String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho,
+            @Parameter(description = "Inclui os picos da forma de onda de cada post") @RequestParam(defaultValue = "false") boolean incluirWaveform) {
+        
+        log.debug("Requisição para buscar posts do usuário {} por cursor", usuarioId);
+        
+        return ResponseEntity.ok(postAudioService.buscarPostsDoUsuarioPorCursor(usuarioId, cursor, tamanho, incluirWaveform));
+    }
+
     /**
      * Busca posts mais curtidos
      */
@@ -87,12 +126,13 @@ public class PostController {
     @Operation(summary = "Buscar posts mais curtidos", description = "Retorna posts ordenados por número de curtidas")
     public ResponseEntity<Page<PostAudioDto>> buscarPostsMaisCurtidos(
             @Parameter(description = "Número da página (0-based)") @RequestParam(defaultValue = "0") int pagina,
-            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho) {
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "10") int tamanho,
+            @Parameter(description = "Inclui os picos da forma de onda de cada post") @RequestParam(defaultValue = "false") boolean incluirWaveform) {
         
         log.debug("Requisição para buscar posts mais curtidos");
         
         Pageable pageable = PageRequest.of(pagina, tamanho);
-        Page<PostAudioDto> posts = postAudioService.buscarPostsMaisCurtidos(pageable);
+        Page<PostAudioDto> posts = postAudioService.buscarPostsMaisCurtidos(pageable, incluirWaveform);
         
         return ResponseEntity.ok(posts);
     }
@@ -120,6 +160,57 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(postCriado);
     }
 
+    /**
+     * Cria post com áudio enviado como corpo bruto da requisição
+     */
+    @PutMapping(value = "/com-arquivo/stream", consumes = {"audio/webm", "audio/wav", "audio/mpeg", "audio/mp3", 
+                                                           "application/octet-stream"})
+    @Operation(summary = "Criar post com áudio via stream", 
+               description = "Cria novo post gravando o corpo bruto da requisição direto no storage")
+    public ResponseEntity<PostAudioDto> criarPostComStream(
+            @Parameter(description = "ID do usuário") @RequestParam("usuarioId") Long usuarioId,
+            @Parameter(description = "Conteúdo do post") @RequestParam(value = "conteudo", required = false) String conteudo,
+            @Parameter(description = "Tipo de filtro de voz") @RequestParam(value = "tipoFiltroVoz", defaultValue = "NATURAL") String tipoFiltroVoz,
+            @Parameter(description = "Nome do arquivo") @RequestParam(value = "nomeArquivo", required = false) String nomeArquivo,
+            HttpServletRequest requisicao) throws IOException {
+        
+        log.info("Requisição para criar post com áudio via stream - usuário: {}", usuarioId);
+        
+        CriarPostRequest request = CriarPostRequest.builder()
+                .usuarioId(usuarioId)
+                .conteudo(conteudo)
+                .tipoFiltroVoz(com.vozsocial.domain.enums.TipoFiltroVoz.valueOf(tipoFiltroVoz))
+                .nomeArquivo(nomeArquivo)
+                .build();
+        
+        PostAudioDto postCriado = postAudioService.criarPostComStream(requisicao.getInputStream(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(postCriado);
+    }
+
+    /**
+     * Cria post a partir de uma sessão de upload retomável já enviada
+     */
+    @PostMapping("/com-sessao-upload/{sessaoId}")
+    @Operation(summary = "Criar post com sessão de upload", 
+               description = "Finaliza a sessão de upload informada e cria o post com o áudio recebido")
+    public ResponseEntity<PostAudioDto> criarPostComSessaoUpload(
+            @Parameter(description = "ID da sessão de upload") @PathVariable String sessaoId,
+            @Parameter(description = "ID do usuário") @RequestParam("usuarioId") Long usuarioId,
+            @Parameter(description = "Conteúdo do post") @RequestParam(value = "conteudo", required = false) String conteudo,
+            @Parameter(description = "Tipo de filtro de voz") @RequestParam(value = "tipoFiltroVoz", defaultValue = "NATURAL") String tipoFiltroVoz) {
+        
+        log.info("Requisição para criar post com sessão de upload {} - usuário: {}", sessaoId, usuarioId);
+        
+        CriarPostRequest request = CriarPostRequest.builder()
+                .usuarioId(usuarioId)
+                .conteudo(conteudo)
+                .tipoFiltroVoz(com.vozsocial.domain.enums.TipoFiltroVoz.valueOf(tipoFiltroVoz))
+                .build();
+        
+        PostAudioDto postCriado = postAudioService.criarPostComSessaoUpload(sessaoId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(postCriado);
+    }
+
     /**
      * Cria post com áudio base64
      */
@@ -135,6 +226,20 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(postCriado);
     }
 
+    /**
+     * Cria post com áudio base64 decodificado em stream
+     */
+    @PostMapping(value = "/com-audio-base64/stream", consumes = "application/json")
+    @Operation(summary = "Criar post com áudio base64 via stream", 
+               description = "Mesmo corpo de /com-audio-base64, mas o data URI é decodificado em stream sem ficar em memória")
+    public ResponseEntity<PostAudioDto> criarPostComAudioBase64Stream(HttpServletRequest requisicao) throws IOException {
+        
+        log.info("Requisição para criar post com áudio base64 via stream");
+        
+        PostAudioDto postCriado = postAudioService.criarPostComAudioBase64Stream(requisicao.getInputStream());
+        return ResponseEntity.status(HttpStatus.CREATED).body(postCriado);
+    }
+
     /**
      * Atualiza conteúdo do post
      */
@@ -0,0 +1,18 @@
+-- =====================================================
+-- Script de migração V3 - Armazenamento endereçado por conteúdo
+-- VozSocial MVP - Deduplicação de arquivos de áudio
+-- =====================================================
+
+-- Blobs de áudio armazenados uma única vez por hash SHA-256
+CREATE TABLE blobs_audio (
+    hash_conteudo VARCHAR(64) PRIMARY KEY,
+    caminho_arquivo VARCHAR(500) NOT NULL,
+    tamanho_arquivo BIGINT,
+    referencias INT NOT NULL DEFAULT 0,
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Hash do conteúdo referenciado por cada arquivo (nulo para arquivos legados)
+ALTER TABLE arquivos_audio
+    ADD COLUMN hash_conteudo VARCHAR(64) NULL AFTER caminho_arquivo,
+    ADD INDEX idx_hash_conteudo (hash_conteudo);
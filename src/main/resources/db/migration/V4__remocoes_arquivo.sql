@@ -0,0 +1,22 @@
+-- =====================================================
+-- Script de migração V4 - Remoção assíncrona de arquivos físicos
+-- VozSocial MVP - Tombstones processados pelo coletor em background
+-- =====================================================
+
+-- Arquivos físicos aguardando remoção após o commit da exclusão
+CREATE TABLE remocoes_arquivo (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    caminho_arquivo VARCHAR(500) NOT NULL,
+    hash_conteudo VARCHAR(64) NULL,
+    tentativas INT NOT NULL DEFAULT 0,
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    INDEX idx_caminho_arquivo (caminho_arquivo)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Permite conferir rapidamente se um caminho do storage ainda é referenciado
+ALTER TABLE arquivos_audio
+    ADD INDEX idx_caminho_arquivo (caminho_arquivo);
+
+ALTER TABLE blobs_audio
+    ADD INDEX idx_caminho_arquivo (caminho_arquivo);
@@ -0,0 +1,19 @@
+-- =====================================================
+-- Script de migração V5 - Uploads retomáveis
+-- VozSocial MVP - Sessões de upload enviadas em partes
+-- =====================================================
+
+-- Sessões de upload em andamento; o deslocamento é o total de bytes já confirmados
+CREATE TABLE sessoes_upload (
+    id VARCHAR(36) PRIMARY KEY,
+    usuario_id BIGINT NOT NULL,
+    nome_arquivo VARCHAR(255),
+    caminho_temporario VARCHAR(500) NOT NULL,
+    tamanho_total BIGINT NULL,
+    deslocamento BIGINT NOT NULL DEFAULT 0,
+    expira_em TIMESTAMP NOT NULL,
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (usuario_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+    INDEX idx_expira_em (expira_em)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,22 @@
+-- =====================================================
+-- Script de migração V6 - Fila de transcrição
+-- VozSocial MVP - Jobs de transcrição processados em background
+-- =====================================================
+
+-- Um job por post; os workers reservam jobs com FOR UPDATE SKIP LOCKED
+CREATE TABLE jobs_transcricao (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    post_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE',
+    tentativas INT NOT NULL DEFAULT 0,
+    proxima_tentativa_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    reservado_ate TIMESTAMP NULL,
+    ultimo_erro VARCHAR(500),
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    atualizado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (post_id) REFERENCES posts_audio(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_job_transcricao_post (post_id),
+    INDEX idx_status_proxima_tentativa (status, proxima_tentativa_em),
+    INDEX idx_status_reservado_ate (status, reservado_ate)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,26 @@
+-- =====================================================
+-- Script de migração V7 - Variantes de áudio com filtro de voz
+-- VozSocial MVP - Versões filtradas pré-renderizadas após o upload
+-- =====================================================
+
+-- Uma variante por arquivo e filtro; o conteúdo renderizado é um blob como qualquer outro
+CREATE TABLE variantes_audio (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    arquivo_audio_id BIGINT NOT NULL,
+    tipo_filtro_voz VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE',
+    caminho_arquivo VARCHAR(500) NULL,
+    hash_conteudo VARCHAR(64) NULL,
+    tamanho_arquivo BIGINT NULL,
+    tipo_mime VARCHAR(100) NULL,
+    tentativas INT NOT NULL DEFAULT 0,
+    proxima_tentativa_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ultimo_erro VARCHAR(500),
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    atualizado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (arquivo_audio_id) REFERENCES arquivos_audio(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_variante_arquivo_filtro (arquivo_audio_id, tipo_filtro_voz),
+    INDEX idx_status_proxima_tentativa (status, proxima_tentativa_em),
+    INDEX idx_caminho_arquivo (caminho_arquivo)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
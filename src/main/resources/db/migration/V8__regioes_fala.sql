@@ -0,0 +1,7 @@
+-- =====================================================
+-- Script de migração V8 - Regiões com fala detectadas no upload
+-- VozSocial MVP - Silêncio aparado antes do armazenamento e da transcrição
+-- =====================================================
+
+-- Intervalos "inicio-fim" em milissegundos, separados por vírgula, relativos ao áudio armazenado
+ALTER TABLE arquivos_audio ADD COLUMN regioes_fala TEXT NULL;
@@ -0,0 +1,26 @@
+-- =====================================================
+-- Script de migração V9 - Retranscrição em lote
+-- VozSocial MVP - Execuções retomáveis com checkpoint por keyset
+-- =====================================================
+
+-- ultimo_id é o checkpoint: todos os arquivos até ele já foram gravados com a versão da execução;
+-- só a instância em reservado_por avança o checkpoint, enquanto renova reservado_ate
+CREATE TABLE execucoes_retranscricao (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    modo VARCHAR(20) NOT NULL,
+    versao VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'EM_ANDAMENTO',
+    ultimo_id BIGINT NOT NULL DEFAULT 0,
+    id_final BIGINT NOT NULL,
+    total_estimado BIGINT NOT NULL DEFAULT 0,
+    processados BIGINT NOT NULL DEFAULT 0,
+    falhas BIGINT NOT NULL DEFAULT 0,
+    reservado_por VARCHAR(64) NULL,
+    reservado_ate TIMESTAMP NULL,
+    ultimo_erro VARCHAR(500),
+    concluido_em TIMESTAMP NULL,
+    criado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    atualizado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    INDEX idx_status_reservado_ate (status, reservado_ate)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;